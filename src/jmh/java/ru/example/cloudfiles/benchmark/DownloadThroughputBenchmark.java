@@ -0,0 +1,106 @@
+package ru.example.cloudfiles.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DownloadThroughputBenchmark {
+
+    @Param({"http://localhost:8080"})
+    private String baseUrl;
+
+    @Param({"benchmark/file.bin"})
+    private String path;
+
+    @Param({""})
+    private String session;
+
+    @Param({"1000"})
+    private int concurrency;
+
+    private ExecutorService executor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        URI uri = URI.create(baseUrl + "/api/resource/download?path="
+                + URLEncoder.encode(path, StandardCharsets.UTF_8));
+        request = HttpRequest.newBuilder(uri)
+                .header("Cookie", "SESSION=" + session)
+                .timeout(Duration.ofMinutes(5))
+                .GET()
+                .build();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().executor(executor).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        executor.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public long download() throws IOException, InterruptedException {
+        return fetch();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long concurrentDownloads() throws InterruptedException, ExecutionException {
+        List<Future<Long>> downloads = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            downloads.add(executor.submit(this::fetch));
+        }
+        long bytes = 0;
+        for (Future<Long> download : downloads) {
+            bytes += download.get();
+        }
+        return bytes;
+    }
+
+    private long fetch() throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            long bytes = body.transferTo(OutputStream.nullOutputStream());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Download failed with status " + response.statusCode());
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.example.cloudfiles.benchmark;
+
+import ru.example.cloudfiles.config.properties.MinioProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class PathFixtures {
+
+    static final long USER_ID = 42L;
+    static final String USER_DIRECTORY_PATTERN = "user-%d-files/";
+
+    private static final String[] SEGMENTS = {
+            "Documents", "Photos", "2024", "2025", "Project Alpha", "backup", "src", "main", "java",
+            "отчёты", "résumé", "Q3 planning", "node_modules", "assets", "invoices", "drafts"
+    };
+    private static final String[] EXTENSIONS = {".pdf", ".jpg", ".png", ".docx", ".txt", ".zip", ".mp4", ".java"};
+
+    private PathFixtures() {
+    }
+
+    static MinioProperties properties() {
+
+        MinioProperties properties = new MinioProperties();
+        properties.setBucket("benchmark");
+        properties.setUserDirectoryPattern(USER_DIRECTORY_PATTERN);
+        properties.setLookupConcurrency(16);
+        properties.setUserLookupConcurrency(32);
+        properties.setListingCacheEnabled(false);
+        return properties;
+    }
+
+    static List<String> userPaths(int count, long seed) {
+
+        Random random = new Random(seed);
+        List<String> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int depth = 1 + Math.min(7, (int) Math.abs(random.nextGaussian() * 2.5));
+            StringBuilder path = new StringBuilder();
+            for (int level = 1; level < depth; level++) {
+                path.append(SEGMENTS[random.nextInt(SEGMENTS.length)]).append('/');
+            }
+            if (random.nextInt(10) == 0) {
+                path.append(SEGMENTS[random.nextInt(SEGMENTS.length)]).append('/');
+            } else {
+                path.append("file-").append(i).append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+            }
+            paths.add(path.toString());
+        }
+        return paths;
+    }
+
+    static List<String> technicalPaths(int count, long seed) {
+
+        String userDirectory = USER_DIRECTORY_PATTERN.formatted(USER_ID);
+        return userPaths(count, seed).stream()
+                .map(userDirectory::concat)
+                .toList();
+    }
+}
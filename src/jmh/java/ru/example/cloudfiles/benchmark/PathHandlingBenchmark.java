@@ -0,0 +1,81 @@
+package ru.example.cloudfiles.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.mapper.ResourceMapper;
+import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.validation.PathValidator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathHandlingBenchmark {
+
+    @Param({"1000"})
+    private int entries;
+
+    private PathManager paths;
+    private PathValidator validator;
+    private ResourceMapper mapper;
+    private List<String> userPaths;
+    private List<String> technicalPaths;
+    private List<ResourceMetadata> metadata;
+
+    @Setup
+    public void setUp() {
+        paths = new PathManager(PathFixtures.properties());
+        validator = new PathValidator();
+        mapper = new ResourceMapper(paths);
+        userPaths = PathFixtures.userPaths(entries, 1L);
+        technicalPaths = PathFixtures.technicalPaths(entries, 1L);
+        metadata = technicalPaths.stream()
+                .map(path -> new ResourceMetadata(path, 1024, "etag", null))
+                .toList();
+    }
+
+    @Benchmark
+    public void toTechnicalPath(Blackhole blackhole) {
+        for (String path : userPaths) {
+            blackhole.consume(paths.toTechnicalPath(PathFixtures.USER_ID, path));
+        }
+    }
+
+    @Benchmark
+    public void toUserPath(Blackhole blackhole) {
+        for (String path : technicalPaths) {
+            blackhole.consume(paths.toUserPath(PathFixtures.USER_ID, path));
+        }
+    }
+
+    @Benchmark
+    public void validatePath(Blackhole blackhole) {
+        for (String path : technicalPaths) {
+            validator.validatePath(path);
+            blackhole.consume(path);
+        }
+    }
+
+    @Benchmark
+    public void mapToDto(Blackhole blackhole) {
+        for (ResourceMetadata item : metadata) {
+            blackhole.consume(mapper.toDto(PathFixtures.USER_ID, item));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package ru.example.cloudfiles.benchmark;
+
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.PendingUpload;
+import ru.example.cloudfiles.dto.PresignedPost;
+import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.UploadedPart;
+import ru.example.cloudfiles.repository.S3Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class StubS3Repository implements S3Repository {
+
+    private static final ZonedDateTime LAST_MODIFIED = ZonedDateTime.parse("2025-01-01T00:00:00Z");
+
+    private final Set<String> existing = ConcurrentHashMap.newKeySet();
+    private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+
+    void putObject(String path, byte[] content) {
+        existing.add(path);
+        contents.put(path, content);
+    }
+
+    @Override
+    public DeletionReport deleteResource(String bucketName, String path) {
+        existing.remove(path);
+        return new DeletionReport(1, Map.of(), Duration.ZERO);
+    }
+
+    @Override
+    public List<String> findAllNamesByPrefix(String bucket, String prefix, boolean recursive) {
+        return existing.stream().filter(path -> path.startsWith(prefix)).sorted().toList();
+    }
+
+    @Override
+    public List<ResourceMetadata> findAllByPrefix(String bucket, String prefix, boolean recursive) {
+        return streamByPrefix(bucket, prefix, recursive).toList();
+    }
+
+    @Override
+    public List<ResourceMetadata> findPageByPrefix(String bucket, String prefix, String startAfter, int limit) {
+        return streamByPrefix(bucket, prefix, true)
+                .filter(item -> item.path().compareTo(startAfter) > 0)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<ResourceMetadata> streamByPrefix(String bucket, String prefix, boolean recursive) {
+        return findAllNamesByPrefix(bucket, prefix, recursive).stream().map(path -> headResource(bucket, path));
+    }
+
+    @Override
+    public Resource getResourceByPath(String bucket, String path) {
+        byte[] content = contents.getOrDefault(path, new byte[0]);
+        return new Resource(path, new ByteArrayInputStream(content), content.length);
+    }
+
+    @Override
+    public ResourceMetadata headResource(String bucket, String path) {
+        return new ResourceMetadata(path, contents.getOrDefault(path, new byte[0]).length, "etag", LAST_MODIFIED);
+    }
+
+    @Override
+    public InputStream getResourceStream(String bucket, String path) {
+        return new ByteArrayInputStream(contents.getOrDefault(path, new byte[0]));
+    }
+
+    @Override
+    public InputStream getResourceRange(String bucket, String path, long offset, long length) {
+        return new ByteArrayInputStream(contents.getOrDefault(path, new byte[0]), (int) offset, (int) length);
+    }
+
+    @Override
+    public String getPresignedDownloadUrl(String bucket, String path, Duration expiry, String contentDisposition) {
+        return "http://stub/" + path;
+    }
+
+    @Override
+    public PresignedPost getPresignedUpload(String bucket, String path, Duration expiry, long maxSize) {
+        return new PresignedPost("http://stub/" + bucket, Map.of("key", path));
+    }
+
+    @Override
+    public void copyResource(String bucket, ResourceMetadata source, String target) {
+        existing.add(target);
+    }
+
+    @Override
+    public ResourceMetadata saveResource(String bucket, String path, InputStream dataStream, long size) {
+        try {
+            long written = dataStream.transferTo(OutputStream.nullOutputStream());
+            return new ResourceMetadata(path, written, "etag", LAST_MODIFIED);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String bucket, String path) {
+        return "upload";
+    }
+
+    @Override
+    public UploadedPart uploadPart(String bucket, String path, String uploadId, int partNumber,
+                                   InputStream dataStream, long size) {
+        return new UploadedPart(partNumber, "etag", size);
+    }
+
+    @Override
+    public List<UploadedPart> listParts(String bucket, String path, String uploadId) {
+        return List.of();
+    }
+
+    @Override
+    public void completeMultipartUpload(String bucket, String path, String uploadId, List<UploadedPart> parts) {
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String path, String uploadId) {
+    }
+
+    @Override
+    public List<PendingUpload> findMultipartUploads(String bucket) {
+        return List.of();
+    }
+
+    @Override
+    public List<String> createDirectory(String bucketName, String path) {
+        existing.add(path);
+        return List.of(path);
+    }
+
+    @Override
+    public boolean isObjectExists(String bucketName, String path) {
+        return existing.contains(path);
+    }
+
+    @Override
+    public Set<String> findExisting(String bucketName, Collection<String> paths) {
+        return paths.stream()
+                .filter(existing::contains)
+                .collect(Collectors.toSet());
+    }
+}
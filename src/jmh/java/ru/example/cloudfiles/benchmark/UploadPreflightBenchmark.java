@@ -0,0 +1,77 @@
+package ru.example.cloudfiles.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.mapper.ResourceMapper;
+import ru.example.cloudfiles.service.impl.ParallelTaskRunner;
+import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.UserConcurrencyLimiter;
+import ru.example.cloudfiles.service.impl.composition.DirectoryListingCache;
+import ru.example.cloudfiles.service.impl.composition.ResourceIndexService;
+import ru.example.cloudfiles.service.impl.composition.UploadService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UploadPreflightBenchmark {
+
+    @Param({"50", "500"})
+    private int files;
+
+    private UploadService uploadService;
+    private MultipartFile[] upload;
+
+    @Setup
+    public void setUp() {
+        MinioProperties props = PathFixtures.properties();
+        PathManager paths = new PathManager(props);
+        StubS3Repository s3Repo = new StubS3Repository();
+        s3Repo.putObject(paths.getUserDirectory(PathFixtures.USER_ID), new byte[0]);
+
+        uploadService = new UploadService(s3Repo, paths, props, new ResourceMapper(paths),
+                new NoOpIndexService(), new DirectoryListingCache(null, s3Repo, props, new SimpleMeterRegistry()),
+                new ParallelTaskRunner(), new UserConcurrencyLimiter());
+        upload = PathFixtures.userPaths(files, 2L).stream()
+                .filter(path -> !paths.isDirectory(path))
+                .map(path -> new MockMultipartFile("object", path, null, new byte[256]))
+                .toArray(MultipartFile[]::new);
+    }
+
+    @Benchmark
+    public List<ResourceInfoResponseDTO> uploadFolder() {
+        return uploadService.upload(PathFixtures.USER_ID, "", upload);
+    }
+
+    private static final class NoOpIndexService extends ResourceIndexService {
+
+        private NoOpIndexService() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public void indexResources(long userId, Collection<ResourceMetadata> resources) {
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.example.cloudfiles.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.mapper.ResourceMapper;
+import ru.example.cloudfiles.service.impl.OperationObserver;
+import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.composition.fileOperations.FileDownloadService;
+import ru.example.cloudfiles.service.impl.composition.fileOperations.FileQueryService;
+import ru.example.cloudfiles.service.impl.composition.fileOperations.ZipCompressionPolicy;
+import ru.example.cloudfiles.service.impl.composition.fileOperations.ZipEntryPrefetcher;
+import ru.example.cloudfiles.service.impl.composition.fileOperations.ZipPrefetchBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipStreamingBenchmark {
+
+    @Param({"200"})
+    private int entries;
+
+    @Param({"16384"})
+    private int entrySize;
+
+    @Param({"0", "6"})
+    private int compressionLevel;
+
+    private FileDownloadService downloadService;
+    private List<ResourceMetadata> listing;
+
+    @Setup
+    public void setUp() {
+        MinioProperties props = PathFixtures.properties();
+        PathManager paths = new PathManager(props);
+        StubS3Repository s3Repo = new StubS3Repository();
+        Random random = new Random(3L);
+
+        List<String> names = PathFixtures.technicalPaths(entries, 3L);
+        for (String name : names) {
+            byte[] content = new byte[paths.isDirectory(name) ? 0 : entrySize];
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) ('a' + random.nextInt(8));
+            }
+            s3Repo.putObject(name, content);
+        }
+        listing = names.stream().map(name -> s3Repo.headResource(props.getBucket(), name)).toList();
+
+        downloadService = new FileDownloadService(s3Repo,
+                new FileQueryService(s3Repo, paths, props, new ResourceMapper(paths)), paths, props,
+                new ZipEntryPrefetcher(s3Repo, paths, props, new ZipPrefetchBuffer(props, new SimpleMeterRegistry())),
+                new ZipCompressionPolicy(),
+                new OperationObserver(ObservationRegistry.NOOP));
+    }
+
+    @Benchmark
+    public void writeZip() throws IOException {
+        downloadService.writeZip(PathFixtures.USER_ID, listing, compressionLevel, OutputStream.nullOutputStream(),
+                () -> { });
+    }
+}
@@ -0,0 +1,25 @@
+package ru.example.cloudfiles.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService archiveJobExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("archive-job-", 0).factory());
+    }
+
+    @Bean
+    public Semaphore archiveBuildPermits(MinioProperties props) {
+        return new Semaphore(props.getArchiveBuildConcurrency(), true);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.example.cloudfiles.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+public class LoggingObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private static final String START_NANOS = LoggingObservationHandler.class.getName() + ".start";
+
+    @Override
+    public void onStart(Observation.Context context) {
+
+        context.put(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+
+        Long startedAt = context.get(START_NANOS);
+        long elapsedMicros = startedAt == null ? -1 : (System.nanoTime() - startedAt) / 1000;
+        Observation.ContextView parent = context.getParentObservation() != null
+                ? context.getParentObservation().getContextView() : null;
+
+        log.info("Span finished - name: '{}', parent: '{}', elapsed: {}us, tags: [{}], error: {}",
+                spanName(context),
+                parent != null ? spanName(parent) : "",
+                elapsedMicros,
+                StreamSupport.stream(context.getAllKeyValues().spliterator(), false)
+                        .map(keyValue -> keyValue.getKey() + "=" + keyValue.getValue())
+                        .collect(Collectors.joining(", ")),
+                context.getError() != null ? context.getError().toString() : "none");
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+
+        return true;
+    }
+
+    private String spanName(Observation.ContextView context) {
+
+        return context.getContextualName() != null ? context.getContextualName() : context.getName();
+    }
+}
@@ -0,0 +1,34 @@
+package ru.example.cloudfiles.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import ru.example.cloudfiles.repository.impl.ObjectMetadataCache;
+
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "minio", name = "metadata-cache-broadcast", havingValue = "true")
+public class MetadataCacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer metadataCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                          ObjectMetadataCache metadataCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 2);
+            if (parts.length == 2) {
+                metadataCache.evictLocal(parts[0], parts[1]);
+            } else {
+                log.warn("Malformed metadata cache invalidation message: '{}'", parts[0]);
+            }
+        }, new ChannelTopic(ObjectMetadataCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -2,13 +2,25 @@ package ru.example.cloudfiles.config;
 
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import ru.example.cloudfiles.config.properties.MinioProperties;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @RequiredArgsConstructor
 public class MinioConfig {
@@ -17,11 +29,12 @@ public class MinioConfig {
 
     @Bean
     @SneakyThrows
-    public MinioClient minioClient() {
+    public MinioClient minioClient(OkHttpClient minioHttpClient) {
         MinioClient minio = MinioClient.builder()
                 .endpoint(minioProperties.getUrl())
                 .credentials(minioProperties.getAccessKey(),
                         minioProperties.getSecretKey())
+                .httpClient(minioHttpClient)
                 .build();
         boolean bucketExists = minio.bucketExists(BucketExistsArgs.builder()
                 .bucket(minioProperties.getBucket())
@@ -33,4 +46,54 @@ public class MinioConfig {
         }
         return minio;
     }
+
+    @Bean
+    public MinioAsyncClient minioAsyncClient(OkHttpClient minioHttpClient) {
+        return MinioAsyncClient.builder()
+                .endpoint(minioProperties.getUrl())
+                .credentials(minioProperties.getAccessKey(),
+                        minioProperties.getSecretKey())
+                .httpClient(minioHttpClient)
+                .build();
+    }
+
+    @Bean
+    @SneakyThrows
+    public OkHttpClient minioHttpClient() {
+        MinioProperties.Http http = minioProperties.getHttp();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(http.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(http.getMaxIdleConnections(),
+                        http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(http.getConnectTimeout())
+                .readTimeout(http.getReadTimeout())
+                .writeTimeout(http.getWriteTimeout())
+                .protocols(http.isHttp2Enabled()
+                        ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : List.of(Protocol.HTTP_1_1));
+
+        if (minioProperties.getUrl().startsWith("https")) {
+            TrustManagerFactory trustManagerFactory =
+                    TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init((KeyStore) null);
+            X509TrustManager trustManager = (X509TrustManager) trustManagerFactory.getTrustManagers()[0];
+
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new X509TrustManager[]{trustManager}, null);
+            sslContext.getClientSessionContext().setSessionCacheSize(http.getTlsSessionCacheSize());
+            sslContext.getClientSessionContext().setSessionTimeout((int) http.getTlsSessionTimeout().toSeconds());
+            builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public MinioHttpClientMetrics minioHttpClientMetrics(OkHttpClient minioHttpClient) {
+        return new MinioHttpClientMetrics(minioHttpClient);
+    }
 }
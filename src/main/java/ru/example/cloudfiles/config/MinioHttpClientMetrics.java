@@ -0,0 +1,45 @@
+package ru.example.cloudfiles.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+@RequiredArgsConstructor
+public class MinioHttpClientMetrics implements MeterBinder {
+
+    private final OkHttpClient httpClient;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        ConnectionPool pool = httpClient.connectionPool();
+        Dispatcher dispatcher = httpClient.dispatcher();
+
+        Gauge.builder("minio.http.pool.connections", pool, ConnectionPool::connectionCount)
+                .description("Open connections in the MinIO HTTP pool")
+                .register(registry);
+        Gauge.builder("minio.http.pool.connections.idle", pool, ConnectionPool::idleConnectionCount)
+                .description("Idle connections in the MinIO HTTP pool")
+                .register(registry);
+        Gauge.builder("minio.http.pool.connections.active", pool,
+                        p -> p.connectionCount() - p.idleConnectionCount())
+                .description("Connections currently carrying a MinIO request")
+                .register(registry);
+        Gauge.builder("minio.http.dispatcher.running", dispatcher, Dispatcher::runningCallsCount)
+                .description("MinIO calls currently executing")
+                .register(registry);
+        Gauge.builder("minio.http.dispatcher.queued", dispatcher, Dispatcher::queuedCallsCount)
+                .description("MinIO calls waiting for a dispatcher slot")
+                .register(registry);
+        Gauge.builder("minio.http.dispatcher.max.requests", dispatcher, Dispatcher::getMaxRequests)
+                .description("Configured limit of concurrent MinIO calls")
+                .register(registry);
+        Gauge.builder("minio.http.dispatcher.max.requests.per.host", dispatcher, Dispatcher::getMaxRequestsPerHost)
+                .description("Configured limit of concurrent MinIO calls per host")
+                .register(registry);
+    }
+}
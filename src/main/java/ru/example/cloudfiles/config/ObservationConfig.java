@@ -0,0 +1,22 @@
+package ru.example.cloudfiles.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ObservationConfig implements WebMvcConfigurer {
+
+    @Bean
+    @ConditionalOnProperty(name = "observation.logging.enabled", havingValue = "true")
+    public LoggingObservationHandler loggingObservationHandler() {
+        return new LoggingObservationHandler();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestObservationInterceptor()).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,31 @@
+package ru.example.cloudfiles.config;
+
+import io.micrometer.common.KeyValue;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.example.cloudfiles.security.CustomUserDetails;
+import ru.example.cloudfiles.service.impl.OperationObserver;
+
+public class RequestObservationInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails user) {
+                context.addHighCardinalityKeyValue(KeyValue.of("user.id", String.valueOf(user.getId())));
+            }
+            String path = request.getParameter("path");
+            if (path != null) {
+                context.addHighCardinalityKeyValue(KeyValue.of("path.depth",
+                        String.valueOf(OperationObserver.pathDepth(path))));
+            }
+        });
+        return true;
+    }
+}
@@ -1,10 +1,17 @@
 package ru.example.cloudfiles.config.properties;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Getter
 @Setter
@@ -29,4 +36,146 @@ public class MinioProperties {
 
     @NotBlank
     private int bufferSize;
+
+    @Min(1)
+    @Max(1000)
+    private int deleteBatchSize = 1000;
+
+    @Min(1)
+    private int deleteMaxAttempts = 3;
+
+    @Min(1)
+    private int deleteConcurrency = 4;
+
+    @Min(1)
+    private int copyConcurrency = 16;
+
+    @Min(1)
+    private int lookupConcurrency = 16;
+
+    @Min(1)
+    private int userLookupConcurrency = 32;
+
+    @Min(1)
+    private int existenceScanLimit = 5000;
+
+    @Min(1)
+    private int uploadConcurrency = 8;
+
+    @Min(1)
+    private int userUploadConcurrency = 16;
+
+    @NotNull
+    private DataSize uploadPartSize = DataSize.ofMegabytes(10);
+
+    @NotNull
+    private DataSize uploadBufferLimit = DataSize.ofMegabytes(512);
+
+    @NotNull
+    private Duration uploadBufferWait = Duration.ofSeconds(30);
+
+    @Min(1)
+    private int zipPrefetchCount = 8;
+
+    @NotNull
+    private DataSize zipPrefetchBuffer = DataSize.ofMegabytes(32);
+
+    @Min(0)
+    @Max(9)
+    private int zipCompressionLevel = 6;
+
+    @NotNull
+    private Duration uploadSessionTtl = Duration.ofHours(24);
+
+    @NotNull
+    private Duration uploadSweepInterval = Duration.ofHours(1);
+
+    @NotNull
+    private Duration presignTtl = Duration.ofMinutes(5);
+
+    @NotNull
+    private Duration presignConfirmWindow = Duration.ofHours(1);
+
+    @NotBlank
+    private String archivePrefix = "archives/";
+
+    @NotNull
+    private Duration archiveJobTtl = Duration.ofHours(24);
+
+    @NotNull
+    private Duration archiveLinkExpiry = Duration.ofHours(1);
+
+    @NotNull
+    private Duration archiveJobHeartbeat = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration archiveJobStaleAfter = Duration.ofMinutes(2);
+
+    @NotNull
+    private Duration archiveSweepInterval = Duration.ofHours(1);
+
+    @Min(1)
+    private int archiveBuildConcurrency = 4;
+
+    @Min(1)
+    private int userArchiveConcurrency = 1;
+
+    private boolean listingCacheEnabled = true;
+
+    @NotNull
+    private Duration listingCacheTtl = Duration.ofMinutes(5);
+
+    @Min(1)
+    private int listingCacheMaxEntries = 2000;
+
+    private boolean metadataCacheEnabled = true;
+
+    @NotNull
+    private Duration metadataCacheTtl = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration metadataCacheNegativeTtl = Duration.ofSeconds(2);
+
+    @NotNull
+    private DataSize metadataCacheMaxSize = DataSize.ofMegabytes(16);
+
+    private boolean metadataCacheBroadcast;
+
+    @Valid
+    @NotNull
+    private Http http = new Http();
+
+    @Getter
+    @Setter
+    public static class Http {
+
+        @Min(1)
+        private int maxIdleConnections = 64;
+
+        @NotNull
+        private Duration keepAlive = Duration.ofMinutes(5);
+
+        @Min(1)
+        private int maxRequests = 256;
+
+        @Min(1)
+        private int maxRequestsPerHost = 128;
+
+        @NotNull
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        @NotNull
+        private Duration readTimeout = Duration.ofMinutes(5);
+
+        @NotNull
+        private Duration writeTimeout = Duration.ofMinutes(5);
+
+        private boolean http2Enabled;
+
+        @Min(0)
+        private int tlsSessionCacheSize;
+
+        @NotNull
+        private Duration tlsSessionTimeout = Duration.ofHours(24);
+    }
 }
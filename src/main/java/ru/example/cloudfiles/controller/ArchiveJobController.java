@@ -0,0 +1,56 @@
+package ru.example.cloudfiles.controller;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import ru.example.cloudfiles.docs.storage.archive.CreateArchiveJobDocs;
+import ru.example.cloudfiles.docs.storage.archive.GetArchiveJobDocs;
+import ru.example.cloudfiles.dto.response.ArchiveJobResponseDTO;
+import ru.example.cloudfiles.security.CustomUserDetails;
+import ru.example.cloudfiles.service.S3Service;
+
+@RestController
+@RequestMapping("api/archive-jobs")
+@RequiredArgsConstructor
+@Validated
+public class ArchiveJobController {
+
+    private final S3Service s3Service;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @CreateArchiveJobDocs
+    public ArchiveJobResponseDTO createJob(@RequestParam
+                                           @NotBlank
+                                           String path,
+                                           @RequestParam(required = false)
+                                           @Min(0) @Max(9)
+                                           Integer compressionLevel,
+                                           @AuthenticationPrincipal
+                                           CustomUserDetails userDetails) {
+
+        return s3Service.createArchiveJob(userDetails.getId(), path, compressionLevel);
+    }
+
+    @GetMapping("/{jobId}")
+    @ResponseStatus(HttpStatus.OK)
+    @GetArchiveJobDocs
+    public ArchiveJobResponseDTO getJob(@PathVariable
+                                        String jobId,
+                                        @AuthenticationPrincipal
+                                        CustomUserDetails userDetails) {
+
+        return s3Service.getArchiveJob(userDetails.getId(), jobId);
+    }
+}
@@ -1,9 +1,13 @@
 package ru.example.cloudfiles.controller;
 
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,8 +16,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.example.cloudfiles.docs.storage.directory.CreateDirectoryDocs;
 import ru.example.cloudfiles.docs.storage.directory.GetDirectoriesDocs;
+import ru.example.cloudfiles.dto.DirectoryPage;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.security.CustomUserDetails;
 import ru.example.cloudfiles.service.S3Service;
@@ -27,17 +33,48 @@ import java.util.List;
 @Validated
 public class DirectoryController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    public static final int UNPAGED = Integer.MAX_VALUE - 1;
+
     private final S3Service s3Service;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     @GetDirectoriesDocs
-    public List<ResourceInfoResponseDTO> getDirectory(@RequestParam
-                                                      String path,
-                                                      @AuthenticationPrincipal
-                                                      CustomUserDetails userDetails) {
+    public ResponseEntity<List<ResourceInfoResponseDTO>> getDirectory(
+            @RequestParam
+            String path,
+            @RequestParam(required = false)
+            String cursor,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "Parameter \"limit\" must be positive")
+            @Max(value = 1000, message = "Parameter \"limit\" must not exceed 1000")
+            Integer limit,
+            @AuthenticationPrincipal
+            CustomUserDetails userDetails) {
+
+        int pageSize = limit != null ? limit : cursor != null ? DEFAULT_PAGE_SIZE : UNPAGED;
+        DirectoryPage page = s3Service.getDirectory(userDetails.getId(), path, cursor, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @GetDirectoriesDocs
+    public ResponseEntity<StreamingResponseBody> streamDirectory(@RequestParam
+                                                                 String path,
+                                                                 @AuthenticationPrincipal
+                                                                 CustomUserDetails userDetails) {
 
-        return s3Service.getDirectory(userDetails.getId(), path);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(s3Service.streamDirectory(userDetails.getId(), path));
     }
 
     @PostMapping
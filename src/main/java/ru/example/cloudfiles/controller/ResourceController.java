@@ -1,5 +1,7 @@
 package ru.example.cloudfiles.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -11,23 +13,32 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.example.cloudfiles.docs.storage.resource.ConfirmPresignedUploadDocs;
 import ru.example.cloudfiles.docs.storage.resource.DeleteResourceDocs;
 import ru.example.cloudfiles.docs.storage.resource.DownloadResourceDocs;
 import ru.example.cloudfiles.docs.storage.resource.GetResourceDocs;
 import ru.example.cloudfiles.docs.storage.resource.MoveResourceDocs;
+import ru.example.cloudfiles.docs.storage.resource.PresignDownloadDocs;
+import ru.example.cloudfiles.docs.storage.resource.PresignUploadDocs;
 import ru.example.cloudfiles.docs.storage.resource.SearchResourceDocs;
 import ru.example.cloudfiles.docs.storage.resource.UploadResourceDocs;
+import ru.example.cloudfiles.docs.storage.resource.UploadStreamResourceDocs;
 import ru.example.cloudfiles.dto.DownloadResult;
+import ru.example.cloudfiles.dto.SearchPage;
+import ru.example.cloudfiles.dto.response.PresignedUrlResponseDTO;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.security.CustomUserDetails;
 import ru.example.cloudfiles.service.S3Service;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -36,6 +47,9 @@ import java.util.List;
 @Validated
 public class ResourceController {
 
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+
     private final S3Service s3Service;
 
 
@@ -69,12 +83,15 @@ public class ResourceController {
     @DownloadResourceDocs
     public ResponseEntity<StreamingResponseBody> downloadResource(
             @RequestParam @NotBlank String path,
+            @RequestParam(required = false) @Min(0) @Max(9) Integer compressionLevel,
+            @RequestHeader HttpHeaders requestHeaders,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
         DownloadResult downloadResult =
-                s3Service.prepareDownload(userDetails.getId(), path);
+                s3Service.prepareDownload(userDetails.getId(), path, compressionLevel, requestHeaders);
 
-        return ResponseEntity.ok()
+        return ResponseEntity.status(downloadResult.status())
+                .headers(downloadResult.headers())
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         downloadResult.contentDisposition())
                 .body(downloadResult.streamingBody());
@@ -100,13 +117,43 @@ public class ResourceController {
     @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
     @SearchResourceDocs
-    public List<ResourceInfoResponseDTO> search(@RequestParam
-                                                @NotBlank(message = "Parameter \"query\" must not be blank")
-                                                String query,
-                                                @AuthenticationPrincipal
-                                                CustomUserDetails userDetails) {
+    public ResponseEntity<List<ResourceInfoResponseDTO>> search(@RequestParam
+                                                                @NotBlank(message = "Parameter \"query\" must not be blank")
+                                                                String query,
+                                                                @RequestParam(required = false)
+                                                                @Min(value = 0, message = "Parameter \"page\" must not be negative")
+                                                                Integer page,
+                                                                @RequestParam(required = false)
+                                                                @Min(value = 1, message = "Parameter \"size\" must be positive")
+                                                                @Max(value = 500, message = "Parameter \"size\" must not exceed 500")
+                                                                Integer size,
+                                                                @AuthenticationPrincipal
+                                                                CustomUserDetails userDetails) {
+
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? size : page != null ? DEFAULT_SEARCH_PAGE_SIZE : DirectoryController.UNPAGED;
+        SearchPage result = s3Service.searchResource(userDetails.getId(), query, pageNumber, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.nextPage() != null) {
+            response.header(NEXT_PAGE_HEADER, String.valueOf(result.nextPage()));
+        }
+        return response.body(result.items());
+    }
+
 
-        return s3Service.searchResource(userDetails.getId(), query);
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @SearchResourceDocs
+    public ResponseEntity<StreamingResponseBody> streamSearch(@RequestParam
+                                                              @NotBlank(message = "Parameter \"query\" must not be blank")
+                                                              String query,
+                                                              @AuthenticationPrincipal
+                                                              CustomUserDetails userDetails) {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(s3Service.streamSearchResource(userDetails.getId(), query));
     }
 
 
@@ -122,4 +169,63 @@ public class ResourceController {
 
         return s3Service.uploadResource(userDetails.getId(), path, files);
     }
+
+
+    @PutMapping(value = "/stream", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    @UploadStreamResourceDocs
+    public ResourceInfoResponseDTO uploadStream(@RequestParam
+                                                String path,
+                                                @RequestParam
+                                                @NotBlank(message = "Parameter \"filename\" must not be blank")
+                                                String filename,
+                                                @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, defaultValue = "-1")
+                                                long contentLength,
+                                                InputStream body,
+                                                @AuthenticationPrincipal
+                                                CustomUserDetails userDetails) {
+
+        return s3Service.uploadResourceStream(userDetails.getId(), path, filename, body, contentLength);
+    }
+
+
+    @GetMapping("/presigned-download")
+    @ResponseStatus(HttpStatus.OK)
+    @PresignDownloadDocs
+    public PresignedUrlResponseDTO presignDownload(@RequestParam
+                                                   @NotBlank(message = "Parameter \"path\" must not be blank")
+                                                   String path,
+                                                   @AuthenticationPrincipal
+                                                   CustomUserDetails userDetails) {
+
+        return s3Service.presignDownload(userDetails.getId(), path);
+    }
+
+
+    @PostMapping("/presigned-upload")
+    @ResponseStatus(HttpStatus.OK)
+    @PresignUploadDocs
+    public PresignedUrlResponseDTO presignUpload(@RequestParam
+                                                 String path,
+                                                 @RequestParam
+                                                 @NotBlank(message = "Parameter \"filename\" must not be blank")
+                                                 String filename,
+                                                 @AuthenticationPrincipal
+                                                 CustomUserDetails userDetails) {
+
+        return s3Service.presignUpload(userDetails.getId(), path, filename);
+    }
+
+
+    @PostMapping("/presigned-upload/confirm")
+    @ResponseStatus(HttpStatus.CREATED)
+    @ConfirmPresignedUploadDocs
+    public ResourceInfoResponseDTO confirmPresignedUpload(@RequestParam
+                                                          @NotBlank(message = "Parameter \"path\" must not be blank")
+                                                          String path,
+                                                          @AuthenticationPrincipal
+                                                          CustomUserDetails userDetails) {
+
+        return s3Service.confirmPresignedUpload(userDetails.getId(), path);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ru.example.cloudfiles.controller;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import ru.example.cloudfiles.docs.storage.upload.AbortUploadDocs;
+import ru.example.cloudfiles.docs.storage.upload.CompleteUploadDocs;
+import ru.example.cloudfiles.docs.storage.upload.CreateUploadSessionDocs;
+import ru.example.cloudfiles.docs.storage.upload.GetUploadPartsDocs;
+import ru.example.cloudfiles.docs.storage.upload.UploadPartDocs;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadPartResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadSessionResponseDTO;
+import ru.example.cloudfiles.security.CustomUserDetails;
+import ru.example.cloudfiles.service.S3Service;
+
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("api/upload-sessions")
+@RequiredArgsConstructor
+@Validated
+public class UploadSessionController {
+
+    private final S3Service s3Service;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @CreateUploadSessionDocs
+    public UploadSessionResponseDTO createSession(@RequestParam
+                                                  String path,
+                                                  @RequestParam
+                                                  @NotBlank(message = "Parameter \"filename\" must not be blank")
+                                                  String filename,
+                                                  @AuthenticationPrincipal
+                                                  CustomUserDetails userDetails) {
+
+        return s3Service.createUploadSession(userDetails.getId(), path, filename);
+    }
+
+    @PutMapping(value = "/{sessionId}/parts/{partNumber}", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    @UploadPartDocs
+    public UploadPartResponseDTO uploadPart(@PathVariable
+                                            String sessionId,
+                                            @PathVariable
+                                            int partNumber,
+                                            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, defaultValue = "-1")
+                                            long contentLength,
+                                            InputStream body,
+                                            @AuthenticationPrincipal
+                                            CustomUserDetails userDetails) {
+
+        return s3Service.uploadPart(userDetails.getId(), sessionId, partNumber, body, contentLength);
+    }
+
+    @GetMapping("/{sessionId}/parts")
+    @ResponseStatus(HttpStatus.OK)
+    @GetUploadPartsDocs
+    public List<UploadPartResponseDTO> getParts(@PathVariable
+                                                String sessionId,
+                                                @AuthenticationPrincipal
+                                                CustomUserDetails userDetails) {
+
+        return s3Service.listUploadParts(userDetails.getId(), sessionId);
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    @ResponseStatus(HttpStatus.CREATED)
+    @CompleteUploadDocs
+    public ResourceInfoResponseDTO complete(@PathVariable
+                                            String sessionId,
+                                            @AuthenticationPrincipal
+                                            CustomUserDetails userDetails) {
+
+        return s3Service.completeUpload(userDetails.getId(), sessionId);
+    }
+
+    @DeleteMapping("/{sessionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @AbortUploadDocs
+    public void abort(@PathVariable
+                      String sessionId,
+                      @AuthenticationPrincipal
+                      CustomUserDetails userDetails) {
+
+        s3Service.abortUpload(userDetails.getId(), sessionId);
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.example.cloudfiles.dto.ErrorResponse;
+import ru.example.cloudfiles.dto.response.UploadReportResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.archive.ArchiveJobNotFoundException;
 import ru.example.cloudfiles.exception.storageOperation.bucket.BucketCreationException;
 import ru.example.cloudfiles.exception.storageOperation.bucket.BucketDeletionException;
 import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryCreationException;
@@ -23,6 +25,10 @@ import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoun
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceRetrievalException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceSaveException;
 import ru.example.cloudfiles.exception.storageOperation.resource.StorageOperationException;
+import ru.example.cloudfiles.exception.storageOperation.upload.PartialUploadException;
+import ru.example.cloudfiles.exception.storageOperation.upload.PresignedUploadNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.upload.UploadSessionNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.upload.UploadTooLargeException;
 import ru.example.cloudfiles.exception.user.UserAlreadyExistsException;
 import ru.example.cloudfiles.exception.user.UserNotFoundException;
 import ru.example.cloudfiles.exception.validation.ForbiddenSymbolException;
@@ -53,7 +59,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({
             ResourceNotFoundException.class,
-            DirectoryNotExistException.class
+            DirectoryNotExistException.class,
+            UploadSessionNotFoundException.class,
+            PresignedUploadNotFoundException.class,
+            ArchiveJobNotFoundException.class
     })
     public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException ex) {
         log.warn("Resource not found: {}", ex.getMessage());
@@ -71,6 +80,13 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(UploadTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handlePayloadTooLarge(UploadTooLargeException ex) {
+        log.warn("Payload too large: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler({
             BadCredentialsException.class,
             UserNotFoundException.class
@@ -94,6 +110,13 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(errorMessage));
     }
 
+    @ExceptionHandler(PartialUploadException.class)
+    public ResponseEntity<UploadReportResponseDTO> handlePartialUpload(PartialUploadException ex) {
+        log.warn("Partial upload: {}, failed: {}", ex.getMessage(), ex.getFailed().keySet());
+        return ResponseEntity.status(HttpStatus.MULTI_STATUS)
+                .body(new UploadReportResponseDTO(ex.getUploaded(), ex.getFailed()));
+    }
+
     @ExceptionHandler({
             StorageOperationException.class,
             ResourceDeletionException.class,
@@ -0,0 +1,37 @@
+package ru.example.cloudfiles.docs.storage.archive;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import ru.example.cloudfiles.dto.ErrorResponse;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Operation(summary = "Create Archive Job", description = "Build a ZIP of a directory in the background. An unchanged directory reuses the previously built archive",
+        tags = {"Storage", "Archive"})
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Archive job accepted",
+                content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "400", description = "Path is not a directory",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "User not authenticated",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class,
+                                description = "User not authenticated"))),
+        @ApiResponse(responseCode = "404", description = "Directory not found",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class,
+                                description = "Internal server error")))})
+public @interface CreateArchiveJobDocs {
+}
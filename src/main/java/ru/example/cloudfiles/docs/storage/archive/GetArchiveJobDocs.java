@@ -0,0 +1,34 @@
+package ru.example.cloudfiles.docs.storage.archive;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import ru.example.cloudfiles.dto.ErrorResponse;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Operation(summary = "Get Archive Job", description = "Report archive build progress. Completed jobs include a presigned download link",
+        tags = {"Storage", "Archive"})
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archive job state",
+                content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "401", description = "User not authenticated",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class,
+                                description = "User not authenticated"))),
+        @ApiResponse(responseCode = "404", description = "Archive job not found",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class,
+                                description = "Internal server error")))})
+public @interface GetArchiveJobDocs {
+}
@@ -1,6 +1,7 @@
 package ru.example.cloudfiles.docs.storage.directory;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,12 +15,18 @@ import java.lang.annotation.Target;
 
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
-@Operation(summary = "Get All Directories", description = "Get all directories from cloud storage",
+@Operation(summary = "Get All Directories",
+        description = "Get directory contents from cloud storage. Without \"cursor\" and \"limit\" "
+                + "the whole directory is returned, otherwise at most \"limit\" (default 1000) entries per call. "
+                + "When more entries remain, the X-Next-Cursor response header holds the cursor for the next call. "
+                + "With \"Accept: application/x-ndjson\" all entries are streamed as newline-delimited JSON",
         tags = {"Storage", "Directory"})
 @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Directory got successfully",
-                content = @Content(mediaType = "application/json")),
-        @ApiResponse(responseCode = "400", description = "Invalid path format",
+                headers = @Header(name = "X-Next-Cursor", description = "Cursor of the next page, absent on the last page"),
+                content = {@Content(mediaType = "application/json"),
+                        @Content(mediaType = "application/x-ndjson")}),
+        @ApiResponse(responseCode = "400", description = "Invalid path format or cursor",
                 content = @Content(mediaType = "application/json",
                         schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "User not authenticated",
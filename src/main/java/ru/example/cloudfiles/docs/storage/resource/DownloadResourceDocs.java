@@ -14,9 +14,15 @@ import java.lang.annotation.Target;
 
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
-@Operation(summary = "Download Resource", description = "Downloading resource from bucket",
+@Operation(summary = "Download Resource", description = "Downloading resource from bucket. "
+        + "Single files support byte Range requests and conditional GET via If-None-Match/If-Modified-Since. "
+        + "Directories are streamed as ZIP, already compressed files are stored, "
+        + "compressionLevel (0-9) sets the deflate level for the rest",
         tags = {"Storage", "Resource"})
 @ApiResponses(value = {
+        @ApiResponse(responseCode = "206", description = "Requested byte ranges of the file"),
+        @ApiResponse(responseCode = "304", description = "File not modified"),
+        @ApiResponse(responseCode = "416", description = "Requested range not satisfiable"),
         @ApiResponse(responseCode = "400", description = "Invalid path format",
                 content = @Content(mediaType = "application/json",
                         schema = @Schema(implementation = ErrorResponse.class))),
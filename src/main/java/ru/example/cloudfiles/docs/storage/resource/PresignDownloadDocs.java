@@ -0,0 +1,37 @@
+package ru.example.cloudfiles.docs.storage.resource;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import ru.example.cloudfiles.dto.ErrorResponse;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Operation(summary = "Presign Download", description = "Get a short-lived URL to download a file directly from storage",
+        tags = {"Storage", "Resource"})
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Presigned GET URL",
+                content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "400", description = "Path is a directory or has invalid format",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "User not authenticated",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class,
+                                description = "User not authenticated"))),
+        @ApiResponse(responseCode = "404", description = "Resource not found",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ErrorResponse.class,
+                                description = "Internal server error")))})
+public @interface PresignDownloadDocs {
+}
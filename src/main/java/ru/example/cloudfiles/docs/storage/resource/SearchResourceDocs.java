@@ -1,6 +1,7 @@
 package ru.example.cloudfiles.docs.storage.resource;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,10 +17,15 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Operation(
         summary = "Search Resources",
-        description = "Search resources in user's storage using a query string. Returns matching files and directories.",
+        description = "Search resources in user's storage by name using a query string. Without \"page\" and \"size\" all matches are returned, otherwise at most \"size\" (default 50) matches of the requested page. When more matches remain, the X-Next-Page response header holds the number of the next page. With \"Accept: application/x-ndjson\" all matches are streamed as newline-delimited JSON.",
         tags = {"Storage", "Resource"}
 )
 @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching resources",
+                headers = @Header(name = "X-Next-Page", description = "Number of the next page, absent on the last page"),
+                content = {@Content(mediaType = "application/json"),
+                        @Content(mediaType = "application/x-ndjson")}),
+
         @ApiResponse(responseCode = "400", description = "Invalid or missing search query",
                 content = @Content(mediaType = "application/json",
                         schema = @Schema(implementation = ErrorResponse.class,
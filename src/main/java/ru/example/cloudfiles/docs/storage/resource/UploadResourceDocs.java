@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import ru.example.cloudfiles.dto.ErrorResponse;
+import ru.example.cloudfiles.dto.response.UploadReportResponseDTO;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -17,6 +18,9 @@ import java.lang.annotation.Target;
 @Operation(summary = "Upload Resource", description = "Upload Resource to application",
         tags = {"Storage", "Resource"})
 @ApiResponses(value = {
+        @ApiResponse(responseCode = "207", description = "Some files were not uploaded",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = UploadReportResponseDTO.class))),
         @ApiResponse(responseCode = "400", description = "Invalid path format",
                 content = @Content(mediaType = "application/json",
                         schema = @Schema(implementation = ErrorResponse.class))),
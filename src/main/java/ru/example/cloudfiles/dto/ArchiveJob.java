@@ -0,0 +1,30 @@
+package ru.example.cloudfiles.dto;
+
+import java.time.Instant;
+
+public record ArchiveJob(
+        String id,
+
+        long userId,
+
+        String path,
+
+        String fingerprint,
+
+        String objectName,
+
+        ArchiveJobStatus status,
+
+        int totalFiles,
+
+        int processedFiles,
+
+        Instant heartbeatAt
+) {
+
+    public ArchiveJob withProgress(ArchiveJobStatus status, int processedFiles) {
+
+        return new ArchiveJob(id, userId, path, fingerprint, objectName, status, totalFiles, processedFiles,
+                Instant.now());
+    }
+}
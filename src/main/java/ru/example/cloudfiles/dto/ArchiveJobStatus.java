@@ -0,0 +1,7 @@
+package ru.example.cloudfiles.dto;
+
+public enum ArchiveJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,24 @@
+package ru.example.cloudfiles.dto;
+
+import java.time.Duration;
+import java.util.Map;
+
+public record DeletionReport(
+        long deleted,
+
+        Map<String, String> failed,
+
+        Duration elapsed
+) {
+
+    public boolean isComplete() {
+
+        return failed.isEmpty();
+    }
+
+    public double objectsPerSecond() {
+
+        long millis = elapsed.toMillis();
+        return millis == 0 ? deleted : deleted * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.example.cloudfiles.dto;
+
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+
+import java.util.List;
+
+public record DirectoryPage(
+        List<ResourceInfoResponseDTO> items,
+
+        String nextCursor
+) {
+}
@@ -1,6 +1,13 @@
 package ru.example.cloudfiles.dto;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-public record DownloadResult(StreamingResponseBody streamingBody, String contentDisposition) {
+public record DownloadResult(StreamingResponseBody streamingBody, String contentDisposition,
+                             HttpStatus status, HttpHeaders headers) {
+
+    public DownloadResult(StreamingResponseBody streamingBody, String contentDisposition) {
+        this(streamingBody, contentDisposition, HttpStatus.OK, HttpHeaders.EMPTY);
+    }
 }
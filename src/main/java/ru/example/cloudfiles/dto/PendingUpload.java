@@ -0,0 +1,12 @@
+package ru.example.cloudfiles.dto;
+
+import java.time.ZonedDateTime;
+
+public record PendingUpload(
+        String objectName,
+
+        String uploadId,
+
+        ZonedDateTime initiated
+) {
+}
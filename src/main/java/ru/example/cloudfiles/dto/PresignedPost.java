@@ -0,0 +1,10 @@
+package ru.example.cloudfiles.dto;
+
+import java.util.Map;
+
+public record PresignedPost(
+        String url,
+
+        Map<String, String> formData
+) {
+}
@@ -0,0 +1,19 @@
+package ru.example.cloudfiles.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.ZonedDateTime;
+
+public record ResourceMetadata(
+        @NotBlank
+        String path,
+
+        @Min(0)
+        long size,
+
+        String etag,
+
+        ZonedDateTime lastModified
+) {
+}
@@ -0,0 +1,21 @@
+package ru.example.cloudfiles.dto;
+
+public record UploadSession(
+        String id,
+
+        long userId,
+
+        String path,
+
+        String objectName,
+
+        String uploadId,
+
+        Integer lastPartNumber
+) {
+
+    public UploadSession withLastPartNumber(Integer partNumber) {
+
+        return new UploadSession(id, userId, path, objectName, uploadId, partNumber);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.example.cloudfiles.dto;
+
+public record UploadedPart(
+        int partNumber,
+
+        String etag,
+
+        long size
+) {
+}
@@ -0,0 +1,16 @@
+package ru.example.cloudfiles.dto.response;
+
+import lombok.Builder;
+import ru.example.cloudfiles.dto.ArchiveJobStatus;
+
+@Builder
+public record ArchiveJobResponseDTO(
+        String id,
+        String path,
+        ArchiveJobStatus status,
+        int totalFiles,
+        int processedFiles,
+        String downloadUrl,
+        Long expiresInSeconds
+) {
+}
@@ -0,0 +1,15 @@
+package ru.example.cloudfiles.dto.response;
+
+import lombok.Builder;
+
+import java.util.Map;
+
+@Builder
+public record PresignedUrlResponseDTO(
+        String path,
+        String method,
+        String url,
+        Map<String, String> formData,
+        long expiresInSeconds
+) {
+}
@@ -0,0 +1,10 @@
+package ru.example.cloudfiles.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+public record UploadReportResponseDTO(
+        List<ResourceInfoResponseDTO> uploaded,
+        Map<String, String> failed
+) {
+}
@@ -0,0 +1,11 @@
+package ru.example.cloudfiles.dto.response;
+
+import lombok.Builder;
+
+@Builder
+public record UploadSessionResponseDTO(
+        String id,
+        String path,
+        long expiresInSeconds
+) {
+}
@@ -0,0 +1,51 @@
+package ru.example.cloudfiles.entity;
+
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import ru.example.cloudfiles.dto.ResourceType;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "resource_index",
+        uniqueConstraints = @UniqueConstraint(name = "uq_resource_index_user_path", columnNames = {"user_id", "path"}))
+@RequiredArgsConstructor
+public class IndexedResource {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(length = 1024, nullable = false)
+    private String path;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private ResourceType type;
+
+    @Column(name = "last_modified")
+    private Instant lastModified;
+}
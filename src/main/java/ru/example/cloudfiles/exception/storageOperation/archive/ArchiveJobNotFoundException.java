@@ -0,0 +1,11 @@
+package ru.example.cloudfiles.exception.storageOperation.archive;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_ARCHIVE_JOB_NOT_FOUND;
+
+public class ArchiveJobNotFoundException extends RuntimeException {
+
+    public ArchiveJobNotFoundException(String jobId) {
+
+        super(MESSAGE_ARCHIVE_JOB_NOT_FOUND.formatted(jobId));
+    }
+}
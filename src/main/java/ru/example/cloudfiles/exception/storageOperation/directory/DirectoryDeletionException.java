@@ -2,6 +2,7 @@ package ru.example.cloudfiles.exception.storageOperation.directory;
 
 import ru.example.cloudfiles.exception.storageOperation.resource.StorageOperationException;
 
+import static ru.example.cloudfiles.util.Constants.MESSAGE_DIRECTORY_PARTIALLY_DELETED;
 import static ru.example.cloudfiles.util.Constants.MESSAGE_RESOURCE_TO_DELETE_DIRECTORY;
 
 public class DirectoryDeletionException extends StorageOperationException {
@@ -10,4 +11,9 @@ public class DirectoryDeletionException extends StorageOperationException {
 
         super(MESSAGE_RESOURCE_TO_DELETE_DIRECTORY.formatted(path), cause);
     }
+
+    public DirectoryDeletionException(String path, int failedCount) {
+
+        super(MESSAGE_DIRECTORY_PARTIALLY_DELETED.formatted(failedCount, path));
+    }
 }
\ No newline at end of file
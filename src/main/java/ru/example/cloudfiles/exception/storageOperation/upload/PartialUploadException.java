@@ -0,0 +1,24 @@
+package ru.example.cloudfiles.exception.storageOperation.upload;
+
+import lombok.Getter;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.resource.StorageOperationException;
+
+import java.util.List;
+import java.util.Map;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_UPLOAD_PARTIALLY_FAILED;
+
+@Getter
+public class PartialUploadException extends StorageOperationException {
+
+    private final List<ResourceInfoResponseDTO> uploaded;
+    private final Map<String, String> failed;
+
+    public PartialUploadException(List<ResourceInfoResponseDTO> uploaded, Map<String, String> failed) {
+
+        super(MESSAGE_UPLOAD_PARTIALLY_FAILED.formatted(failed.size(), uploaded.size() + failed.size()));
+        this.uploaded = uploaded;
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.example.cloudfiles.exception.storageOperation.upload;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_PRESIGNED_UPLOAD_NOT_FOUND;
+
+public class PresignedUploadNotFoundException extends RuntimeException {
+
+    public PresignedUploadNotFoundException(String path) {
+
+        super(MESSAGE_PRESIGNED_UPLOAD_NOT_FOUND.formatted(path));
+    }
+}
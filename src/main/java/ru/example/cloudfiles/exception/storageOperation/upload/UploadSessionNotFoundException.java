@@ -0,0 +1,12 @@
+package ru.example.cloudfiles.exception.storageOperation.upload;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_UPLOAD_SESSION_NOT_FOUND;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+
+
+    public UploadSessionNotFoundException(String sessionId) {
+
+        super(MESSAGE_UPLOAD_SESSION_NOT_FOUND.formatted(sessionId));
+    }
+}
@@ -0,0 +1,11 @@
+package ru.example.cloudfiles.exception.storageOperation.upload;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_UPLOAD_TOO_LARGE;
+
+public class UploadTooLargeException extends RuntimeException {
+
+    public UploadTooLargeException(String path, long maxSize) {
+
+        super(MESSAGE_UPLOAD_TOO_LARGE.formatted(path, maxSize));
+    }
+}
@@ -0,0 +1,9 @@
+package ru.example.cloudfiles.exception.validation;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_DIRECTORY_CANNOT_BE_PRESIGNED;
+
+public class DirectoryPresignException extends IllegalArgumentException {
+    public DirectoryPresignException(String path) {
+        super(MESSAGE_DIRECTORY_CANNOT_BE_PRESIGNED.formatted(path));
+    }
+}
@@ -0,0 +1,9 @@
+package ru.example.cloudfiles.exception.validation;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_INVALID_CURSOR;
+
+public class InvalidCursorException extends IllegalArgumentException {
+    public InvalidCursorException(String cursor) {
+        super(MESSAGE_INVALID_CURSOR.formatted(cursor));
+    }
+}
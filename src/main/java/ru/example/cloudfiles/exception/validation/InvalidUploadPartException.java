@@ -0,0 +1,9 @@
+package ru.example.cloudfiles.exception.validation;
+
+import static ru.example.cloudfiles.util.Constants.MESSAGE_INVALID_UPLOAD_PART;
+
+public class InvalidUploadPartException extends IllegalArgumentException {
+    public InvalidUploadPartException(String reason) {
+        super(MESSAGE_INVALID_UPLOAD_PART.formatted(reason));
+    }
+}
@@ -3,8 +3,10 @@ package ru.example.cloudfiles.mapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.ResourceType;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.entity.IndexedResource;
 import ru.example.cloudfiles.service.impl.PathManager;
 
 import java.nio.file.Path;
@@ -18,23 +20,38 @@ public class ResourceMapper {
 
     public ResourceInfoResponseDTO toDto(long userId, Resource resource) {
 
-        boolean isDir = paths.isDirectory(resource.path());
+        return toDto(userId, resource.path(), resource.size());
+    }
+
+    public ResourceInfoResponseDTO toDto(long userId, ResourceMetadata metadata) {
+
+        return toDto(userId, metadata.path(), metadata.size());
+    }
+
+    public ResourceInfoResponseDTO toDto(long userId, IndexedResource entry) {
+
+        return toDto(userId, paths.toTechnicalPath(userId, entry.getPath()), entry.getSize());
+    }
+
+    private ResourceInfoResponseDTO toDto(long userId, String technicalPath, long size) {
+
+        boolean isDir = paths.isDirectory(technicalPath);
 
-        String userPath = paths.toUserPath(userId, resource.path());
+        String userPath = paths.toUserPath(userId, technicalPath);
         Path pathObj = Paths.get(userPath);
 
-        String path = extractPath(userId, resource, isDir, pathObj);
+        String path = extractPath(userId, technicalPath, isDir, pathObj);
         String fileName = isDir ? pathObj.getFileName() + "/" : pathObj.getFileName().toString();
 
-        return new ResourceInfoResponseDTO(path, fileName, resource.size(),
+        return new ResourceInfoResponseDTO(path, fileName, size,
                 isDir ? ResourceType.DIRECTORY : ResourceType.FILE);
     }
 
-    private String extractPath(long userId, Resource resource, boolean isDir, Path pathObj) {
+    private String extractPath(long userId, String technicalPath, boolean isDir, Path pathObj) {
 
         String userDir = paths.getUserDirectory(userId);
         int fileNameLen = pathObj.getFileName().toString().length();
-        int endIndex = resource.path().length() - fileNameLen - (isDir ? 1 : 0);
-        return resource.path().substring(userDir.length(), endIndex);
+        int endIndex = technicalPath.length() - fileNameLen - (isDir ? 1 : 0);
+        return technicalPath.substring(userDir.length(), endIndex);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package ru.example.cloudfiles.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+import ru.example.cloudfiles.dto.ArchiveJob;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveJobRepository {
+
+    private static final String KEY_PREFIX = "cloudfiles:archive-job:";
+    private static final String FINGERPRINT_PREFIX = "cloudfiles:archive-fingerprint:";
+    private static final RedisScript<String> CLAIM_FINGERPRINT = new DefaultRedisScript<>("""
+            local owner = redis.call('GET', KEYS[1])
+            if not owner or owner == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return ARGV[2]
+            end
+            return owner
+            """, String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void save(ArchiveJob job, Duration ttl) {
+
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + job.id(), objectMapper.writeValueAsString(job), ttl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize archive job " + job.id(), e);
+        }
+    }
+
+    public Optional<ArchiveJob> findById(String id) {
+
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(value, ArchiveJob.class));
+        } catch (JsonProcessingException e) {
+            log.error("Corrupted archive job in Redis - id: {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    public String claimFingerprint(String fingerprint, String expectedJobId, String jobId, Duration ttl) {
+
+        return redisTemplate.execute(CLAIM_FINGERPRINT, List.of(FINGERPRINT_PREFIX + fingerprint),
+                expectedJobId != null ? expectedJobId : "", jobId, String.valueOf(ttl.toMillis()));
+    }
+
+    public void releaseFingerprint(String fingerprint) {
+
+        redisTemplate.delete(FINGERPRINT_PREFIX + fingerprint);
+    }
+}
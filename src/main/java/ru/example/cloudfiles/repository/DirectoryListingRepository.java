@@ -0,0 +1,102 @@
+package ru.example.cloudfiles.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class DirectoryListingRepository {
+
+    private static final String KEY_PREFIX = "cloudfiles:listing:";
+    private static final String INDEX_PREFIX = "cloudfiles:listing-keys:";
+    private static final String VERSION_PREFIX = "cloudfiles:listing-version:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public Optional<List<ResourceMetadata>> find(long userId, String prefix) {
+
+        String value = redisTemplate.opsForValue().get(key(userId, prefix));
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            List<ResourceMetadata> items = new ArrayList<>();
+            for (JsonNode entry : objectMapper.readTree(value)) {
+                items.add(new ResourceMetadata(prefix + entry.get(0).asText(),
+                        entry.get(1).asLong(),
+                        entry.get(2).isNull() ? null : entry.get(2).asText(),
+                        entry.get(3).isNull() ? null
+                                : ZonedDateTime.ofInstant(Instant.ofEpochMilli(entry.get(3).asLong()), ZoneOffset.UTC)));
+            }
+            return Optional.of(items);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Corrupted directory listing in Redis - userId: {}, prefix: '{}'", userId, prefix, e);
+            return Optional.empty();
+        }
+    }
+
+    public void save(long userId, String prefix, List<ResourceMetadata> items, Duration ttl) {
+
+        ArrayNode entries = objectMapper.createArrayNode();
+        for (ResourceMetadata item : items) {
+            ArrayNode entry = entries.addArray();
+            entry.add(item.path().substring(prefix.length()));
+            entry.add(item.size());
+            entry.add(item.etag());
+            if (item.lastModified() != null) {
+                entry.add(item.lastModified().toInstant().toEpochMilli());
+            } else {
+                entry.addNull();
+            }
+        }
+        redisTemplate.opsForValue().set(key(userId, prefix), entries.toString(), ttl);
+        redisTemplate.opsForSet().add(INDEX_PREFIX + userId, prefix);
+        redisTemplate.expire(INDEX_PREFIX + userId, ttl);
+    }
+
+    public Set<String> findCachedPrefixes(long userId) {
+
+        Set<String> prefixes = redisTemplate.opsForSet().members(INDEX_PREFIX + userId);
+        return prefixes != null ? prefixes : Set.of();
+    }
+
+    public long version(long userId) {
+
+        String version = redisTemplate.opsForValue().get(VERSION_PREFIX + userId);
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    public void evict(long userId, Collection<String> prefixes) {
+
+        if (prefixes.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForValue().increment(VERSION_PREFIX + userId);
+        redisTemplate.delete(prefixes.stream().map(prefix -> key(userId, prefix)).toList());
+        redisTemplate.opsForSet().remove(INDEX_PREFIX + userId, prefixes.toArray());
+    }
+
+    private String key(long userId, String prefix) {
+
+        return KEY_PREFIX + userId + ":" + prefix;
+    }
+}
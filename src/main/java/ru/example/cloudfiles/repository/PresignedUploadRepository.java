@@ -0,0 +1,38 @@
+package ru.example.cloudfiles.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class PresignedUploadRepository {
+
+    private static final String KEY_PREFIX = "cloudfiles:presigned-upload:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void save(long userId, String path, Instant expiresAt, Duration ttl) {
+
+        redisTemplate.opsForValue().set(key(userId, path), expiresAt.toString(), ttl);
+    }
+
+    public Optional<Instant> findExpiry(long userId, String path) {
+
+        return Optional.ofNullable(redisTemplate.opsForValue().get(key(userId, path))).map(Instant::parse);
+    }
+
+    public void delete(long userId, String path) {
+
+        redisTemplate.delete(key(userId, path));
+    }
+
+    private String key(long userId, String path) {
+
+        return KEY_PREFIX + userId + ":" + path;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.example.cloudfiles.repository;
+
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.example.cloudfiles.entity.IndexedResource;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ResourceIndexRepository extends JpaRepository<IndexedResource, Long> {
+
+    Optional<IndexedResource> findByUserIdAndPath(Long userId, String path);
+
+    boolean existsByUserIdAndPath(Long userId, String path);
+
+    @Query("""
+            select r from IndexedResource r
+            where r.userId = :userId and lower(r.name) like :pattern escape '\\'
+            order by r.path""")
+    Slice<IndexedResource> searchByName(@Param("userId") Long userId,
+                                        @Param("pattern") String pattern,
+                                        Pageable pageable);
+
+    @Query("""
+            select r from IndexedResource r
+            where r.userId = :userId and lower(r.name) like :pattern escape '\\' and r.path > :afterPath
+            order by r.path""")
+    List<IndexedResource> searchByNameAfter(@Param("userId") Long userId,
+                                            @Param("pattern") String pattern,
+                                            @Param("afterPath") String afterPath,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("delete from IndexedResource r where r.userId = :userId and r.path like :pattern escape '\\'")
+    int deleteByPathPattern(@Param("userId") Long userId, @Param("pattern") String pattern);
+
+    @Modifying
+    @Query("""
+            update IndexedResource r
+            set r.path = concat(:target, substring(r.path, :sourceLength + 1))
+            where r.userId = :userId and r.path like :pattern escape '\\'""")
+    int movePathPattern(@Param("userId") Long userId,
+                        @Param("pattern") String pattern,
+                        @Param("sourceLength") int sourceLength,
+                        @Param("target") String target);
+
+    @Modifying
+    @Query("delete from IndexedResource r where r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
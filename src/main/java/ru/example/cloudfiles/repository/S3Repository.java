@@ -1,22 +1,68 @@
 package ru.example.cloudfiles.repository;
 
 
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.PendingUpload;
+import ru.example.cloudfiles.dto.PresignedPost;
 import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.UploadedPart;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface S3Repository {
 
-    void deleteResource(String bucketName, String path);
+    DeletionReport deleteResource(String bucketName, String path);
 
     List<String> findAllNamesByPrefix(String bucket, String prefix, boolean recursive);
 
+    List<ResourceMetadata> findAllByPrefix(String bucket, String prefix, boolean recursive);
+
+    List<ResourceMetadata> findPageByPrefix(String bucket, String prefix, String startAfter, int limit);
+
+    Stream<ResourceMetadata> streamByPrefix(String bucket, String prefix, boolean recursive);
+
     Resource getResourceByPath(String bucket, String path);
 
-    void saveResource(String bucket, String path, InputStream dataStream);
+    ResourceMetadata headResource(String bucket, String path);
+
+    InputStream getResourceStream(String bucket, String path);
+
+    InputStream getResourceRange(String bucket, String path, long offset, long length);
+
+    String getPresignedDownloadUrl(String bucket, String path, Duration expiry, String contentDisposition);
+
+    PresignedPost getPresignedUpload(String bucket, String path, Duration expiry, long maxSize);
+
+    void copyResource(String bucket, ResourceMetadata source, String target);
+
+    default ResourceMetadata saveResource(String bucket, String path, InputStream dataStream) {
+        return saveResource(bucket, path, dataStream, -1);
+    }
 
-    void createDirectory(String bucketName, String path);
+    ResourceMetadata saveResource(String bucket, String path, InputStream dataStream, long size);
+
+    String createMultipartUpload(String bucket, String path);
+
+    UploadedPart uploadPart(String bucket, String path, String uploadId, int partNumber,
+                            InputStream dataStream, long size);
+
+    List<UploadedPart> listParts(String bucket, String path, String uploadId);
+
+    void completeMultipartUpload(String bucket, String path, String uploadId, List<UploadedPart> parts);
+
+    void abortMultipartUpload(String bucket, String path, String uploadId);
+
+    List<PendingUpload> findMultipartUploads(String bucket);
+
+    List<String> createDirectory(String bucketName, String path);
 
     boolean isObjectExists(String bucketName, String path);
+
+    Set<String> findExisting(String bucketName, Collection<String> paths);
 }
\ No newline at end of file
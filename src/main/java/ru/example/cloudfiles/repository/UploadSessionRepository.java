@@ -0,0 +1,83 @@
+package ru.example.cloudfiles.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Repository;
+import ru.example.cloudfiles.dto.UploadSession;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class UploadSessionRepository {
+
+    private static final String KEY_PREFIX = "cloudfiles:upload-session:";
+    private static final String UPLOAD_ID_PREFIX = "cloudfiles:upload-session-upload:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void save(UploadSession session, Duration ttl) {
+
+        redisTemplate.opsForValue().set(KEY_PREFIX + session.id(), serialize(session), ttl);
+        redisTemplate.opsForValue().set(UPLOAD_ID_PREFIX + session.uploadId(), session.id(), ttl);
+    }
+
+    public void update(UploadSession session) {
+
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                (KEY_PREFIX + session.id()).getBytes(StandardCharsets.UTF_8),
+                serialize(session).getBytes(StandardCharsets.UTF_8),
+                Expiration.keepTtl(),
+                RedisStringCommands.SetOption.ifPresent()));
+    }
+
+    public Optional<UploadSession> findById(String id) {
+
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(value, UploadSession.class));
+        } catch (JsonProcessingException e) {
+            log.error("Corrupted upload session in Redis - id: {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    public Optional<String> findIdByUploadId(String uploadId) {
+
+        return Optional.ofNullable(redisTemplate.opsForValue().get(UPLOAD_ID_PREFIX + uploadId));
+    }
+
+    public void delete(UploadSession session) {
+
+        redisTemplate.delete(List.of(KEY_PREFIX + session.id(), UPLOAD_ID_PREFIX + session.uploadId()));
+    }
+
+    public void deleteByUploadId(String uploadId) {
+
+        findIdByUploadId(uploadId).ifPresent(id -> redisTemplate.delete(KEY_PREFIX + id));
+        redisTemplate.delete(UPLOAD_ID_PREFIX + uploadId);
+    }
+
+    private String serialize(UploadSession session) {
+
+        try {
+            return objectMapper.writeValueAsString(session);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize upload session " + session.id(), e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package ru.example.cloudfiles.repository.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.minio.errors.ErrorResponseException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.PendingUpload;
+import ru.example.cloudfiles.dto.PresignedPost;
+import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.UploadedPart;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.OperationObserver;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Primary
+@Component
+@RequiredArgsConstructor
+public class InstrumentedS3Repository implements S3Repository {
+
+    static final String OPERATION_TIMER = "minio.operation";
+    static final String TRANSFER_SUMMARY = "minio.transfer.bytes";
+    static final String LISTING_SUMMARY = "minio.listing.objects";
+    static final String DELETED_SUMMARY = "minio.delete.objects";
+
+    private final MinioRepository delegate;
+    private final MeterRegistry registry;
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public DeletionReport deleteResource(String bucketName, String path) {
+
+        DeletionReport report = record("delete", "deleteResource", path,
+                () -> delegate.deleteResource(bucketName, path));
+        summary(DELETED_SUMMARY, "deleteResource").record(report.deleted());
+        return report;
+    }
+
+    @Override
+    public List<String> findAllNamesByPrefix(String bucket, String prefix, boolean recursive) {
+
+        return recordListing("findAllNamesByPrefix", prefix,
+                () -> delegate.findAllNamesByPrefix(bucket, prefix, recursive));
+    }
+
+    @Override
+    public List<ResourceMetadata> findAllByPrefix(String bucket, String prefix, boolean recursive) {
+
+        return recordListing("findAllByPrefix", prefix, () -> delegate.findAllByPrefix(bucket, prefix, recursive));
+    }
+
+    @Override
+    public List<ResourceMetadata> findPageByPrefix(String bucket, String prefix, String startAfter, int limit) {
+
+        return recordListing("findPageByPrefix", prefix,
+                () -> delegate.findPageByPrefix(bucket, prefix, startAfter, limit));
+    }
+
+    @Override
+    public Stream<ResourceMetadata> streamByPrefix(String bucket, String prefix, boolean recursive) {
+
+        AtomicLong listed = new AtomicLong();
+        DistributionSummary objects = summary(LISTING_SUMMARY, "streamByPrefix");
+        return record("list", "streamByPrefix", prefix, () -> delegate.streamByPrefix(bucket, prefix, recursive))
+                .peek(item -> listed.incrementAndGet())
+                .onClose(() -> objects.record(listed.get()));
+    }
+
+    @Override
+    public Resource getResourceByPath(String bucket, String path) {
+
+        Resource resource = record("get", "getResourceByPath", path, () -> delegate.getResourceByPath(bucket, path));
+        return new Resource(resource.path(),
+                new CountingInputStream(resource.dataStream(), transfer("get", "getResourceByPath")),
+                resource.size());
+    }
+
+    @Override
+    public ResourceMetadata headResource(String bucket, String path) {
+
+        return record("stat", "headResource", path, () -> delegate.headResource(bucket, path));
+    }
+
+    @Override
+    public InputStream getResourceStream(String bucket, String path) {
+
+        InputStream stream = record("get", "getResourceStream", path, () -> delegate.getResourceStream(bucket, path));
+        return new CountingInputStream(stream, transfer("get", "getResourceStream"));
+    }
+
+    @Override
+    public InputStream getResourceRange(String bucket, String path, long offset, long length) {
+
+        InputStream range = record("get", "getResourceRange", path,
+                () -> delegate.getResourceRange(bucket, path, offset, length));
+        return new CountingInputStream(range, transfer("get", "getResourceRange"));
+    }
+
+    @Override
+    public String getPresignedDownloadUrl(String bucket, String path, Duration expiry, String contentDisposition) {
+
+        return record("presign", "getPresignedDownloadUrl", path,
+                () -> delegate.getPresignedDownloadUrl(bucket, path, expiry, contentDisposition));
+    }
+
+    @Override
+    public PresignedPost getPresignedUpload(String bucket, String path, Duration expiry, long maxSize) {
+
+        return record("presign", "getPresignedUpload", path,
+                () -> delegate.getPresignedUpload(bucket, path, expiry, maxSize));
+    }
+
+    @Override
+    public void copyResource(String bucket, ResourceMetadata source, String target) {
+
+        record("copy", "copyResource", target, () -> {
+            delegate.copyResource(bucket, source, target);
+            return null;
+        });
+        transfer("copy", "copyResource").record(source.size());
+    }
+
+    @Override
+    public ResourceMetadata saveResource(String bucket, String path, InputStream dataStream, long size) {
+
+        CountingInputStream counted = new CountingInputStream(dataStream, transfer("put", "saveResource"));
+        try {
+            return record("put", "saveResource", path, () -> delegate.saveResource(bucket, path, counted, size));
+        } finally {
+            counted.publish();
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String bucket, String path) {
+
+        return record("put", "createMultipartUpload", path, () -> delegate.createMultipartUpload(bucket, path));
+    }
+
+    @Override
+    public UploadedPart uploadPart(String bucket, String path, String uploadId, int partNumber,
+                                   InputStream dataStream, long size) {
+
+        UploadedPart part = record("put", "uploadPart", path,
+                () -> delegate.uploadPart(bucket, path, uploadId, partNumber, dataStream, size));
+        transfer("put", "uploadPart").record(size);
+        return part;
+    }
+
+    @Override
+    public List<UploadedPart> listParts(String bucket, String path, String uploadId) {
+
+        return record("list", "listParts", path, () -> delegate.listParts(bucket, path, uploadId));
+    }
+
+    @Override
+    public void completeMultipartUpload(String bucket, String path, String uploadId, List<UploadedPart> parts) {
+
+        record("put", "completeMultipartUpload", path, () -> {
+            delegate.completeMultipartUpload(bucket, path, uploadId, parts);
+            return null;
+        });
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String path, String uploadId) {
+
+        record("delete", "abortMultipartUpload", path, () -> {
+            delegate.abortMultipartUpload(bucket, path, uploadId);
+            return null;
+        });
+    }
+
+    @Override
+    public List<PendingUpload> findMultipartUploads(String bucket) {
+
+        return record("list", "findMultipartUploads", bucket, () -> delegate.findMultipartUploads(bucket));
+    }
+
+    @Override
+    public List<String> createDirectory(String bucketName, String path) {
+
+        return record("put", "createDirectory", path, () -> delegate.createDirectory(bucketName, path));
+    }
+
+    @Override
+    public boolean isObjectExists(String bucketName, String path) {
+
+        return record("stat", "isObjectExists", path, () -> delegate.isObjectExists(bucketName, path));
+    }
+
+    @Override
+    public Set<String> findExisting(String bucketName, Collection<String> paths) {
+
+        return record("list", "findExisting", paths.stream().findFirst().orElse(""),
+                () -> delegate.findExisting(bucketName, paths));
+    }
+
+    private <T extends List<?>> T recordListing(String method, String prefix, Supplier<T> call) {
+
+        T items = record("list", method, prefix, call);
+        summary(LISTING_SUMMARY, method).record(items.size());
+        return items;
+    }
+
+    private <T> T record(String operation, String method, String path, Supplier<T> call) {
+
+        Observation observation = Observation.createNotStarted(OPERATION_TIMER, observationRegistry)
+                .contextualName("minio " + method)
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("method", method)
+                .highCardinalityKeyValue("path.depth", String.valueOf(OperationObserver.pathDepth(path)))
+                .start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            T result = call.get();
+            observation.lowCardinalityKeyValue("outcome", "success")
+                    .lowCardinalityKeyValue("error.code", "none");
+            if (result instanceof Collection<?> items) {
+                observation.highCardinalityKeyValue("objects", String.valueOf(items.size()));
+            }
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", "error")
+                    .lowCardinalityKeyValue("error.code", errorCode(e))
+                    .error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private DistributionSummary transfer(String operation, String method) {
+
+        return DistributionSummary.builder(TRANSFER_SUMMARY)
+                .description("Bytes transferred to or from MinIO")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .tag("method", method)
+                .register(registry);
+    }
+
+    private DistributionSummary summary(String name, String method) {
+
+        return DistributionSummary.builder(name)
+                .baseUnit("objects")
+                .tag("method", method)
+                .register(registry);
+    }
+
+    private String errorCode(Throwable error) {
+
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ErrorResponseException response && response.errorResponse() != null) {
+                return response.errorResponse().code();
+            }
+        }
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName();
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final DistributionSummary bytes;
+        private long count;
+        private boolean published;
+
+        private CountingInputStream(InputStream in, DistributionSummary bytes) {
+            super(in);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                publish();
+            }
+        }
+
+        private void publish() {
+            if (!published) {
+                published = true;
+                bytes.record(count);
+            }
+        }
+    }
+}
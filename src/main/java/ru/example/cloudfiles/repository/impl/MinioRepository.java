@@ -7,16 +7,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.PendingUpload;
+import ru.example.cloudfiles.dto.PresignedPost;
 import ru.example.cloudfiles.dto.Resource;
-import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryDeletionException;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.UploadedPart;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceDeletionException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.repository.S3Repository;
 import ru.example.cloudfiles.repository.impl.composition.DirectoryRepository;
+import ru.example.cloudfiles.repository.impl.composition.MultipartUploadRepository;
 import ru.example.cloudfiles.repository.impl.composition.ObjectRepository;
 import ru.example.cloudfiles.validation.PathValidator;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Component
 @Slf4j
@@ -27,7 +38,9 @@ public class MinioRepository implements S3Repository {
     private final MinioClient minioClient;
     private final ObjectRepository objectRepository;
     private final DirectoryRepository directoryRepository;
+    private final MultipartUploadRepository multipartUploadRepository;
     private final PathValidator pathValidator;
+    private final ObjectMetadataCache metadataCache;
 
     @Override
     public List<String> findAllNamesByPrefix(String bucket, String prefix, boolean recursive) {
@@ -38,57 +51,62 @@ public class MinioRepository implements S3Repository {
     }
 
     @Override
-    public void deleteResource(String bucketName, String path) {
+    public List<ResourceMetadata> findAllByPrefix(String bucket, String prefix, boolean recursive) {
 
-        pathValidator.validatePath(path);
+        log.debug("Finding all resources by prefix - bucket: {}, prefix: '{}', recursive: {}",
+                bucket, prefix, recursive);
+        return directoryRepository.findAllByPrefix(bucket, prefix, recursive);
+    }
 
-        if (StringUtils.endsWithIgnoreCase(path, "/")) {
-            log.trace("Deleting directory - path: '{}'", path);
-            deleteDirectory(bucketName, path);
-        } else {
-            log.trace("Deleting single file - path: '{}'", path);
-            deleteSingleObject(bucketName, path);
-        }
+    @Override
+    public List<ResourceMetadata> findPageByPrefix(String bucket, String prefix, String startAfter, int limit) {
 
-        log.debug("Resource deleted successfully - bucket: {}, path: '{}'", bucketName, path);
+        log.debug("Finding resource page by prefix - bucket: {}, prefix: '{}', startAfter: '{}', limit: {}",
+                bucket, prefix, startAfter, limit);
+        return directoryRepository.findPageByPrefix(bucket, prefix, startAfter, limit);
     }
 
-    private void deleteDirectory(String bucketName, String path) {
+    @Override
+    public Stream<ResourceMetadata> streamByPrefix(String bucket, String prefix, boolean recursive) {
 
+        log.debug("Streaming resources by prefix - bucket: {}, prefix: '{}', recursive: {}",
+                bucket, prefix, recursive);
+        return directoryRepository.streamByPrefix(bucket, prefix, recursive);
+    }
+
+    @Override
+    public DeletionReport deleteResource(String bucketName, String path) {
+
+        pathValidator.validatePath(path);
+
+        DeletionReport report;
         try {
-            List<String> objectNames = directoryRepository.findAllNamesByPrefix(bucketName, path, true);
-            log.debug("Deleting directory - bucket: {}, path: '{}', objects: {}",
-                    bucketName, path, objectNames.size());
-
-            if (!objectNames.isEmpty()) {
-                for (String objectName : objectNames) {
-                    try {
-                        minioClient.removeObject(
-                                RemoveObjectArgs.builder()
-                                        .bucket(bucketName)
-                                        .object(objectName)
-                                        .build());
-                        log.trace("Directory object deleted - '{}'", objectName);
-                    } catch (Exception e) {
-                        log.error("Failed to delete directory object - '{}'", objectName, e);
-                        throw new ResourceDeletionException(objectName, e);
-                    }
-                }
+            if (StringUtils.endsWithIgnoreCase(path, "/")) {
+                log.trace("Deleting directory - path: '{}'", path);
+                report = directoryRepository.deleteDirectory(bucketName, path);
+            } else {
+                log.trace("Deleting single file - path: '{}'", path);
+                report = deleteSingleObject(bucketName, path);
             }
-        } catch (Exception e) {
-            log.error("Failed to delete directory - bucket: {}, path: '{}'", bucketName, path, e);
-            throw new DirectoryDeletionException(path, e);
+        } finally {
+            metadataCache.invalidate(bucketName, List.of(path));
         }
+
+        log.debug("Resource deleted - bucket: {}, path: '{}', deleted: {}, failed: {}",
+                bucketName, path, report.deleted(), report.failed().size());
+        return report;
     }
 
-    private void deleteSingleObject(String bucketName, String path) {
+    private DeletionReport deleteSingleObject(String bucketName, String path) {
 
+        long startedAt = System.nanoTime();
         try {
             minioClient.removeObject(RemoveObjectArgs.builder()
                     .bucket(bucketName)
                     .object(path)
                     .build());
             log.trace("Single object deleted successfully - '{}'", path);
+            return new DeletionReport(1, Map.of(), Duration.ofNanos(System.nanoTime() - startedAt));
         } catch (Exception e) {
             log.error("Failed to delete single object - '{}'", path, e);
             throw new ResourceDeletionException(path, e);
@@ -103,23 +121,142 @@ public class MinioRepository implements S3Repository {
     }
 
     @Override
-    public void saveResource(String bucket, String path, InputStream dataStream) {
+    public ResourceMetadata headResource(String bucket, String path) {
+
+        log.trace("Getting resource metadata - bucket: {}, path: '{}'", bucket, path);
+        long generation = metadataCache.generation();
+        try {
+            ResourceMetadata metadata = objectRepository.headResource(bucket, path);
+            metadataCache.put(bucket, path, true, generation);
+            return metadata;
+        } catch (ResourceNotFoundException e) {
+            metadataCache.put(bucket, path, false, generation);
+            throw e;
+        }
+    }
+
+    @Override
+    public ResourceMetadata saveResource(String bucket, String path, InputStream dataStream, long size) {
+
+        log.trace("Saving resource - bucket: {}, path: '{}', size: {}", bucket, path, size);
+        ResourceMetadata saved;
+        try {
+            saved = objectRepository.saveResource(bucket, path, dataStream, size);
+        } finally {
+            metadataCache.invalidate(bucket, List.of(path));
+        }
+        metadataCache.put(bucket, path, true);
+        return saved;
+    }
+
+    @Override
+    public InputStream getResourceStream(String bucket, String path) {
 
-        log.trace("Saving resource - bucket: {}, path: '{}'", bucket, path);
-        objectRepository.saveResource(bucket, path, dataStream);
+        log.trace("Getting resource stream - bucket: {}, path: '{}'", bucket, path);
+        return objectRepository.getResourceStream(bucket, path);
     }
 
     @Override
-    public void createDirectory(String bucketName, String path) {
+    public InputStream getResourceRange(String bucket, String path, long offset, long length) {
+
+        log.trace("Getting resource range - bucket: {}, path: '{}', offset: {}, length: {}",
+                bucket, path, offset, length);
+        return objectRepository.getResourceRange(bucket, path, offset, length);
+    }
+
+    @Override
+    public String getPresignedDownloadUrl(String bucket, String path, Duration expiry, String contentDisposition) {
+
+        log.trace("Presigning download - bucket: {}, path: '{}'", bucket, path);
+        return objectRepository.getPresignedDownloadUrl(bucket, path, expiry, contentDisposition);
+    }
+
+    @Override
+    public PresignedPost getPresignedUpload(String bucket, String path, Duration expiry, long maxSize) {
+
+        log.trace("Presigning upload - bucket: {}, path: '{}'", bucket, path);
+        return objectRepository.getPresignedUpload(bucket, path, expiry, maxSize);
+    }
+
+    @Override
+    public String createMultipartUpload(String bucket, String path) {
+
+        log.debug("Creating multipart upload - bucket: {}, path: '{}'", bucket, path);
+        return multipartUploadRepository.createMultipartUpload(bucket, path);
+    }
+
+    @Override
+    public UploadedPart uploadPart(String bucket, String path, String uploadId, int partNumber,
+                                   InputStream dataStream, long size) {
+
+        log.trace("Uploading part - bucket: {}, path: '{}', part: {}", bucket, path, partNumber);
+        return multipartUploadRepository.uploadPart(bucket, path, uploadId, partNumber, dataStream, size);
+    }
+
+    @Override
+    public List<UploadedPart> listParts(String bucket, String path, String uploadId) {
+
+        log.trace("Listing uploaded parts - bucket: {}, path: '{}'", bucket, path);
+        return multipartUploadRepository.listParts(bucket, path, uploadId);
+    }
+
+    @Override
+    public void completeMultipartUpload(String bucket, String path, String uploadId, List<UploadedPart> parts) {
+
+        log.debug("Completing multipart upload - bucket: {}, path: '{}', parts: {}", bucket, path, parts.size());
+        try {
+            multipartUploadRepository.completeMultipartUpload(bucket, path, uploadId, parts);
+        } finally {
+            metadataCache.invalidate(bucket, List.of(path));
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String path, String uploadId) {
+
+        log.debug("Aborting multipart upload - bucket: {}, path: '{}'", bucket, path);
+        multipartUploadRepository.abortMultipartUpload(bucket, path, uploadId);
+    }
+
+    @Override
+    public List<PendingUpload> findMultipartUploads(String bucket) {
+
+        log.trace("Listing multipart uploads - bucket: {}", bucket);
+        return multipartUploadRepository.findMultipartUploads(bucket);
+    }
+
+    @Override
+    public void copyResource(String bucket, ResourceMetadata source, String target) {
+
+        log.trace("Copying resource - bucket: {}, from: '{}', to: '{}'", bucket, source.path(), target);
+        try {
+            objectRepository.copyResource(bucket, source, target);
+        } finally {
+            metadataCache.invalidate(bucket, List.of(target));
+        }
+    }
+
+    @Override
+    public List<String> createDirectory(String bucketName, String path) {
 
         log.debug("Creating directory - bucket: {}, path: '{}'", bucketName, path);
-        directoryRepository.createDirectory(bucketName, path);
+        List<String> created = directoryRepository.createDirectory(bucketName, path);
+        metadataCache.invalidate(bucketName, created);
+        return created;
     }
 
     @Override
     public boolean isObjectExists(String bucketName, String path) {
 
         log.trace("Checking object existence - bucket: {}, path: '{}'", bucketName, path);
-        return objectRepository.isObjectExists(bucketName, path);
+        return metadataCache.exists(bucketName, path, () -> objectRepository.isObjectExists(bucketName, path));
+    }
+
+    @Override
+    public Set<String> findExisting(String bucketName, Collection<String> paths) {
+
+        log.trace("Checking existence - bucket: {}, paths: {}", bucketName, paths.size());
+        return metadataCache.existing(bucketName, paths,
+                missing -> directoryRepository.findExisting(bucketName, missing));
     }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package ru.example.cloudfiles.repository.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+@Component
+@Slf4j
+public class ObjectMetadataCache {
+
+    public static final String INVALIDATION_CHANNEL = "cloudfiles:metadata-invalidation";
+
+    private static final String METRIC_NAME = "cloudfiles.metadata.cache";
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final Cache<Key, Boolean> entries;
+    private final NavigableSet<Key> keys = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Key::bucket).thenComparing(Key::path));
+    private final AtomicLong generation = new AtomicLong();
+    private final MinioProperties props;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public ObjectMetadataCache(MinioProperties props, ObjectProvider<StringRedisTemplate> redisTemplate,
+                               MeterRegistry meterRegistry) {
+        this(props, redisTemplate, meterRegistry, System::nanoTime);
+    }
+
+    ObjectMetadataCache(MinioProperties props, ObjectProvider<StringRedisTemplate> redisTemplate,
+                        MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.props = props;
+        this.redisTemplate = redisTemplate;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.evictions = Counter.builder(METRIC_NAME + ".evictions").register(meterRegistry);
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(props.getMetadataCacheMaxSize().toBytes())
+                .weigher((Key key, Boolean exists) -> ENTRY_OVERHEAD + 2 * key.path().length())
+                .expireAfter(Expiry.writing((Key key, Boolean exists) ->
+                        exists ? props.getMetadataCacheTtl() : props.getMetadataCacheNegativeTtl()))
+                .evictionListener((key, exists, cause) -> {
+                    keys.remove(key);
+                    evictions.increment();
+                })
+                .executor(Runnable::run)
+                .ticker(ticker::getAsLong)
+                .build();
+        Gauge.builder(METRIC_NAME + ".weight", this, ObjectMetadataCache::weightedSize)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean exists(String bucket, String path, BooleanSupplier loader) {
+
+        if (!props.isMetadataCacheEnabled()) {
+            return loader.getAsBoolean();
+        }
+        Boolean cached = entries.getIfPresent(new Key(bucket, path));
+        if (cached != null) {
+            hits.increment();
+            log.trace("Metadata cache hit - bucket: {}, path: '{}', exists: {}", bucket, path, cached);
+            return cached;
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        boolean exists = loader.getAsBoolean();
+        store(new Key(bucket, path), exists, loadGeneration);
+        return exists;
+    }
+
+    public Set<String> existing(String bucket, Collection<String> paths,
+                                Function<Collection<String>, Set<String>> loader) {
+
+        if (!props.isMetadataCacheEnabled()) {
+            return loader.apply(paths);
+        }
+        Set<String> existing = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String path : paths) {
+            Boolean cached = entries.getIfPresent(new Key(bucket, path));
+            if (cached == null) {
+                missing.add(path);
+            } else if (cached) {
+                existing.add(path);
+            }
+        }
+        hits.increment(paths.size() - missing.size());
+        misses.increment(missing.size());
+        log.trace("Metadata cache batch lookup - bucket: {}, paths: {}, missing: {}",
+                bucket, paths.size(), missing.size());
+
+        if (!missing.isEmpty()) {
+            long loadGeneration = generation.get();
+            Set<String> loaded = loader.apply(missing);
+            missing.forEach(path -> store(new Key(bucket, path), loaded.contains(path), loadGeneration));
+            existing.addAll(loaded);
+        }
+        return existing;
+    }
+
+    public long generation() {
+
+        return generation.get();
+    }
+
+    public void put(String bucket, String path, boolean exists) {
+
+        put(bucket, path, exists, generation.get());
+    }
+
+    public void put(String bucket, String path, boolean exists, long loadGeneration) {
+
+        if (props.isMetadataCacheEnabled()) {
+            store(new Key(bucket, path), exists, loadGeneration);
+        }
+    }
+
+    public void invalidate(String bucket, Collection<String> paths) {
+
+        if (!props.isMetadataCacheEnabled() || paths.isEmpty()) {
+            return;
+        }
+        paths.forEach(path -> evictLocal(bucket, path));
+        if (props.isMetadataCacheBroadcast()) {
+            publish(bucket, paths);
+        }
+    }
+
+    public void evictLocal(String bucket, String path) {
+
+        generation.incrementAndGet();
+        if (path.endsWith("/")) {
+            for (Key key : keys.tailSet(new Key(bucket, path))) {
+                if (!key.bucket().equals(bucket) || !key.path().startsWith(path)) {
+                    break;
+                }
+                remove(key);
+            }
+        } else {
+            remove(new Key(bucket, path));
+        }
+        log.trace("Metadata cache invalidated - bucket: {}, path: '{}'", bucket, path);
+    }
+
+    long weight() {
+
+        entries.cleanUp();
+        return weightedSize();
+    }
+
+    private long weightedSize() {
+
+        return entries.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private void store(Key key, boolean exists, long loadGeneration) {
+
+        if ((exists ? props.getMetadataCacheTtl() : props.getMetadataCacheNegativeTtl()).isZero()) {
+            return;
+        }
+        entries.asMap().compute(key, (cachedKey, previous) -> {
+            keys.add(cachedKey);
+            if (generation.get() != loadGeneration) {
+                keys.remove(cachedKey);
+                return null;
+            }
+            return exists;
+        });
+    }
+
+    private void remove(Key key) {
+
+        entries.asMap().compute(key, (cachedKey, previous) -> {
+            keys.remove(cachedKey);
+            return null;
+        });
+    }
+
+    private void publish(String bucket, Collection<String> paths) {
+
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        try {
+            paths.forEach(path -> template.convertAndSend(INVALIDATION_CHANNEL, bucket + "\n" + path));
+        } catch (DataAccessException e) {
+            log.warn("Metadata cache invalidation broadcast failed - bucket: {}, paths: {}", bucket, paths.size(), e);
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+
+        return Counter.builder(METRIC_NAME)
+                .description("Object metadata cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(String bucket, String path) {
+    }
+}
@@ -3,33 +3,65 @@ package ru.example.cloudfiles.repository.impl.composition;
 import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
 import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.exception.storageOperation.S3RepositoryException;
 import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryCreationException;
+import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryDeletionException;
 import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryNotExistException;
 import ru.example.cloudfiles.validation.PathValidator;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import static ru.example.cloudfiles.util.ObjectKeys.UTF8_ORDER;
+import static ru.example.cloudfiles.util.ObjectKeys.keyBefore;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DirectoryRepository {
 
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+
     private final MinioClient minioClient;
     private final PathValidator pathValidator;
     private final ObjectRepository objectOps;
+    private final MinioProperties props;
+    private final MeterRegistry meterRegistry;
 
-    public void createDirectory(String bucketName, String path) {
+    public List<String> createDirectory(String bucketName, String path) {
 
         log.debug("Creating directory - bucket: {}, path: '{}'", bucketName, path);
 
@@ -38,11 +70,14 @@ public class DirectoryRepository {
         Set<String> directories = extractAllDirectories(path);
         log.trace("Extracted {} directories to create", directories.size());
 
-        directories.stream()
+        List<String> created = directories.stream()
                 .filter(dir -> !objectOps.isObjectExists(bucketName, dir))
-                .forEach(dir -> createEmptyObject(bucketName, dir));
+                .sorted()
+                .toList();
+        created.forEach(dir -> createEmptyObject(bucketName, dir));
 
-        log.debug("Directory creation completed - path: '{}'", path);
+        log.debug("Directory creation completed - path: '{}', created: {}", path, created.size());
+        return created;
     }
 
     private Set<String> extractAllDirectories(String path) {
@@ -74,36 +109,279 @@ public class DirectoryRepository {
         }
     }
 
+    public DeletionReport deleteDirectory(String bucketName, String path) {
+
+        log.debug("Deleting directory in batches - bucket: {}, path: '{}'", bucketName, path);
+
+        long startedAt = System.nanoTime();
+        AtomicLong deleted = new AtomicLong();
+        Map<String, String> failed = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(props.getDeleteConcurrency());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<String> batch = new ArrayList<>(props.getDeleteBatchSize());
+            for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .prefix(path)
+                    .recursive(true)
+                    .build())) {
+                batch.add(extractItem(result).objectName());
+                if (batch.size() == props.getDeleteBatchSize()) {
+                    submitBatch(executor, inFlight, bucketName, batch, deleted, failed);
+                    batch = new ArrayList<>(props.getDeleteBatchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                submitBatch(executor, inFlight, bucketName, batch, deleted, failed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DirectoryDeletionException(path, e);
+        } catch (Exception e) {
+            log.error("Failed to delete directory - bucket: {}, path: '{}'", bucketName, path, e);
+            throw new DirectoryDeletionException(path, e);
+        }
+
+        DeletionReport report = new DeletionReport(deleted.get(), Map.copyOf(failed),
+                Duration.ofNanos(System.nanoTime() - startedAt));
+        Counter.builder("storage.objects.deleted")
+                .description("Objects removed by directory deletes")
+                .register(meterRegistry)
+                .increment(report.deleted());
+        Counter.builder("storage.objects.delete.failed")
+                .description("Objects left behind by directory deletes after all retries")
+                .register(meterRegistry)
+                .increment(report.failed().size());
+
+        log.debug("Directory deletion finished - path: '{}', deleted: {}, failed: {}, rate: {} objects/s",
+                path, report.deleted(), report.failed().size(), Math.round(report.objectsPerSecond()));
+        return report;
+    }
+
+    private void submitBatch(ExecutorService executor, Semaphore inFlight, String bucketName, List<String> keys,
+                             AtomicLong deleted, Map<String, String> failed) throws InterruptedException {
+
+        inFlight.acquire();
+        executor.execute(() -> {
+            try {
+                deleteBatch(bucketName, keys, deleted, failed);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void deleteBatch(String bucketName, List<String> keys, AtomicLong deleted, Map<String, String> failed) {
+
+        List<String> remaining = keys;
+        Map<String, String> errors = Map.of();
+
+        for (int attempt = 1; attempt <= props.getDeleteMaxAttempts() && !remaining.isEmpty(); attempt++) {
+            errors = removeObjects(bucketName, remaining);
+            deleted.addAndGet(remaining.size() - errors.size());
+            remaining = List.copyOf(errors.keySet());
+
+            if (!remaining.isEmpty()) {
+                log.warn("Batch delete attempt {} left {} objects - bucket: {}", attempt, remaining.size(), bucketName);
+            }
+        }
+        failed.putAll(errors);
+    }
+
+    private Map<String, String> removeObjects(String bucketName, List<String> keys) {
+
+        Map<String, String> errors = new HashMap<>();
+        try {
+            for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .objects(keys.stream().map(DeleteObject::new).toList())
+                    .build())) {
+                DeleteError error = result.get();
+                errors.put(error.objectName(), error.code());
+            }
+        } catch (Exception e) {
+            log.error("Batch delete request failed - bucket: {}, objects: {}", bucketName, keys.size(), e);
+            keys.forEach(key -> errors.put(key, e.getClass().getSimpleName()));
+        }
+        return errors;
+    }
+
+    public Set<String> findExisting(String bucket, Collection<String> paths) {
+
+        if (paths.isEmpty()) {
+            return Set.of();
+        }
+        paths.forEach(pathValidator::validatePath);
+
+        NavigableSet<String> candidates = new TreeSet<>(UTF8_ORDER);
+        candidates.addAll(paths);
+        String prefix = commonDirectory(candidates.first(), candidates.last());
+        log.debug("Checking existence by listing - bucket: {}, prefix: '{}', candidates: {}",
+                bucket, prefix, candidates.size());
+
+        Set<String> existing = new HashSet<>();
+        String lastScanned = null;
+        long scanned = 0;
+        for (Result<Item> result : minioClient.listObjects(listArgs(bucket, prefix, true)
+                .startAfter(keyBefore(candidates.first()))
+                .maxKeys(MAX_KEYS_PER_REQUEST)
+                .build())) {
+            String name = extractItem(result).objectName();
+            if (UTF8_ORDER.compare(name, candidates.last()) > 0) {
+                break;
+            }
+            if (candidates.contains(name)) {
+                existing.add(name);
+            }
+            lastScanned = name;
+            if (++scanned == props.getExistenceScanLimit()) {
+                break;
+            }
+        }
+
+        if (scanned == props.getExistenceScanLimit()) {
+            Set<String> unresolved = candidates.tailSet(lastScanned, false);
+            log.debug("Existence scan limit reached - prefix: '{}', checking {} objects directly",
+                    prefix, unresolved.size());
+            existing.addAll(statAll(bucket, unresolved));
+        }
+
+        log.trace("Existence check completed - prefix: '{}', scanned: {}, existing: {}",
+                prefix, scanned, existing.size());
+        return existing;
+    }
+
+    private Set<String> statAll(String bucket, Set<String> paths) {
+
+        Set<String> existing = ConcurrentHashMap.newKeySet();
+        Semaphore inFlight = new Semaphore(props.getLookupConcurrency());
+        List<Future<?>> futures = new ArrayList<>(paths.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String path : paths) {
+                inFlight.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (objectOps.isObjectExists(bucket, path)) {
+                            existing.add(path);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new S3RepositoryException("Interrupted while checking object existence", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause
+                    ? cause
+                    : new S3RepositoryException("Failed to check object existence", e.getCause());
+        }
+        return existing;
+    }
+
+    private String commonDirectory(String first, String last) {
+
+        int length = 0;
+        int max = Math.min(first.length(), last.length());
+        while (length < max && first.charAt(length) == last.charAt(length)) {
+            length++;
+        }
+        return first.substring(0, first.lastIndexOf('/', length - 1) + 1);
+    }
+
     public List<String> findAllNamesByPrefix(String bucket, String prefix, boolean recursive) {
 
         log.debug("Finding names by prefix - bucket: {}, prefix: '{}', recursive: {}",
                 bucket, prefix, recursive);
 
+        List<String> names = listItems(listArgs(bucket, prefix, recursive).build(), Long.MAX_VALUE, Item::objectName);
+
+        log.debug("Found {} names for prefix: '{}'", names.size(), prefix);
+        return names;
+    }
+
+    public List<ResourceMetadata> findAllByPrefix(String bucket, String prefix, boolean recursive) {
+
+        log.debug("Finding metadata by prefix - bucket: {}, prefix: '{}', recursive: {}",
+                bucket, prefix, recursive);
+
+        List<ResourceMetadata> items = listItems(listArgs(bucket, prefix, recursive).build(), Long.MAX_VALUE,
+                this::toMetadata);
+
+        log.debug("Found {} items for prefix: '{}'", items.size(), prefix);
+        return items;
+    }
+
+    public List<ResourceMetadata> findPageByPrefix(String bucket, String prefix, String startAfter, int limit) {
+
+        log.debug("Finding metadata page by prefix - bucket: {}, prefix: '{}', startAfter: '{}', limit: {}",
+                bucket, prefix, startAfter, limit);
+
+        ListObjectsArgs.Builder args = listArgs(bucket, prefix, false)
+                .maxKeys(Math.min(limit, MAX_KEYS_PER_REQUEST));
+        if (startAfter != null) {
+            args.startAfter(startAfter);
+        }
+
+        List<ResourceMetadata> items = listItems(args.build(), limit, this::toMetadata);
+
+        log.debug("Found {} items for prefix page: '{}'", items.size(), prefix);
+        return items;
+    }
+
+    public Stream<ResourceMetadata> streamByPrefix(String bucket, String prefix, boolean recursive) {
+
+        log.debug("Streaming metadata by prefix - bucket: {}, prefix: '{}', recursive: {}",
+                bucket, prefix, recursive);
+
+        return StreamSupport.stream(minioClient.listObjects(listArgs(bucket, prefix, recursive).build())
+                        .spliterator(), false)
+                .map(this::extractItem)
+                .map(this::toMetadata);
+    }
+
+    private ListObjectsArgs.Builder listArgs(String bucket, String prefix, boolean recursive) {
+
+        return ListObjectsArgs.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .recursive(recursive);
+    }
+
+    private <T> List<T> listItems(ListObjectsArgs args, long limit, Function<Item, T> mapper) {
+
         try {
-            List<String> names = StreamSupport.stream(
-                            minioClient.listObjects(ListObjectsArgs.builder()
-                                    .bucket(bucket)
-                                    .prefix(prefix)
-                                    .recursive(recursive)
-                                    .build()).spliterator(), false)
-                    .map(this::extractObjectName)
+            return StreamSupport.stream(minioClient.listObjects(args).spliterator(), false)
+                    .limit(limit)
+                    .map(this::extractItem)
+                    .map(mapper)
                     .toList();
-
-            log.debug("Found {} names for prefix: '{}'", names.size(), prefix);
-            return names;
         } catch (Exception e) {
-            log.error("Failed to find names by prefix - bucket: {}, prefix: '{}'", bucket, prefix, e);
-            throw new DirectoryNotExistException(prefix);
+            log.error("Failed to list objects by prefix - bucket: {}, prefix: '{}'", args.bucket(), args.prefix(), e);
+            throw new DirectoryNotExistException(args.prefix());
+        }
+    }
+
+    private ResourceMetadata toMetadata(Item item) {
+
+        if (item.isDir()) {
+            return new ResourceMetadata(item.objectName(), 0, null, null);
         }
+        return new ResourceMetadata(item.objectName(), item.size(), item.etag(), item.lastModified());
     }
 
-    private String extractObjectName(Result<Item> itemResult) {
+    private Item extractItem(Result<Item> itemResult) {
 
         try {
-            return itemResult.get().objectName();
+            return itemResult.get();
         } catch (Exception e) {
-            log.error("Failed to extract object name from result", e);
-            throw new S3RepositoryException("Failed to extract object name", e);
+            log.error("Failed to extract item from result", e);
+            throw new S3RepositoryException("Failed to extract object item", e);
         }
     }
 }
\ No newline at end of file
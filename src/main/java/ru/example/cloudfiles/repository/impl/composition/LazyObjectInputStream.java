@@ -0,0 +1,72 @@
+package ru.example.cloudfiles.repository.impl.composition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+
+class LazyObjectInputStream extends InputStream {
+
+    private final Supplier<InputStream> opener;
+    private InputStream delegate;
+    private boolean closed;
+
+    LazyObjectInputStream(Supplier<InputStream> opener) {
+
+        this.opener = opener;
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        return delegate().read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        return delegate().read(b, off, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+
+        return delegate().skip(n);
+    }
+
+    @Override
+    public int available() throws IOException {
+
+        return delegate == null ? 0 : delegate.available();
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+
+        return delegate().transferTo(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        closed = true;
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+    private InputStream delegate() throws IOException {
+
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (delegate == null) {
+            try {
+                delegate = opener.get();
+            } catch (RuntimeException e) {
+                throw new IOException("Failed to open object stream", e);
+            }
+        }
+        return delegate;
+    }
+}
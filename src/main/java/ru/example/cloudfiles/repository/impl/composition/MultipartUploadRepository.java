@@ -0,0 +1,161 @@
+package ru.example.cloudfiles.repository.impl.composition;
+
+import io.minio.MinioAsyncClient;
+import io.minio.messages.ListMultipartUploadsResult;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.example.cloudfiles.dto.PendingUpload;
+import ru.example.cloudfiles.dto.UploadedPart;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceListingException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceSaveException;
+import ru.example.cloudfiles.validation.PathValidator;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MultipartUploadRepository {
+
+    private static final int MAX_PARTS_PER_REQUEST = 1000;
+    private static final int MAX_UPLOADS_PER_REQUEST = 1000;
+
+    private final MinioAsyncClient minioAsyncClient;
+    private final PathValidator pathValidator;
+
+    public String createMultipartUpload(String bucket, String path) {
+
+        log.debug("Creating multipart upload - bucket: {}, path: '{}'", bucket, path);
+
+        pathValidator.validatePath(path);
+
+        try {
+            String uploadId = await(minioAsyncClient.createMultipartUploadAsync(bucket, null, path, null, null))
+                    .result()
+                    .uploadId();
+            log.trace("Multipart upload created - bucket: {}, path: '{}', uploadId: {}", bucket, path, uploadId);
+            return uploadId;
+        } catch (Exception e) {
+            log.error("Failed to create multipart upload - bucket: {}, path: '{}'", bucket, path, e);
+            throw new ResourceSaveException(path, e);
+        }
+    }
+
+    public UploadedPart uploadPart(String bucket, String path, String uploadId, int partNumber,
+                                   InputStream dataStream, long size) {
+
+        log.debug("Uploading part - bucket: {}, path: '{}', part: {}, size: {}", bucket, path, partNumber, size);
+
+        try {
+            String etag = await(minioAsyncClient.uploadPartAsync(bucket, null, path, dataStream, size,
+                    uploadId, partNumber, null, null))
+                    .etag();
+            log.trace("Part uploaded - bucket: {}, path: '{}', part: {}", bucket, path, partNumber);
+            return new UploadedPart(partNumber, etag, size);
+        } catch (Exception e) {
+            log.error("Failed to upload part - bucket: {}, path: '{}', part: {}", bucket, path, partNumber, e);
+            throw new ResourceSaveException(path, e);
+        }
+    }
+
+    public List<UploadedPart> listParts(String bucket, String path, String uploadId) {
+
+        log.debug("Listing uploaded parts - bucket: {}, path: '{}'", bucket, path);
+
+        List<UploadedPart> parts = new ArrayList<>();
+        try {
+            ListPartsResult result;
+            int marker = 0;
+            do {
+                result = await(minioAsyncClient.listPartsAsync(bucket, null, path, MAX_PARTS_PER_REQUEST, marker,
+                        uploadId, null, null))
+                        .result();
+                result.partList().forEach(part ->
+                        parts.add(new UploadedPart(part.partNumber(), part.etag(), part.partSize())));
+                marker = result.nextPartNumberMarker();
+            } while (result.isTruncated());
+        } catch (Exception e) {
+            log.error("Failed to list uploaded parts - bucket: {}, path: '{}'", bucket, path, e);
+            throw new ResourceSaveException(path, e);
+        }
+
+        log.trace("Found {} uploaded parts - path: '{}'", parts.size(), path);
+        return parts;
+    }
+
+    public void completeMultipartUpload(String bucket, String path, String uploadId, List<UploadedPart> parts) {
+
+        log.debug("Completing multipart upload - bucket: {}, path: '{}', parts: {}", bucket, path, parts.size());
+
+        Part[] completed = parts.stream()
+                .map(part -> new Part(part.partNumber(), part.etag()))
+                .toArray(Part[]::new);
+
+        try {
+            await(minioAsyncClient.completeMultipartUploadAsync(bucket, null, path, uploadId, completed, null, null));
+            log.trace("Multipart upload completed - bucket: {}, path: '{}'", bucket, path);
+        } catch (Exception e) {
+            log.error("Failed to complete multipart upload - bucket: {}, path: '{}'", bucket, path, e);
+            throw new ResourceSaveException(path, e);
+        }
+    }
+
+    public void abortMultipartUpload(String bucket, String path, String uploadId) {
+
+        log.debug("Aborting multipart upload - bucket: {}, path: '{}'", bucket, path);
+
+        try {
+            await(minioAsyncClient.abortMultipartUploadAsync(bucket, null, path, uploadId, null, null));
+            log.trace("Multipart upload aborted - bucket: {}, path: '{}'", bucket, path);
+        } catch (Exception e) {
+            log.error("Failed to abort multipart upload - bucket: {}, path: '{}'", bucket, path, e);
+            throw new ResourceSaveException(path, e);
+        }
+    }
+
+    public List<PendingUpload> findMultipartUploads(String bucket) {
+
+        log.debug("Listing multipart uploads - bucket: {}", bucket);
+
+        List<PendingUpload> uploads = new ArrayList<>();
+        try {
+            ListMultipartUploadsResult result;
+            String keyMarker = null;
+            String uploadIdMarker = null;
+            do {
+                result = await(minioAsyncClient.listMultipartUploadsAsync(bucket, null, null, null, keyMarker,
+                        MAX_UPLOADS_PER_REQUEST, null, uploadIdMarker, null, null))
+                        .result();
+                result.uploads().forEach(upload ->
+                        uploads.add(new PendingUpload(upload.objectName(), upload.uploadId(), upload.initiated())));
+                keyMarker = result.nextKeyMarker();
+                uploadIdMarker = result.nextUploadIdMarker();
+            } while (result.isTruncated());
+        } catch (Exception e) {
+            log.error("Failed to list multipart uploads - bucket: {}", bucket, e);
+            throw new ResourceListingException(bucket, e);
+        }
+
+        log.trace("Found {} multipart uploads - bucket: {}", uploads.size(), bucket);
+        return uploads;
+    }
+
+    private <T> T await(CompletableFuture<T> future) throws Exception {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -1,20 +1,44 @@
 package ru.example.cloudfiles.repository.impl.composition;
 
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
 import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteArgs;
+import io.minio.ObjectWriteResponse;
+import io.minio.PostPolicy;
 import io.minio.PutObjectArgs;
 import io.minio.StatObjectArgs;
 import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.PresignedPost;
 import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.exception.storageOperation.S3RepositoryException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceRetrievalException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceSaveException;
 import ru.example.cloudfiles.validation.PathValidator;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -23,26 +47,93 @@ public class ObjectRepository {
 
     private final MinioClient minioClient;
     private final PathValidator pathValidator;
+    private final MinioProperties props;
+    private final UploadBufferBudget bufferBudget;
 
     public Resource getResourceByPath(String bucket, String path) {
 
         log.debug("Getting resource - bucket: {}, path: '{}'", bucket, path);
 
+        ResourceMetadata metadata = headResource(bucket, path);
+
+        return new Resource(path, new LazyObjectInputStream(() -> openObject(bucket, path, null, null)),
+                metadata.size());
+    }
+
+    public InputStream getResourceStream(String bucket, String path) {
+
+        log.debug("Getting resource stream - bucket: {}, path: '{}'", bucket, path);
+
+        pathValidator.validatePath(path);
+
+        return new LazyObjectInputStream(() -> openObject(bucket, path, null, null));
+    }
+
+    public InputStream getResourceRange(String bucket, String path, long offset, long length) {
+
+        log.debug("Getting resource range - bucket: {}, path: '{}', offset: {}, length: {}",
+                bucket, path, offset, length);
+
+        pathValidator.validatePath(path);
+
+        return new LazyObjectInputStream(() -> openObject(bucket, path, offset, length));
+    }
+
+    public String getPresignedDownloadUrl(String bucket, String path, Duration expiry, String contentDisposition) {
+
+        log.debug("Presigning download - bucket: {}, path: '{}', expiry: {}", bucket, path, expiry);
+
         pathValidator.validatePath(path);
 
         try {
-            var objectStream = minioClient.getObject(GetObjectArgs.builder()
+            return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
                     .bucket(bucket)
                     .object(path)
+                    .expiry((int) expiry.toSeconds())
+                    .extraQueryParams(Map.of("response-content-disposition", contentDisposition))
                     .build());
+        } catch (Exception e) {
+            log.error("Failed to presign download - bucket: {}, path: '{}'", bucket, path, e);
+            throw new ResourceRetrievalException(path, e);
+        }
+    }
+
+    public PresignedPost getPresignedUpload(String bucket, String path, Duration expiry, long maxSize) {
+
+        log.debug("Presigning upload - bucket: {}, path: '{}', expiry: {}, maxSize: {}", bucket, path, expiry, maxSize);
+
+        pathValidator.validatePath(path);
 
+        try {
+            PostPolicy policy = new PostPolicy(bucket, ZonedDateTime.now(ZoneOffset.UTC).plus(expiry));
+            policy.addEqualsCondition("key", path);
+            policy.addContentLengthRangeCondition(0L, maxSize);
+
+            Map<String, String> formData = new LinkedHashMap<>(minioClient.getPresignedPostFormData(policy));
+            formData.put("key", path);
+            return new PresignedPost(StringUtils.trimTrailingCharacter(props.getUrl(), '/') + "/" + bucket, formData);
+        } catch (Exception e) {
+            log.error("Failed to presign upload - bucket: {}, path: '{}'", bucket, path, e);
+            throw new ResourceSaveException(path, e);
+        }
+    }
+
+    public ResourceMetadata headResource(String bucket, String path) {
+
+        log.debug("Getting resource metadata - bucket: {}, path: '{}'", bucket, path);
+
+        pathValidator.validatePath(path);
+
+        try {
             var objectStat = minioClient.statObject(StatObjectArgs.builder()
                     .bucket(bucket)
                     .object(path)
                     .build());
 
-            log.trace("Resource retrieved - bucket: {}, path: '{}', size: {}", bucket, path, objectStat.size());
-            return new Resource(path, objectStream, objectStat.size());
+            log.trace("Resource metadata retrieved - bucket: {}, path: '{}', size: {}",
+                    bucket, path, objectStat.size());
+            return new ResourceMetadata(path, objectStat.size(), objectStat.etag(), objectStat.lastModified());
         } catch (ErrorResponseException e) {
             if ("NoSuchKey".equals(e.errorResponse().code())) {
                 log.warn("Resource not found - bucket: {}, path: '{}'", bucket, path);
@@ -57,25 +148,103 @@ public class ObjectRepository {
         }
     }
 
-    public void saveResource(String bucket, String path, InputStream dataStream) {
+    private InputStream openObject(String bucket, String path, Long offset, Long length) {
+
+        try {
+            log.trace("Opening object stream - bucket: {}, path: '{}', offset: {}, length: {}",
+                    bucket, path, offset, length);
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(path)
+                    .offset(offset)
+                    .length(length)
+                    .build());
+        } catch (Exception e) {
+            log.error("Failed to open object stream - bucket: {}, path: '{}'", bucket, path, e);
+            throw new ResourceRetrievalException(path, e);
+        }
+    }
+
+    public ResourceMetadata saveResource(String bucket, String path, InputStream dataStream, long size) {
 
-        log.debug("Saving resource - bucket: {}, path: '{}'", bucket, path);
+        long partSize = partSize(size);
+        log.debug("Saving resource - bucket: {}, path: '{}', size: {}, partSize: {}", bucket, path, size, partSize);
 
         pathValidator.validatePath(path);
 
-        try {
-            minioClient.putObject(PutObjectArgs.builder()
+        SizeCountingInputStream counted = new SizeCountingInputStream(dataStream);
+        try (var ignored = bufferBudget.reserve(path, size >= 0 ? Math.min(size, partSize) : partSize)) {
+            ObjectWriteResponse response = minioClient.putObject(PutObjectArgs.builder()
                     .bucket(bucket)
                     .object(path)
-                    .stream(dataStream, -1, 10485760)
+                    .stream(counted, size, partSize)
                     .build());
-            log.trace("Resource saved successfully - bucket: {}, path: '{}'", bucket, path);
+            log.trace("Resource saved successfully - bucket: {}, path: '{}', size: {}", bucket, path, counted.count);
+            return new ResourceMetadata(path, counted.count, response.etag(), writtenAt(response));
+        } catch (ResourceSaveException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to save resource - bucket: {}, path: '{}'", bucket, path, e);
             throw new ResourceSaveException(path, e);
         }
     }
 
+    private long partSize(long size) {
+
+        long configured = Math.max(ObjectWriteArgs.MIN_MULTIPART_SIZE, props.getUploadPartSize().toBytes());
+        if (size < 0) {
+            return configured;
+        }
+        if (size <= configured) {
+            return Math.max(ObjectWriteArgs.MIN_MULTIPART_SIZE, size);
+        }
+        long required = (size + ObjectWriteArgs.MAX_MULTIPART_COUNT - 1) / ObjectWriteArgs.MAX_MULTIPART_COUNT;
+        long rounded = (required + ObjectWriteArgs.MIN_MULTIPART_SIZE - 1)
+                / ObjectWriteArgs.MIN_MULTIPART_SIZE * ObjectWriteArgs.MIN_MULTIPART_SIZE;
+        return Math.min(ObjectWriteArgs.MAX_PART_SIZE, Math.max(configured, rounded));
+    }
+
+    private ZonedDateTime writtenAt(ObjectWriteResponse response) {
+
+        Date date = response.headers().getDate(HttpHeaders.DATE);
+        return date != null
+                ? ZonedDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC)
+                : ZonedDateTime.now(ZoneOffset.UTC);
+    }
+
+    public void copyResource(String bucket, ResourceMetadata source, String target) {
+
+        log.debug("Copying resource - bucket: {}, from: '{}', to: '{}'", bucket, source.path(), target);
+
+        pathValidator.validatePath(target);
+
+        try {
+            if (source.size() > ObjectWriteArgs.MAX_PART_SIZE) {
+                minioClient.composeObject(ComposeObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(target)
+                        .sources(List.of(ComposeSource.builder()
+                                .bucket(bucket)
+                                .object(source.path())
+                                .build()))
+                        .build());
+            } else {
+                minioClient.copyObject(CopyObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(target)
+                        .source(CopySource.builder()
+                                .bucket(bucket)
+                                .object(source.path())
+                                .build())
+                        .build());
+            }
+            log.trace("Resource copied - bucket: {}, from: '{}', to: '{}'", bucket, source.path(), target);
+        } catch (Exception e) {
+            log.error("Failed to copy resource - bucket: {}, from: '{}', to: '{}'", bucket, source.path(), target, e);
+            throw new ResourceSaveException(target, e);
+        }
+    }
+
     public boolean isObjectExists(String bucketName, String path) {
 
         log.trace("Checking object existence - bucket: {}, path: '{}'", bucketName, path);
@@ -102,4 +271,33 @@ public class ObjectRepository {
             throw new S3RepositoryException("Object doesn`t exist", e);
         }
     }
-}
\ No newline at end of file
+
+    private static final class SizeCountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private SizeCountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
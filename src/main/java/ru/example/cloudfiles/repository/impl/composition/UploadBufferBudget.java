@@ -0,0 +1,71 @@
+package ru.example.cloudfiles.repository.impl.composition;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceSaveException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class UploadBufferBudget {
+
+    private static final int PERMIT_BYTES = 1024;
+
+    private final Semaphore permits;
+    private final int totalPermits;
+    private final MinioProperties props;
+
+    public UploadBufferBudget(MinioProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, props.getUploadBufferLimit().toBytes() / PERMIT_BYTES));
+        this.permits = new Semaphore(totalPermits, true);
+        Gauge.builder("cloudfiles.upload.buffer.used", this, UploadBufferBudget::usedBytes)
+                .description("Upload part buffer bytes reserved by in-flight uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cloudfiles.upload.buffer.limit", this, budget -> (double) budget.totalPermits * PERMIT_BYTES)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Reservation reserve(String path, long bytes) {
+
+        int requested = (int) Math.min(totalPermits, Math.max(1, (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES));
+        try {
+            if (!permits.tryAcquire(requested, props.getUploadBufferWait().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Upload buffer budget exhausted - path: '{}', requested: {} bytes, available: {} bytes",
+                        path, bytes, (long) permits.availablePermits() * PERMIT_BYTES);
+                throw new ResourceSaveException(path, new IllegalStateException("Upload buffer budget exhausted"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceSaveException(path, e);
+        }
+        log.trace("Upload buffer reserved - path: '{}', bytes: {}", path, (long) requested * PERMIT_BYTES);
+        return new Reservation(requested);
+    }
+
+    long usedBytes() {
+        return (long) (totalPermits - permits.availablePermits()) * PERMIT_BYTES;
+    }
+
+    public final class Reservation implements AutoCloseable {
+
+        private final int reserved;
+
+        private Reservation(int reserved) {
+            this.reserved = reserved;
+        }
+
+        @Override
+        public void close() {
+            permits.release(reserved);
+        }
+    }
+}
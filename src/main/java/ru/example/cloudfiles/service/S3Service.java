@@ -1,10 +1,19 @@
 package ru.example.cloudfiles.service;
 
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.example.cloudfiles.dto.DirectoryPage;
 import ru.example.cloudfiles.dto.DownloadResult;
+import ru.example.cloudfiles.dto.SearchPage;
+import ru.example.cloudfiles.dto.response.ArchiveJobResponseDTO;
+import ru.example.cloudfiles.dto.response.PresignedUrlResponseDTO;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadPartResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadSessionResponseDTO;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface S3Service {
@@ -15,15 +24,42 @@ public interface S3Service {
 
     void createUserDirectory(long userId);
 
-    DownloadResult prepareDownload(long userId, String path);
+    DownloadResult prepareDownload(long userId, String path, Integer compressionLevel, HttpHeaders requestHeaders);
 
     ResourceInfoResponseDTO moveResource(long userId, String oldPath, String newPath);
 
-    List<ResourceInfoResponseDTO> searchResource(long userId, String query);
+    SearchPage searchResource(long userId, String query, int page, int size);
+
+    StreamingResponseBody streamSearchResource(long userId, String query);
 
     List<ResourceInfoResponseDTO> uploadResource(long userId, String uploadPath, MultipartFile[] files);
 
-    List<ResourceInfoResponseDTO> getDirectory(long userId, String path);
+    ResourceInfoResponseDTO uploadResourceStream(long userId, String uploadPath, String filename,
+                                                 InputStream dataStream, long size);
+
+    UploadSessionResponseDTO createUploadSession(long userId, String uploadPath, String filename);
+
+    UploadPartResponseDTO uploadPart(long userId, String sessionId, int partNumber, InputStream dataStream, long size);
+
+    List<UploadPartResponseDTO> listUploadParts(long userId, String sessionId);
+
+    ResourceInfoResponseDTO completeUpload(long userId, String sessionId);
+
+    void abortUpload(long userId, String sessionId);
+
+    PresignedUrlResponseDTO presignDownload(long userId, String path);
+
+    PresignedUrlResponseDTO presignUpload(long userId, String uploadPath, String filename);
+
+    ResourceInfoResponseDTO confirmPresignedUpload(long userId, String path);
+
+    ArchiveJobResponseDTO createArchiveJob(long userId, String path, Integer compressionLevel);
+
+    ArchiveJobResponseDTO getArchiveJob(long userId, String jobId);
+
+    DirectoryPage getDirectory(long userId, String path, String cursor, int limit);
+
+    StreamingResponseBody streamDirectory(long userId, String path);
 
     ResourceInfoResponseDTO createDirectory(long userId, String path);
 }
\ No newline at end of file
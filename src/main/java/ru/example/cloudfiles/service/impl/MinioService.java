@@ -2,16 +2,28 @@ package ru.example.cloudfiles.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.example.cloudfiles.dto.DirectoryPage;
 import ru.example.cloudfiles.dto.DownloadResult;
+import ru.example.cloudfiles.dto.SearchPage;
+import ru.example.cloudfiles.dto.response.ArchiveJobResponseDTO;
+import ru.example.cloudfiles.dto.response.PresignedUrlResponseDTO;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadPartResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadSessionResponseDTO;
 import ru.example.cloudfiles.service.S3Service;
+import ru.example.cloudfiles.service.impl.composition.ArchiveJobService;
+import ru.example.cloudfiles.service.impl.composition.ChunkedUploadService;
 import ru.example.cloudfiles.service.impl.composition.DirectoryOperationsService;
+import ru.example.cloudfiles.service.impl.composition.PresignService;
 import ru.example.cloudfiles.service.impl.composition.SearchService;
 import ru.example.cloudfiles.service.impl.composition.UploadService;
 import ru.example.cloudfiles.service.impl.composition.fileOperations.FileOperationsService;
 
+import java.io.InputStream;
 import java.util.List;
 
 @Service
@@ -22,59 +34,158 @@ public class MinioService implements S3Service {
     private final FileOperationsService fileOps;
     private final DirectoryOperationsService dirOps;
     private final UploadService uploadService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final ArchiveJobService archiveJobService;
+    private final PresignService presignService;
     private final SearchService searchService;
+    private final NdjsonWriter ndjsonWriter;
+    private final OperationObserver observer;
 
 
     @Override
     public ResourceInfoResponseDTO getResource(long userId, String path) {
 
-        return fileOps.getResource(userId, path);
+        return observer.observe("resource.get", userId, path, () -> fileOps.getResource(userId, path));
     }
 
     @Override
     public void deleteResource(long userId, String path) {
 
-        fileOps.deleteResource(userId, path);
+        observer.observe("resource.delete", userId, path, () -> fileOps.deleteResource(userId, path));
     }
 
     @Override
     public void createUserDirectory(long userId) {
-        dirOps.createUserDirectory(userId);
+        observer.observe("directory.create-user", userId, null, () -> dirOps.createUserDirectory(userId));
     }
 
     @Override
-    public DownloadResult prepareDownload(long userId, String path) {
+    public DownloadResult prepareDownload(long userId, String path, Integer compressionLevel,
+                                          HttpHeaders requestHeaders) {
 
-        return fileOps.prepareDownload(userId, path);
+        return observer.observe("resource.download", userId, path,
+                () -> fileOps.prepareDownload(userId, path, compressionLevel, requestHeaders));
     }
 
     @Override
     public ResourceInfoResponseDTO moveResource(long userId, String oldPath, String newPath) {
 
-        return fileOps.moveResource(userId, oldPath, newPath);
+        return observer.observe("resource.move", userId, oldPath, () -> fileOps.moveResource(userId, oldPath, newPath));
     }
 
     @Override
-    public List<ResourceInfoResponseDTO> searchResource(long userId, String query) {
+    public SearchPage searchResource(long userId, String query, int page, int size) {
 
-        return searchService.search(userId, query);
+        return observer.observe("resource.search", userId, null, () -> searchService.search(userId, query, page, size));
+    }
+
+    @Override
+    public StreamingResponseBody streamSearchResource(long userId, String query) {
+
+        return observer.observe("resource.search-stream", userId, null,
+                () -> ndjsonWriter.write(searchService.streamSearch(userId, query)));
     }
 
     @Override
     public List<ResourceInfoResponseDTO> uploadResource(long userId, String uploadPath, MultipartFile[] files) {
 
-        return uploadService.upload(userId, uploadPath, files);
+        return observer.observe("resource.upload", userId, uploadPath,
+                () -> uploadService.upload(userId, uploadPath, files));
+    }
+
+    @Override
+    public ResourceInfoResponseDTO uploadResourceStream(long userId, String uploadPath, String filename,
+                                                        InputStream dataStream, long size) {
+
+        return observer.observe("resource.upload-stream", userId, uploadPath,
+                () -> uploadService.uploadStream(userId, uploadPath, filename, dataStream, size));
+    }
+
+    @Override
+    public UploadSessionResponseDTO createUploadSession(long userId, String uploadPath, String filename) {
+
+        return observer.observe("upload-session.create", userId, uploadPath,
+                () -> chunkedUploadService.createSession(userId, uploadPath, filename));
+    }
+
+    @Override
+    public UploadPartResponseDTO uploadPart(long userId, String sessionId, int partNumber,
+                                            InputStream dataStream, long size) {
+
+        return observer.observe("upload-session.part", userId, null,
+                () -> chunkedUploadService.uploadPart(userId, sessionId, partNumber, dataStream, size));
+    }
+
+    @Override
+    public List<UploadPartResponseDTO> listUploadParts(long userId, String sessionId) {
+
+        return observer.observe("upload-session.parts", userId, null,
+                () -> chunkedUploadService.listParts(userId, sessionId));
+    }
+
+    @Override
+    public ResourceInfoResponseDTO completeUpload(long userId, String sessionId) {
+
+        return observer.observe("upload-session.complete", userId, null,
+                () -> chunkedUploadService.complete(userId, sessionId));
+    }
+
+    @Override
+    public void abortUpload(long userId, String sessionId) {
+
+        observer.observe("upload-session.abort", userId, null, () -> chunkedUploadService.abort(userId, sessionId));
+    }
+
+    @Override
+    public PresignedUrlResponseDTO presignDownload(long userId, String path) {
+
+        return observer.observe("resource.presign-download", userId, path,
+                () -> presignService.presignDownload(userId, path));
+    }
+
+    @Override
+    public PresignedUrlResponseDTO presignUpload(long userId, String uploadPath, String filename) {
+
+        return observer.observe("resource.presign-upload", userId, uploadPath,
+                () -> presignService.presignUpload(userId, uploadPath, filename));
+    }
+
+    @Override
+    public ResourceInfoResponseDTO confirmPresignedUpload(long userId, String path) {
+
+        return observer.observe("resource.presign-confirm", userId, path,
+                () -> presignService.confirmUpload(userId, path));
+    }
+
+    @Override
+    public ArchiveJobResponseDTO createArchiveJob(long userId, String path, Integer compressionLevel) {
+
+        return observer.observe("archive-job.create", userId, path,
+                () -> archiveJobService.createJob(userId, path, compressionLevel));
+    }
+
+    @Override
+    public ArchiveJobResponseDTO getArchiveJob(long userId, String jobId) {
+
+        return observer.observe("archive-job.get", userId, null, () -> archiveJobService.getJob(userId, jobId));
+    }
+
+    @Override
+    public DirectoryPage getDirectory(long userId, String path, String cursor, int limit) {
+
+        return observer.observe("directory.get", userId, path, () -> dirOps.getDirectory(userId, path, cursor, limit));
     }
 
     @Override
-    public List<ResourceInfoResponseDTO> getDirectory(long userId, String path) {
+    public StreamingResponseBody streamDirectory(long userId, String path) {
 
-        return dirOps.getDirectory(userId, path);
+        return observer.observe("directory.stream", userId, path,
+                () -> ndjsonWriter.write(dirOps.streamDirectory(userId, path)));
     }
 
     @Override
     public ResourceInfoResponseDTO createDirectory(long userId, String path) {
 
-        return dirOps.createDirectory(userId, path);
+        return observer.observe("directory.create", userId, path, () -> dirOps.createDirectory(userId, path));
     }
 }
\ No newline at end of file
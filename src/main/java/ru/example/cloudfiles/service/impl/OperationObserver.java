@@ -0,0 +1,107 @@
+package ru.example.cloudfiles.service.impl;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class OperationObserver {
+
+    public static final String OBSERVATION_NAME = "cloudfiles.operation";
+
+    private final ObservationRegistry observationRegistry;
+
+    public <T> T observe(String operation, long userId, String path, Supplier<T> call) {
+
+        return start(operation, userId, path).observe(call);
+    }
+
+    public void observe(String operation, long userId, String path, Runnable call) {
+
+        start(operation, userId, path).observe(call);
+    }
+
+    public StreamingResponseBody observeBody(String operation, long userId, String path,
+                                             StreamingResponseBody body) {
+
+        if (body == null) {
+            return null;
+        }
+        return outputStream -> {
+            Observation observation = start(operation, userId, path).start();
+            CountingOutputStream counted = new CountingOutputStream(outputStream);
+            try (Observation.Scope ignored = observation.openScope()) {
+                body.writeTo(counted);
+            } catch (IOException | RuntimeException e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.highCardinalityKeyValue("bytes", String.valueOf(counted.count));
+                observation.stop();
+            }
+        };
+    }
+
+    public void tag(String key, long value) {
+
+        Observation current = observationRegistry.getCurrentObservation();
+        if (current != null) {
+            current.highCardinalityKeyValue(key, String.valueOf(value));
+        }
+    }
+
+    public static int pathDepth(String path) {
+
+        if (path == null) {
+            return 0;
+        }
+        int depth = 0;
+        boolean inSegment = false;
+        for (int i = 0; i < path.length(); i++) {
+            boolean separator = path.charAt(i) == '/';
+            if (!separator && !inSegment) {
+                depth++;
+            }
+            inSegment = !separator;
+        }
+        return depth;
+    }
+
+    private Observation start(String operation, long userId, String path) {
+
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(operation)
+                .lowCardinalityKeyValue("operation", operation)
+                .highCardinalityKeyValue("user.id", String.valueOf(userId))
+                .highCardinalityKeyValue("path.depth", String.valueOf(pathDepth(path)));
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
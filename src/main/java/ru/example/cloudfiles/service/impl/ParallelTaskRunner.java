@@ -0,0 +1,93 @@
+package ru.example.cloudfiles.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class ParallelTaskRunner {
+
+    public <T> void runAll(Collection<T> items, int concurrency, Consumer<T> task) {
+
+        mapAll(items, concurrency, item -> {
+            task.accept(item);
+            return null;
+        });
+    }
+
+    public <T, R> List<R> mapAll(Collection<T> items, int concurrency, Function<T, R> task) {
+
+        log.trace("Running tasks - items: {}, concurrency: {}", items.size(), concurrency);
+
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<Future<R>> futures = new ArrayList<>(items.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (T item : items) {
+                permits.acquire();
+                if (failure.get() != null) {
+                    permits.release();
+                    break;
+                }
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return task.apply(item);
+                        } catch (RuntimeException e) {
+                            if (failure.compareAndSet(null, e)) {
+                                executor.shutdownNow();
+                            }
+                            throw e;
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    if (failure.get() != null) {
+                        throw failure.get();
+                    }
+                    throw e;
+                }
+            }
+            return awaitAll(executor, futures, failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running parallel tasks", e);
+        }
+    }
+
+    private <R> List<R> awaitAll(ExecutorService executor, List<Future<R>> futures,
+                                 AtomicReference<RuntimeException> failure) throws InterruptedException {
+
+        List<R> results = new ArrayList<>(futures.size());
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                if (failure.get() != null) {
+                    throw failure.get();
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Parallel task failed", e.getCause());
+            }
+        }
+        return results;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.example.cloudfiles.config.properties.MinioProperties;
 
+import java.util.regex.Pattern;
+
 @Service
 @RequiredArgsConstructor
 public class PathManager {
@@ -27,6 +29,14 @@ public class PathManager {
                 ? technicalPath.substring(userDirectory.length()) : technicalPath;
     }
 
+    public boolean isInUserDirectory(String technicalPath) {
+
+        String[] pattern = properties.getUserDirectoryPattern().split("%d", 2);
+        String userDirectory = Pattern.quote(pattern[0]) + "\\d+" + (pattern.length > 1 ? Pattern.quote(pattern[1]) : "");
+
+        return Pattern.compile(userDirectory).matcher(technicalPath).lookingAt();
+    }
+
     public boolean isDirectory(String path) {
         return path.endsWith("/") && path.length() > 1;
     }
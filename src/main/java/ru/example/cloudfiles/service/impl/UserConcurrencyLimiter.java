@@ -0,0 +1,66 @@
+package ru.example.cloudfiles.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+@Component
+public class UserConcurrencyLimiter {
+
+    private final Map<Key, Permits> permitsByUser = new ConcurrentHashMap<>();
+
+    public <R> R call(long userId, String purpose, int limit, Supplier<R> task) {
+
+        Key key = new Key(userId, purpose);
+        Permits permits = permitsByUser.compute(key, (id, existing) -> {
+            Permits current = existing != null ? existing : new Permits(new Semaphore(limit));
+            current.holders++;
+            return current;
+        });
+
+        try {
+            permits.semaphore().acquire();
+        } catch (InterruptedException e) {
+            release(key);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for user permit", e);
+        }
+
+        try {
+            return task.get();
+        } finally {
+            permits.semaphore().release();
+            release(key);
+        }
+    }
+
+    int trackedUsers() {
+
+        return permitsByUser.size();
+    }
+
+    private void release(Key key) {
+
+        permitsByUser.computeIfPresent(key, (id, current) -> --current.holders == 0 ? null : current);
+    }
+
+    private record Key(long userId, String purpose) {
+    }
+
+    private static final class Permits {
+
+        private final Semaphore semaphore;
+        private int holders;
+
+        private Permits(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        private Semaphore semaphore() {
+            return semaphore;
+        }
+    }
+}
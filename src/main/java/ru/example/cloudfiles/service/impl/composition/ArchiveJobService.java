@@ -0,0 +1,332 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ArchiveJob;
+import ru.example.cloudfiles.dto.ArchiveJobStatus;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.response.ArchiveJobResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.archive.ArchiveJobNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryNotExistException;
+import ru.example.cloudfiles.exception.storageOperation.directory.NotDirectoryException;
+import ru.example.cloudfiles.exception.storageOperation.directory.ZipCreationException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.resource.StorageOperationException;
+import ru.example.cloudfiles.repository.ArchiveJobRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.UserConcurrencyLimiter;
+import ru.example.cloudfiles.service.impl.composition.fileOperations.FileDownloadService;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveJobService {
+
+    private static final int PROGRESS_INTERVAL = 100;
+    private static final int PIPE_SIZE = 256 * 1024;
+    private static final String ARCHIVE_PERMITS = "archive";
+
+    private final S3Repository s3Repo;
+    private final ArchiveJobRepository jobRepo;
+    private final FileDownloadService fileDownloadService;
+    private final PathManager paths;
+    private final MinioProperties props;
+    private final ExecutorService archiveJobExecutor;
+    private final UserConcurrencyLimiter userLimiter;
+    private final Semaphore archiveBuildPermits;
+
+    public ArchiveJobResponseDTO createJob(long userId, String path, Integer compressionLevel) {
+
+        log.info("Archive job requested - userId: {}, path: '{}'", userId, path);
+
+        if (!paths.isDirectory(path)) {
+            throw new NotDirectoryException(path);
+        }
+
+        List<ResourceMetadata> listing = s3Repo.findAllByPrefix(props.getBucket(),
+                paths.toTechnicalPath(userId, path), true);
+        if (listing.isEmpty()) {
+            throw new DirectoryNotExistException(path);
+        }
+
+        int level = compressionLevel != null ? compressionLevel : props.getZipCompressionLevel();
+        String fingerprint = fingerprint(listing, level);
+        String objectName = props.getArchivePrefix() + fingerprint + ".zip";
+        ArchiveJob job = new ArchiveJob(UUID.randomUUID().toString(), userId, path, fingerprint, objectName,
+                ArchiveJobStatus.RUNNING, listing.size(), 0, Instant.now());
+
+        String owner = jobRepo.claimFingerprint(fingerprint, null, job.id(), props.getArchiveJobTtl());
+        while (!owner.equals(job.id())) {
+            Optional<ArchiveJob> active = findActiveJob(owner);
+            if (active.isPresent()) {
+                log.info("Reusing archive job - userId: {}, job: {}", userId, active.get().id());
+                return toDto(active.get());
+            }
+            owner = jobRepo.claimFingerprint(fingerprint, owner, job.id(), props.getArchiveJobTtl());
+        }
+
+        if (isArchiveReusable(objectName)) {
+            log.info("Archive cache hit - userId: {}, path: '{}', object: '{}'", userId, path, objectName);
+            ArchiveJob cached = job.withProgress(ArchiveJobStatus.COMPLETED, listing.size());
+            jobRepo.save(cached, props.getArchiveJobTtl());
+            return toDto(cached);
+        }
+
+        jobRepo.save(job, props.getArchiveJobTtl());
+        archiveJobExecutor.execute(() -> build(job, listing, level));
+
+        log.info("Archive job started - userId: {}, job: {}, files: {}", userId, job.id(), listing.size());
+        return toDto(job);
+    }
+
+    public ArchiveJobResponseDTO getJob(long userId, String jobId) {
+
+        return toDto(jobRepo.findById(jobId)
+                .filter(job -> job.userId() == userId)
+                .map(this::failIfStale)
+                .orElseThrow(() -> {
+                    log.warn("Archive job not found - userId: {}, job: {}", userId, jobId);
+                    return new ArchiveJobNotFoundException(jobId);
+                }));
+    }
+
+    @Scheduled(fixedDelayString = "${minio.archive-sweep-interval:1h}",
+            initialDelayString = "${minio.archive-sweep-interval:1h}")
+    public void removeExpiredArchives() {
+
+        ZonedDateTime expiredBefore = ZonedDateTime.now(ZoneOffset.UTC)
+                .minus(props.getArchiveJobTtl())
+                .minus(props.getArchiveLinkExpiry());
+        List<ResourceMetadata> expired = s3Repo.findAllByPrefix(props.getBucket(), props.getArchivePrefix(), true)
+                .stream()
+                .filter(item -> item.lastModified() != null && item.lastModified().isBefore(expiredBefore))
+                .toList();
+
+        int removed = 0;
+        for (ResourceMetadata archive : expired) {
+            try {
+                s3Repo.deleteResource(props.getBucket(), archive.path());
+                removed++;
+            } catch (StorageOperationException e) {
+                log.warn("Failed to remove expired archive - object: '{}'", archive.path(), e);
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Expired archives removed - removed: {}, found: {}", removed, expired.size());
+        }
+    }
+
+    private void build(ArchiveJob job, List<ResourceMetadata> listing, int compressionLevel) {
+
+        AtomicInteger processed = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Future<?> heartbeat = archiveJobExecutor.submit(() -> heartbeat(job, processed, running));
+
+        try {
+            userLimiter.call(job.userId(), ARCHIVE_PERMITS, props.getUserArchiveConcurrency(),
+                    () -> writeArchiveWithPermit(job, listing, compressionLevel, () -> {
+                        if (processed.incrementAndGet() % PROGRESS_INTERVAL == 0) {
+                            saveProgress(job, processed, running);
+                        }
+                    }));
+            finish(job, ArchiveJobStatus.COMPLETED, processed, running, heartbeat);
+            log.info("Archive job completed - job: {}, files: {}", job.id(), processed.get());
+        } catch (Exception e) {
+            log.error("Archive job failed - job: {}, processed: {}", job.id(), processed.get(), e);
+            finish(job, ArchiveJobStatus.FAILED, processed, running, heartbeat);
+            discardArchive(job);
+        }
+    }
+
+    private void heartbeat(ArchiveJob job, AtomicInteger processed, AtomicBoolean running) {
+
+        while (running.get()) {
+            try {
+                Thread.sleep(props.getArchiveJobHeartbeat());
+            } catch (InterruptedException e) {
+                return;
+            }
+            saveProgress(job, processed, running);
+        }
+    }
+
+    private void saveProgress(ArchiveJob job, AtomicInteger processed, AtomicBoolean running) {
+
+        synchronized (running) {
+            if (running.get()) {
+                jobRepo.save(job.withProgress(ArchiveJobStatus.RUNNING, processed.get()), props.getArchiveJobTtl());
+            }
+        }
+    }
+
+    private void finish(ArchiveJob job, ArchiveJobStatus status, AtomicInteger processed, AtomicBoolean running,
+                        Future<?> heartbeat) {
+
+        synchronized (running) {
+            running.set(false);
+            jobRepo.save(job.withProgress(status, processed.get()), props.getArchiveJobTtl());
+        }
+        heartbeat.cancel(true);
+    }
+
+    private Void writeArchiveWithPermit(ArchiveJob job, List<ResourceMetadata> listing, int compressionLevel,
+                                        Runnable onEntryWritten) {
+
+        try {
+            archiveBuildPermits.acquire();
+            try {
+                writeArchive(job, listing, compressionLevel, onEntryWritten);
+            } finally {
+                archiveBuildPermits.release();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new ZipCreationException(job.path(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZipCreationException(job.path(), e);
+        }
+    }
+
+    private void writeArchive(ArchiveJob job, List<ResourceMetadata> listing, int compressionLevel,
+                              Runnable onEntryWritten) throws IOException, InterruptedException {
+
+        PipedInputStream archiveStream = new PipedInputStream(PIPE_SIZE);
+        PipedOutputStream zipSink = new PipedOutputStream(archiveStream);
+
+        Future<?> writer = archiveJobExecutor.submit(() -> {
+            try (zipSink) {
+                fileDownloadService.writeZip(job.userId(), listing, compressionLevel, zipSink, onEntryWritten);
+            }
+            return null;
+        });
+
+        try (archiveStream) {
+            s3Repo.saveResource(props.getBucket(), job.objectName(), archiveStream);
+        } catch (RuntimeException e) {
+            writer.cancel(true);
+            throw e;
+        }
+
+        try {
+            writer.get();
+        } catch (ExecutionException e) {
+            throw new ZipCreationException(job.path(), e.getCause());
+        }
+    }
+
+    private void discardArchive(ArchiveJob job) {
+
+        try {
+            s3Repo.deleteResource(props.getBucket(), job.objectName());
+        } catch (Exception e) {
+            log.warn("Failed to remove incomplete archive - job: {}, object: '{}'", job.id(), job.objectName(), e);
+        } finally {
+            jobRepo.releaseFingerprint(job.fingerprint());
+        }
+    }
+
+    private boolean isArchiveReusable(String objectName) {
+
+        try {
+            ZonedDateTime lastModified = s3Repo.headResource(props.getBucket(), objectName).lastModified();
+            return lastModified != null
+                    && lastModified.isAfter(ZonedDateTime.now(ZoneOffset.UTC).minus(props.getArchiveJobTtl()));
+        } catch (ResourceNotFoundException e) {
+            return false;
+        }
+    }
+
+    private Optional<ArchiveJob> findActiveJob(String jobId) {
+
+        return jobRepo.findById(jobId)
+                .map(this::failIfStale)
+                .filter(job -> job.status() != ArchiveJobStatus.FAILED);
+    }
+
+    private ArchiveJob failIfStale(ArchiveJob job) {
+
+        if (job.status() != ArchiveJobStatus.RUNNING || !isStale(job)) {
+            return job;
+        }
+        log.warn("Archive job heartbeat lost - job: {}, heartbeatAt: {}", job.id(), job.heartbeatAt());
+        ArchiveJob failed = job.withProgress(ArchiveJobStatus.FAILED, job.processedFiles());
+        jobRepo.save(failed, props.getArchiveJobTtl());
+        return failed;
+    }
+
+    private boolean isStale(ArchiveJob job) {
+
+        return job.heartbeatAt() == null
+                || job.heartbeatAt().isBefore(Instant.now().minus(props.getArchiveJobStaleAfter()));
+    }
+
+    private String fingerprint(List<ResourceMetadata> listing, int compressionLevel) {
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            listing.stream()
+                    .sorted(Comparator.comparing(ResourceMetadata::path))
+                    .forEach(item -> digest.update((item.path() + '\0' + item.etag() + '\n')
+                            .getBytes(StandardCharsets.UTF_8)));
+            digest.update(String.valueOf(compressionLevel).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private ArchiveJobResponseDTO toDto(ArchiveJob job) {
+
+        var dto = ArchiveJobResponseDTO.builder()
+                .id(job.id())
+                .path(job.path())
+                .status(job.status())
+                .totalFiles(job.totalFiles())
+                .processedFiles(job.processedFiles());
+
+        if (job.status() == ArchiveJobStatus.COMPLETED) {
+            String contentDisposition = ContentDisposition.attachment()
+                    .filename(archiveName(job.path()), StandardCharsets.UTF_8)
+                    .build()
+                    .toString();
+            dto.downloadUrl(s3Repo.getPresignedDownloadUrl(props.getBucket(), job.objectName(),
+                            props.getArchiveLinkExpiry(), contentDisposition))
+                    .expiresInSeconds(props.getArchiveLinkExpiry().toSeconds());
+        }
+        return dto.build();
+    }
+
+    private String archiveName(String path) {
+
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        String name = trimmed.substring(trimmed.lastIndexOf('/') + 1);
+        return (name.isBlank() ? "archive" : name) + ".zip";
+    }
+}
@@ -0,0 +1,209 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import io.minio.ObjectWriteArgs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.PendingUpload;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.UploadSession;
+import ru.example.cloudfiles.dto.UploadedPart;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadPartResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadSessionResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
+import ru.example.cloudfiles.exception.storageOperation.resource.StorageOperationException;
+import ru.example.cloudfiles.exception.storageOperation.upload.UploadSessionNotFoundException;
+import ru.example.cloudfiles.exception.validation.InvalidUploadPartException;
+import ru.example.cloudfiles.mapper.ResourceMapper;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.repository.UploadSessionRepository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.io.InputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    private final S3Repository s3Repo;
+    private final UploadSessionRepository sessionRepo;
+    private final UploadService uploadService;
+    private final PathManager paths;
+    private final MinioProperties props;
+    private final ResourceMapper resourceMapper;
+    private final ResourceIndexService indexService;
+    private final DirectoryListingCache listingCache;
+
+    public UploadSessionResponseDTO createSession(long userId, String uploadPath, String filename) {
+
+        log.info("Upload session requested - userId: {}, path: '{}', file: '{}'", userId, uploadPath, filename);
+
+        uploadService.validateTarget(userId, uploadPath, filename);
+
+        String path = uploadPath + filename;
+        String objectName = paths.toTechnicalPath(userId, path);
+        String uploadId = s3Repo.createMultipartUpload(props.getBucket(), objectName);
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), userId, path, objectName, uploadId,
+                null);
+        sessionRepo.save(session, props.getUploadSessionTtl());
+
+        log.info("Upload session created - userId: {}, session: {}", userId, session.id());
+        return new UploadSessionResponseDTO(session.id(), path, props.getUploadSessionTtl().toSeconds());
+    }
+
+    public UploadPartResponseDTO uploadPart(long userId, String sessionId, int partNumber,
+                                            InputStream dataStream, long size) {
+
+        if (partNumber < 1 || partNumber > ObjectWriteArgs.MAX_MULTIPART_COUNT) {
+            throw new InvalidUploadPartException("part number must be between 1 and %d"
+                    .formatted(ObjectWriteArgs.MAX_MULTIPART_COUNT));
+        }
+        if (size < 0) {
+            throw new InvalidUploadPartException("Content-Length header is required");
+        }
+        if (size > ObjectWriteArgs.MAX_PART_SIZE) {
+            throw new InvalidUploadPartException("part must not exceed %d bytes".formatted(ObjectWriteArgs.MAX_PART_SIZE));
+        }
+
+        UploadSession session = findSession(userId, sessionId);
+        validatePartSize(session, partNumber, size);
+        log.debug("Uploading part - userId: {}, session: {}, part: {}, size: {}", userId, sessionId, partNumber, size);
+
+        UploadedPart part = s3Repo.uploadPart(props.getBucket(), session.objectName(), session.uploadId(),
+                partNumber, dataStream, size);
+
+        if (size < ObjectWriteArgs.MIN_MULTIPART_SIZE) {
+            sessionRepo.update(session.withLastPartNumber(partNumber));
+        } else if (Integer.valueOf(partNumber).equals(session.lastPartNumber())) {
+            sessionRepo.update(session.withLastPartNumber(null));
+        }
+        return toDto(part);
+    }
+
+    public List<UploadPartResponseDTO> listParts(long userId, String sessionId) {
+
+        UploadSession session = findSession(userId, sessionId);
+
+        return s3Repo.listParts(props.getBucket(), session.objectName(), session.uploadId()).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    public ResourceInfoResponseDTO complete(long userId, String sessionId) {
+
+        UploadSession session = findSession(userId, sessionId);
+        List<UploadedPart> parts = s3Repo.listParts(props.getBucket(), session.objectName(), session.uploadId());
+
+        if (parts.isEmpty()) {
+            throw new InvalidUploadPartException("no parts were uploaded");
+        }
+        parts.subList(0, parts.size() - 1).stream()
+                .filter(part -> part.size() < ObjectWriteArgs.MIN_MULTIPART_SIZE)
+                .findFirst()
+                .ifPresent(part -> {
+                    throw new InvalidUploadPartException("part %d is smaller than %d bytes but is not the last part"
+                            .formatted(part.partNumber(), ObjectWriteArgs.MIN_MULTIPART_SIZE));
+                });
+        if (s3Repo.isObjectExists(props.getBucket(), session.objectName())) {
+            log.warn("Resource appeared during upload session - userId: {}, path: '{}'", userId, session.path());
+            throw new ResourceAlreadyExistsException(session.path());
+        }
+
+        s3Repo.completeMultipartUpload(props.getBucket(), session.objectName(), session.uploadId(), parts);
+        sessionRepo.delete(session);
+        uploadService.createParentDirs(userId, List.of(session.objectName()));
+        listingCache.invalidate(userId, List.of(session.objectName()));
+
+        ResourceMetadata uploaded = s3Repo.headResource(props.getBucket(), session.objectName());
+        indexService.indexResources(userId, List.of(uploaded));
+
+        log.info("Upload session completed - userId: {}, session: {}, parts: {}, size: {}",
+                userId, sessionId, parts.size(), uploaded.size());
+        return resourceMapper.toDto(userId, uploaded);
+    }
+
+    public void abort(long userId, String sessionId) {
+
+        UploadSession session = findSession(userId, sessionId);
+
+        s3Repo.abortMultipartUpload(props.getBucket(), session.objectName(), session.uploadId());
+        sessionRepo.delete(session);
+
+        log.info("Upload session aborted - userId: {}, session: {}", userId, sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${minio.upload-sweep-interval:1h}",
+            initialDelayString = "${minio.upload-sweep-interval:1h}")
+    public void abortExpiredUploads() {
+
+        ZonedDateTime expiredBefore = ZonedDateTime.now(ZoneOffset.UTC).minus(props.getUploadSessionTtl());
+        List<PendingUpload> expired = s3Repo.findMultipartUploads(props.getBucket()).stream()
+                .filter(upload -> upload.initiated() != null && upload.initiated().isBefore(expiredBefore))
+                .filter(upload -> sessionRepo.findIdByUploadId(upload.uploadId()).isPresent()
+                        || paths.isInUserDirectory(upload.objectName()))
+                .toList();
+
+        int aborted = 0;
+        for (PendingUpload upload : expired) {
+            try {
+                s3Repo.abortMultipartUpload(props.getBucket(), upload.objectName(), upload.uploadId());
+                sessionRepo.deleteByUploadId(upload.uploadId());
+                aborted++;
+            } catch (StorageOperationException e) {
+                log.warn("Failed to abort expired upload - path: '{}', uploadId: {}",
+                        upload.objectName(), upload.uploadId(), e);
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Expired multipart uploads aborted - aborted: {}, found: {}", aborted, expired.size());
+        }
+    }
+
+    private void validatePartSize(UploadSession session, int partNumber, long size) {
+
+        Integer lastPartNumber = session.lastPartNumber();
+        if (size >= ObjectWriteArgs.MIN_MULTIPART_SIZE) {
+            if (lastPartNumber != null && partNumber > lastPartNumber) {
+                throw new InvalidUploadPartException("part %d follows part %d, which is smaller than %d bytes"
+                        .formatted(partNumber, lastPartNumber, ObjectWriteArgs.MIN_MULTIPART_SIZE));
+            }
+            return;
+        }
+
+        if (lastPartNumber != null && lastPartNumber != partNumber) {
+            throw new InvalidUploadPartException("only the last part may be smaller than %d bytes, part %d already is"
+                    .formatted(ObjectWriteArgs.MIN_MULTIPART_SIZE, lastPartNumber));
+        }
+        boolean laterPartUploaded = s3Repo.listParts(props.getBucket(), session.objectName(), session.uploadId())
+                .stream()
+                .anyMatch(part -> part.partNumber() > partNumber);
+        if (laterPartUploaded) {
+            throw new InvalidUploadPartException("part %d is smaller than %d bytes but is not the last part"
+                    .formatted(partNumber, ObjectWriteArgs.MIN_MULTIPART_SIZE));
+        }
+    }
+
+    private UploadSession findSession(long userId, String sessionId) {
+
+        return sessionRepo.findById(sessionId)
+                .filter(session -> session.userId() == userId)
+                .orElseThrow(() -> {
+                    log.warn("Upload session not found - userId: {}, session: {}", userId, sessionId);
+                    return new UploadSessionNotFoundException(sessionId);
+                });
+    }
+
+    private UploadPartResponseDTO toDto(UploadedPart part) {
+
+        return new UploadPartResponseDTO(part.partNumber(), part.etag(), part.size());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.repository.DirectoryListingRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static ru.example.cloudfiles.util.ObjectKeys.UTF8_ORDER;
+
+@Service
+@Slf4j
+public class DirectoryListingCache {
+
+    private static final String METRIC_NAME = "cloudfiles.listing.cache";
+
+    private final DirectoryListingRepository listingRepo;
+    private final S3Repository s3Repo;
+    private final MinioProperties props;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Counter evictions;
+
+    public DirectoryListingCache(DirectoryListingRepository listingRepo, S3Repository s3Repo,
+                                 MinioProperties props, MeterRegistry meterRegistry) {
+        this.listingRepo = listingRepo;
+        this.s3Repo = s3Repo;
+        this.props = props;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.bypasses = counter(meterRegistry, "bypass");
+        this.evictions = Counter.builder(METRIC_NAME + ".evictions").register(meterRegistry);
+    }
+
+    public Optional<List<ResourceMetadata>> find(long userId, String prefix) {
+
+        if (!props.isListingCacheEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            Optional<List<ResourceMetadata>> cached = listingRepo.find(userId, prefix);
+            (cached.isPresent() ? hits : misses).increment();
+            log.trace("Listing cache lookup - userId: {}, prefix: '{}', hit: {}", userId, prefix, cached.isPresent());
+            return cached;
+        } catch (DataAccessException e) {
+            log.warn("Listing cache unavailable - userId: {}, prefix: '{}'", userId, prefix, e);
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    public Optional<List<ResourceMetadata>> load(long userId, String prefix) {
+
+        if (!props.isListingCacheEnabled()) {
+            return Optional.empty();
+        }
+        int maxEntries = props.getListingCacheMaxEntries();
+        try {
+            long version = listingRepo.version(userId);
+            List<ResourceMetadata> items = s3Repo.findPageByPrefix(props.getBucket(), prefix, prefix, maxEntries + 1);
+            if (items.size() > maxEntries) {
+                log.debug("Listing too large to cache - userId: {}, prefix: '{}'", userId, prefix);
+                bypasses.increment();
+                return Optional.empty();
+            }
+            listingRepo.save(userId, prefix, items, props.getListingCacheTtl());
+            if (listingRepo.version(userId) != version) {
+                log.debug("Listing changed while loading - userId: {}, prefix: '{}'", userId, prefix);
+                listingRepo.evict(userId, List.of(prefix));
+            }
+            log.debug("Listing cached - userId: {}, prefix: '{}', entries: {}", userId, prefix, items.size());
+            return Optional.of(items);
+        } catch (DataAccessException e) {
+            log.warn("Listing cache unavailable - userId: {}, prefix: '{}'", userId, prefix, e);
+            return Optional.empty();
+        }
+    }
+
+    public void invalidate(long userId, Collection<String> technicalPaths) {
+
+        if (!props.isListingCacheEnabled() || technicalPaths.isEmpty()) {
+            return;
+        }
+        Set<String> prefixes = new LinkedHashSet<>();
+        technicalPaths.forEach(path -> addAncestors(path, prefixes));
+        try {
+            if (technicalPaths.stream().anyMatch(path -> path.endsWith("/"))) {
+                listingRepo.findCachedPrefixes(userId).stream()
+                        .filter(cached -> technicalPaths.stream()
+                                .anyMatch(path -> path.endsWith("/") && cached.startsWith(path)))
+                        .forEach(prefixes::add);
+            }
+            listingRepo.evict(userId, prefixes);
+            evictions.increment(prefixes.size());
+            log.trace("Listing cache invalidated - userId: {}, prefixes: {}", userId, prefixes.size());
+        } catch (DataAccessException e) {
+            log.error("Listing cache invalidation failed - userId: {}, paths: {}", userId, technicalPaths, e);
+        }
+    }
+
+    public static List<ResourceMetadata> page(List<ResourceMetadata> listing, String startAfter, int limit) {
+
+        return listing.stream()
+                .filter(item -> UTF8_ORDER.compare(item.path(), startAfter) > 0)
+                .limit(limit)
+                .toList();
+    }
+
+    private void addAncestors(String path, Set<String> prefixes) {
+
+        for (int i = path.indexOf('/'); i >= 0 && i < path.length() - 1; i = path.indexOf('/', i + 1)) {
+            prefixes.add(path.substring(0, i + 1));
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+
+        return Counter.builder(METRIC_NAME)
+                .description("Directory listing cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -5,15 +5,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.DirectoryPage;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.exception.storageOperation.directory.NotDirectoryException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.exception.validation.InvalidCursorException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
 import ru.example.cloudfiles.repository.S3Repository;
 import ru.example.cloudfiles.service.impl.PathManager;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,11 +31,14 @@ public class DirectoryOperationsService {
     private final PathManager paths;
     private final MinioProperties props;
     private final ResourceMapper resourceMapper;
+    private final ResourceIndexService indexService;
+    private final DirectoryListingCache listingCache;
 
     public void createUserDirectory(long userId) {
 
         log.debug("Creating user directory for userId: {}", userId);
         s3Repo.createDirectory(props.getBucket(), paths.getUserDirectory(userId));
+        indexService.markIndexed(userId);
     }
 
     public ResourceInfoResponseDTO createDirectory(long userId, String path) {
@@ -38,33 +48,81 @@ public class DirectoryOperationsService {
         if (resourceExists(userId, path)) throw new ResourceAlreadyExistsException(path);
 
         String technicalPath = paths.toTechnicalPath(userId, path);
-        s3Repo.createDirectory(props.getBucket(), technicalPath);
+        List<String> created = s3Repo.createDirectory(props.getBucket(), technicalPath);
+        indexService.indexResources(userId, created.stream()
+                .map(dir -> new ResourceMetadata(dir, 0, null, null))
+                .toList());
+        listingCache.invalidate(userId, created);
 
-        return resourceMapper.toDto(userId, s3Repo.getResourceByPath(props.getBucket(), technicalPath));
+        return resourceMapper.toDto(userId, s3Repo.headResource(props.getBucket(), technicalPath));
     }
 
-    public List<ResourceInfoResponseDTO> getDirectory(long userId, String path) {
+    public DirectoryPage getDirectory(long userId, String path, String cursor, int limit) {
 
-        log.debug("Getting directory contents for userId: {}, path: {}", userId, path);
+        log.debug("Getting directory contents for userId: {}, path: {}, limit: {}", userId, path, limit);
+        if (!paths.isDirectory(path) && StringUtils.isNotBlank(path)) throw new NotDirectoryException(path);
+
+        String userDir = paths.getUserDirectory(userId);
+        String techPath = paths.toTechnicalPath(userId, path);
+        Optional<List<ResourceMetadata>> cached = listingCache.find(userId, techPath);
+        if (cached.isEmpty() && StringUtils.isNotBlank(path) && !resourceExists(userId, path)) {
+            throw new ResourceNotFoundException(path);
+        }
+        String startAfter = cursor == null ? techPath : decodeCursor(cursor, techPath);
+
+        List<ResourceMetadata> items = cached.or(() -> listingCache.load(userId, techPath))
+                .map(listing -> DirectoryListingCache.page(listing, startAfter, limit + 1))
+                .orElseGet(() -> s3Repo.findPageByPrefix(props.getBucket(), techPath, startAfter, limit + 1));
+        boolean hasMore = items.size() > limit;
+        List<ResourceMetadata> page = hasMore ? items.subList(0, limit) : items;
+
+        List<ResourceInfoResponseDTO> dtos = page.stream()
+                .filter(item -> !item.path().equals(userDir)
+                        && (StringUtils.isBlank(path) || !item.path().equals(techPath)))
+                .map(item -> resourceMapper.toDto(userId, item))
+                .toList();
+
+        return new DirectoryPage(dtos, hasMore ? encodeCursor(page.getLast().path()) : null);
+    }
+
+    public Stream<ResourceInfoResponseDTO> streamDirectory(long userId, String path) {
+
+        log.debug("Streaming directory contents for userId: {}, path: {}", userId, path);
         if (!paths.isDirectory(path) && StringUtils.isNotBlank(path)) throw new NotDirectoryException(path);
         if (StringUtils.isNotBlank(path) && !resourceExists(userId, path)) throw new ResourceNotFoundException(path);
 
         String userDir = paths.getUserDirectory(userId);
         String techPath = paths.toTechnicalPath(userId, path);
 
-        return findAllNames(userId, path, false).stream()
-                .filter(name -> !name.equals(userDir) && (StringUtils.isBlank(path) || !name.equals(techPath)))
-                .map(name -> resourceMapper.toDto(userId, s3Repo.getResourceByPath(props.getBucket(), name)))
-                .toList();
+        return s3Repo.streamByPrefix(props.getBucket(), techPath, false)
+                .filter(item -> !item.path().equals(userDir) && !item.path().equals(techPath))
+                .map(item -> resourceMapper.toDto(userId, item));
     }
 
-    private boolean resourceExists(long userId, String path) {
+    private String encodeCursor(String lastKey) {
 
-        return s3Repo.isObjectExists(props.getBucket(), paths.toTechnicalPath(userId, path));
+        String startAfter = paths.isDirectory(lastKey)
+                ? lastKey + Character.toString(Character.MAX_CODE_POINT)
+                : lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(startAfter.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor, String techPath) {
+
+        try {
+            String startAfter = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (startAfter.startsWith(techPath)) {
+                return startAfter;
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed listing cursor: '{}'", cursor);
+        }
+        throw new InvalidCursorException(cursor);
     }
 
-    private List<String> findAllNames(long userId, String prefix, boolean recursive) {
+    private boolean resourceExists(long userId, String path) {
 
-        return s3Repo.findAllNamesByPrefix(props.getBucket(), paths.toTechnicalPath(userId, prefix), recursive);
+        return s3Repo.isObjectExists(props.getBucket(), paths.toTechnicalPath(userId, path));
     }
+
 }
\ No newline at end of file
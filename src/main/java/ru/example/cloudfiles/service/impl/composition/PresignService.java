@@ -0,0 +1,114 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.PresignedPost;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.response.PresignedUrlResponseDTO;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.upload.PresignedUploadNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.upload.UploadTooLargeException;
+import ru.example.cloudfiles.exception.validation.DirectoryPresignException;
+import ru.example.cloudfiles.mapper.ResourceMapper;
+import ru.example.cloudfiles.repository.PresignedUploadRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresignService {
+
+    private final S3Repository s3Repo;
+    private final UploadService uploadService;
+    private final PathManager paths;
+    private final MinioProperties props;
+    private final ResourceMapper resourceMapper;
+    private final ResourceIndexService indexService;
+    private final DirectoryListingCache listingCache;
+    private final PresignedUploadRepository presignedUploads;
+    private final MultipartProperties multipartProps;
+
+    public PresignedUrlResponseDTO presignDownload(long userId, String path) {
+
+        if (paths.isDirectory(path)) {
+            throw new DirectoryPresignException(path);
+        }
+
+        String objectName = paths.toTechnicalPath(userId, path);
+        s3Repo.headResource(props.getBucket(), objectName);
+
+        String contentDisposition = ContentDisposition.attachment()
+                .filename(Paths.get(path).getFileName().toString(), StandardCharsets.UTF_8)
+                .build()
+                .toString();
+        String url = s3Repo.getPresignedDownloadUrl(props.getBucket(), objectName, props.getPresignTtl(),
+                contentDisposition);
+
+        log.info("Download presigned - userId: {}, path: '{}', ttl: {}", userId, path, props.getPresignTtl());
+        return toDto(path, HttpMethod.GET, url, null);
+    }
+
+    public PresignedUrlResponseDTO presignUpload(long userId, String uploadPath, String filename) {
+
+        uploadService.validateTarget(userId, uploadPath, filename);
+
+        String path = uploadPath + filename;
+        long maxSize = multipartProps.getMaxFileSize().toBytes();
+        PresignedPost post = s3Repo.getPresignedUpload(props.getBucket(), paths.toTechnicalPath(userId, path),
+                props.getPresignTtl(), maxSize);
+        presignedUploads.save(userId, path, Instant.now().plus(props.getPresignTtl()),
+                props.getPresignTtl().plus(props.getPresignConfirmWindow()));
+
+        log.info("Upload presigned - userId: {}, path: '{}', ttl: {}, maxSize: {}",
+                userId, path, props.getPresignTtl(), maxSize);
+        return toDto(path, HttpMethod.POST, post.url(), post.formData());
+    }
+
+    public ResourceInfoResponseDTO confirmUpload(long userId, String path) {
+
+        Instant expiresAt = presignedUploads.findExpiry(userId, path)
+                .orElseThrow(() -> new PresignedUploadNotFoundException(path));
+
+        String objectName = paths.toTechnicalPath(userId, path);
+        ResourceMetadata uploaded = s3Repo.headResource(props.getBucket(), objectName);
+        long maxSize = multipartProps.getMaxFileSize().toBytes();
+        if (uploaded.size() > maxSize) {
+            s3Repo.deleteResource(props.getBucket(), objectName);
+            presignedUploads.delete(userId, path);
+            log.warn("Presigned upload rejected - userId: {}, path: '{}', size: {}, maxSize: {}",
+                    userId, path, uploaded.size(), maxSize);
+            throw new UploadTooLargeException(path, maxSize);
+        }
+
+        presignedUploads.delete(userId, path);
+        indexService.indexResources(userId, List.of(uploaded));
+        listingCache.invalidate(userId, List.of(uploaded.path()));
+
+        log.info("Presigned upload confirmed - userId: {}, path: '{}', size: {}, presignExpiry: {}",
+                userId, path, uploaded.size(), expiresAt);
+        return resourceMapper.toDto(userId, uploaded);
+    }
+
+    private PresignedUrlResponseDTO toDto(String path, HttpMethod method, String url, Map<String, String> formData) {
+
+        return PresignedUrlResponseDTO.builder()
+                .path(path)
+                .method(method.name())
+                .url(url)
+                .formData(formData)
+                .expiresInSeconds(props.getPresignTtl().toSeconds())
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.ResourceType;
+import ru.example.cloudfiles.entity.IndexedResource;
+import ru.example.cloudfiles.repository.ResourceIndexRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResourceIndexService {
+
+    private static final String ROOT_PATH = "";
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final ResourceIndexRepository indexRepo;
+    private final S3Repository s3Repo;
+    private final PathManager paths;
+    private final MinioProperties props;
+    private final TransactionTemplate transactionTemplate;
+
+    public Slice<IndexedResource> search(long userId, String query, int page, int size) {
+
+        ensureIndexed(userId);
+
+        log.debug("Searching index - userId: {}, query: '{}', page: {}, size: {}", userId, query, page, size);
+        return indexRepo.searchByName(userId, "%" + escapeLike(query.toLowerCase()) + "%",
+                PageRequest.of(page, size));
+    }
+
+    public Stream<IndexedResource> streamSearch(long userId, String query) {
+
+        ensureIndexed(userId);
+
+        log.debug("Streaming index search - userId: {}, query: '{}'", userId, query);
+        String pattern = "%" + escapeLike(query.toLowerCase()) + "%";
+        Pageable batch = PageRequest.of(0, STREAM_BATCH_SIZE);
+
+        return Stream.iterate(indexRepo.searchByNameAfter(userId, pattern, ROOT_PATH, batch),
+                        entries -> !entries.isEmpty(),
+                        entries -> entries.size() < STREAM_BATCH_SIZE
+                                ? List.of()
+                                : indexRepo.searchByNameAfter(userId, pattern, entries.getLast().getPath(), batch))
+                .flatMap(List::stream);
+    }
+
+    public void markIndexed(long userId) {
+
+        update(userId, () -> {
+            if (!indexRepo.existsByUserIdAndPath(userId, ROOT_PATH)) {
+                indexRepo.save(rootEntry(userId));
+            }
+        });
+    }
+
+    public void indexResources(long userId, Collection<ResourceMetadata> resources) {
+
+        log.debug("Indexing resources - userId: {}, count: {}", userId, resources.size());
+        update(userId, () -> resources.forEach(resource -> {
+            IndexedResource entry = indexRepo.findByUserIdAndPath(userId, paths.toUserPath(userId, resource.path()))
+                    .orElseGet(IndexedResource::new);
+            indexRepo.save(fillEntry(entry, userId, resource));
+        }));
+    }
+
+    public void removeResource(long userId, String path) {
+
+        log.debug("Removing from index - userId: {}, path: '{}'", userId, path);
+        String pattern = paths.isDirectory(path) ? escapeLike(path) + "%" : escapeLike(path);
+        update(userId, () -> indexRepo.deleteByPathPattern(userId, pattern));
+    }
+
+    public void moveFile(long userId, String oldPath, String newPath) {
+
+        log.debug("Moving file in index - userId: {}, from: '{}', to: '{}'", userId, oldPath, newPath);
+        update(userId, () -> indexRepo.findByUserIdAndPath(userId, oldPath).ifPresent(entry -> {
+            entry.setPath(newPath);
+            entry.setName(nameOf(newPath));
+            indexRepo.save(entry);
+        }));
+    }
+
+    public void moveDirectory(long userId, String oldPrefix, String newPrefix) {
+
+        log.debug("Moving directory in index - userId: {}, from: '{}', to: '{}'", userId, oldPrefix, newPrefix);
+        update(userId, () -> {
+            indexRepo.movePathPattern(userId, escapeLike(oldPrefix) + "%", oldPrefix.length(), newPrefix);
+            indexRepo.findByUserIdAndPath(userId, newPrefix).ifPresent(entry -> {
+                entry.setName(nameOf(newPrefix));
+                indexRepo.save(entry);
+            });
+        });
+    }
+
+    private void ensureIndexed(long userId) {
+
+        if (indexRepo.existsByUserIdAndPath(userId, ROOT_PATH)) {
+            return;
+        }
+
+        String userDir = paths.getUserDirectory(userId);
+        log.info("Building resource index - userId: {}", userId);
+
+        List<IndexedResource> entries = s3Repo.findAllByPrefix(props.getBucket(), userDir, true).stream()
+                .filter(resource -> !resource.path().equals(userDir))
+                .map(resource -> fillEntry(new IndexedResource(), userId, resource))
+                .toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                indexRepo.deleteAllByUserId(userId);
+                indexRepo.saveAll(entries);
+                indexRepo.save(rootEntry(userId));
+            });
+            log.info("Resource index built - userId: {}, entries: {}", userId, entries.size());
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Resource index is being built concurrently - userId: {}", userId);
+        }
+    }
+
+    private void update(long userId, Runnable change) {
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> change.run());
+        } catch (DataAccessException e) {
+            log.error("Failed to update resource index, it will be rebuilt on next search - userId: {}", userId, e);
+            invalidate(userId);
+        }
+    }
+
+    private void invalidate(long userId) {
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> indexRepo.deleteByPathPattern(userId, ROOT_PATH));
+        } catch (DataAccessException e) {
+            log.error("Failed to invalidate resource index - userId: {}", userId, e);
+        }
+    }
+
+    private IndexedResource fillEntry(IndexedResource entry, long userId, ResourceMetadata resource) {
+
+        String userPath = paths.toUserPath(userId, resource.path());
+        entry.setUserId(userId);
+        entry.setPath(userPath);
+        entry.setName(nameOf(userPath));
+        entry.setSize(resource.size());
+        entry.setType(paths.isDirectory(userPath) ? ResourceType.DIRECTORY : ResourceType.FILE);
+        entry.setLastModified(resource.lastModified() == null ? null : resource.lastModified().toInstant());
+        return entry;
+    }
+
+    private IndexedResource rootEntry(long userId) {
+
+        IndexedResource entry = new IndexedResource();
+        entry.setUserId(userId);
+        entry.setPath(ROOT_PATH);
+        entry.setName(ROOT_PATH);
+        entry.setType(ResourceType.DIRECTORY);
+        return entry;
+    }
+
+    private String nameOf(String userPath) {
+
+        String trimmed = userPath.endsWith("/") ? userPath.substring(0, userPath.length() - 1) : userPath;
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+    }
+
+    private String escapeLike(String value) {
+
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -3,55 +3,48 @@ package ru.example.cloudfiles.service.impl.composition;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import ru.example.cloudfiles.config.properties.MinioProperties;
-import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.SearchPage;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.entity.IndexedResource;
 import ru.example.cloudfiles.exception.validation.InvalidSearchQueryException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
-import ru.example.cloudfiles.repository.S3Repository;
-import ru.example.cloudfiles.service.impl.PathManager;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SearchService {
 
-    private final S3Repository s3Repo;
-    private final PathManager paths;
-    private final MinioProperties props;
+    private final ResourceIndexService indexService;
     private final ResourceMapper resourceMapper;
 
-    public List<ResourceInfoResponseDTO> search(long userId, String query) {
+    public SearchPage search(long userId, String query, int page, int size) {
 
-        log.info("Search started - userId: {}, query: '{}'", userId, query);
+        log.info("Search started - userId: {}, query: '{}', page: {}, size: {}", userId, query, page, size);
 
         String searchQuery = validateAndNormalizeQuery(query);
 
-        List<String> allNames = findAllNames(userId, "", true);
-
-        List<ResourceInfoResponseDTO> results = allNames.stream()
-                .map(name -> paths.toUserPath(userId, name))
-                .filter(userPath -> userPath.toLowerCase().contains(searchQuery))
-                .map(userPath -> getResourceInternal(userId, userPath))
-                .map(resource -> resourceMapper.toDto(userId, resource))
+        Slice<IndexedResource> matches = indexService.search(userId, searchQuery, page, size);
+        List<ResourceInfoResponseDTO> results = matches.stream()
+                .map(entry -> resourceMapper.toDto(userId, entry))
                 .toList();
 
-        log.info("Search completed - userId: {}, results: {}", userId, results.size());
-        return results;
+        log.info("Search completed - userId: {}, results: {}, hasNext: {}", userId, results.size(), matches.hasNext());
+        return new SearchPage(results, matches.hasNext() ? page + 1 : null);
     }
 
-    private Resource getResourceInternal(long userId, String path) {
+    public Stream<ResourceInfoResponseDTO> streamSearch(long userId, String query) {
 
-        return s3Repo.getResourceByPath(props.getBucket(), paths.toTechnicalPath(userId, path));
-    }
+        log.info("Streaming search started - userId: {}, query: '{}'", userId, query);
 
-    private List<String> findAllNames(long userId, String prefix, boolean recursive) {
+        String searchQuery = validateAndNormalizeQuery(query);
 
-        return s3Repo.findAllNamesByPrefix(props.getBucket(),
-                paths.toTechnicalPath(userId, prefix), recursive);
+        return indexService.streamSearch(userId, searchQuery)
+                .map(entry -> resourceMapper.toDto(userId, entry));
     }
 
     private String validateAndNormalizeQuery(String query) {
@@ -62,4 +55,4 @@ public class SearchService {
         }
         return query.toLowerCase().trim();
     }
-}
\ No newline at end of file
+}
@@ -6,20 +6,32 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import ru.example.cloudfiles.config.properties.MinioProperties;
-import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryNotExistException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceUploadException;
+import ru.example.cloudfiles.exception.storageOperation.upload.PartialUploadException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
 import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.ParallelTaskRunner;
 import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.UserConcurrencyLimiter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 
@@ -28,57 +40,143 @@ import java.util.stream.IntStream;
 @Slf4j
 public class UploadService {
 
+    private static final String UPLOAD_PERMITS = "upload";
+    private static final String LOOKUP_PERMITS = "lookup";
+
     private final S3Repository s3Repo;
     private final PathManager paths;
     private final MinioProperties props;
     private final ResourceMapper resourceMapper;
+    private final ResourceIndexService indexService;
+    private final DirectoryListingCache listingCache;
+    private final ParallelTaskRunner taskRunner;
+    private final UserConcurrencyLimiter userLimiter;
 
     public List<ResourceInfoResponseDTO> upload(long userId, String uploadPath, MultipartFile[] files) {
 
         log.info("Upload started - userId: {}, path: '{}', files: {}", userId, uploadPath, files.length);
 
-        validateUpload(userId, uploadPath, files);
-        createDirs(userId, uploadPath, files);
+        List<String> filenames = Arrays.stream(files)
+                .map(MultipartFile::getOriginalFilename)
+                .toList();
+        boolean missingDirs = validateUpload(userId, uploadPath, filenames);
+
+        List<UploadOutcome> outcomes = taskRunner.mapAll(Arrays.asList(files), props.getUploadConcurrency(),
+                file -> userLimiter.call(userId, UPLOAD_PERMITS, props.getUserUploadConcurrency(),
+                        () -> tryUploadFile(userId, uploadPath, file)));
+
+        List<ResourceMetadata> uploaded = outcomes.stream()
+                .map(UploadOutcome::metadata)
+                .filter(Objects::nonNull)
+                .toList();
+        if (!uploaded.isEmpty()) {
+            List<String> uploadedPaths = uploaded.stream().map(ResourceMetadata::path).toList();
+            if (missingDirs) {
+                createParentDirs(userId, uploadedPaths);
+            }
+            indexService.indexResources(userId, uploaded);
+            listingCache.invalidate(userId, uploadedPaths);
+        }
+
+        List<ResourceInfoResponseDTO> results = uploaded.stream()
+                .map(metadata -> resourceMapper.toDto(userId, metadata))
+                .toList();
 
-        List<ResourceInfoResponseDTO> results = Arrays.stream(files)
-                .map(file -> uploadFile(userId, uploadPath, file))
-                .map(resource -> resourceMapper.toDto(userId, resource))
+        List<UploadOutcome> failures = outcomes.stream()
+                .filter(outcome -> outcome.error() != null)
                 .toList();
+        if (!failures.isEmpty()) {
+            if (uploaded.isEmpty()) {
+                throw failures.getFirst().error();
+            }
+            Map<String, String> failed = failures.stream()
+                    .collect(Collectors.toMap(UploadOutcome::filename, outcome -> outcome.error().getMessage(),
+                            (first, second) -> first, LinkedHashMap::new));
+            log.warn("Upload partially failed - userId: {}, uploaded: {}, failed: {}",
+                    userId, results.size(), failed.size());
+            throw new PartialUploadException(results, failed);
+        }
 
         log.info("Upload completed - userId: {}, uploaded: {}", userId, results.size());
         return results;
     }
 
-    private void validateUpload(long userId, String uploadPath, MultipartFile[] files) {
+    public ResourceInfoResponseDTO uploadStream(long userId, String uploadPath, String filename,
+                                                InputStream dataStream, long size) {
 
-        if (!uploadPath.isBlank() && (!paths.isDirectory(uploadPath) || !resourceExists(userId, uploadPath))) {
-            log.warn("Upload directory not found - userId: {}, path: '{}'", userId, uploadPath);
-            throw new DirectoryNotExistException(uploadPath);
+        log.info("Streaming upload started - userId: {}, path: '{}', file: '{}'", userId, uploadPath, filename);
+
+        boolean missingDirs = validateUpload(userId, uploadPath, List.of(filename));
+
+        ResourceMetadata uploaded = saveFile(userId, uploadPath, filename, dataStream, size >= 0 ? size : -1);
+        if (missingDirs) {
+            createParentDirs(userId, List.of(uploaded.path()));
         }
+        indexService.indexResources(userId, List.of(uploaded));
+        listingCache.invalidate(userId, List.of(uploaded.path()));
 
-        Arrays.stream(files)
-                .filter(file -> StringUtils.isNotBlank(file.getOriginalFilename()))
-                .filter(file -> resourceExists(userId, uploadPath + file.getOriginalFilename()))
-                .findFirst()
-                .ifPresent(file -> {
-                    log.warn("Resource already exists - userId: {}, file: '{}'", userId, file.getOriginalFilename());
-                    throw new ResourceAlreadyExistsException(file.getOriginalFilename());
-                });
+        log.info("Streaming upload completed - userId: {}, file: '{}', size: {}", userId, filename, uploaded.size());
+        return resourceMapper.toDto(userId, uploaded);
+    }
+
+    public void validateTarget(long userId, String uploadPath, String filename) {
+
+        validateUpload(userId, uploadPath, List.of(filename));
     }
 
-    private void createDirs(long userId, String uploadPath, MultipartFile[] files) {
+    public void createParentDirs(long userId, Collection<String> technicalPaths) {
 
-        long createdDirs = Arrays.stream(files)
-                .filter(file -> StringUtils.isNotBlank(file.getOriginalFilename()))
-                .flatMap(file -> extractDirs(uploadPath + file.getOriginalFilename()).stream())
-                .filter(dir -> !resourceExists(userId, dir))
-                .count();
+        String userDir = paths.getUserDirectory(userId);
+        Set<String> parents = technicalPaths.stream()
+                .map(path -> path.substring(0, path.lastIndexOf('/', path.length() - 2) + 1))
+                .filter(parent -> !parent.isEmpty() && !parent.equals(userDir))
+                .collect(Collectors.toCollection(TreeSet::new));
+        parents.removeIf(parent -> parents.stream()
+                .anyMatch(other -> other.length() > parent.length() && other.startsWith(parent)));
 
-        if (createdDirs > 0) {
-            log.debug("Created {} directories for upload", createdDirs);
+        List<String> created = parents.stream()
+                .flatMap(parent -> s3Repo.createDirectory(props.getBucket(), parent).stream())
+                .toList();
+        if (!created.isEmpty()) {
+            indexService.indexResources(userId, created.stream()
+                    .map(dir -> new ResourceMetadata(dir, 0, null, null))
+                    .toList());
+            listingCache.invalidate(userId, created);
+            log.debug("Created {} directories for upload - userId: {}", created.size(), userId);
         }
     }
 
+    private boolean validateUpload(long userId, String uploadPath, List<String> filenames) {
+
+        List<String> candidates = filenames.stream()
+                .filter(StringUtils::isNotBlank)
+                .toList();
+        Set<String> dirs = new LinkedHashSet<>();
+        candidates.forEach(filename -> dirs.addAll(extractDirs(uploadPath + filename)));
+
+        Set<String> lookups = new LinkedHashSet<>(dirs);
+        candidates.forEach(filename -> lookups.add(uploadPath + filename));
+        if (!uploadPath.isBlank()) {
+            lookups.add(uploadPath);
+        }
+        Set<String> existing = findExisting(userId, lookups);
+
+        if (!uploadPath.isBlank() && (!paths.isDirectory(uploadPath) || !existing.contains(uploadPath))) {
+            log.warn("Upload directory not found - userId: {}, path: '{}'", userId, uploadPath);
+            throw new DirectoryNotExistException(uploadPath);
+        }
+
+        candidates.stream()
+                .filter(filename -> existing.contains(uploadPath + filename))
+                .findFirst()
+                .ifPresent(filename -> {
+                    log.warn("Resource already exists - userId: {}, file: '{}'", userId, filename);
+                    throw new ResourceAlreadyExistsException(filename);
+                });
+
+        return !existing.containsAll(dirs);
+    }
+
     private Set<String> extractDirs(String fullPath) {
 
         Set<String> dirs = new HashSet<>();
@@ -95,24 +193,54 @@ public class UploadService {
         return dirs;
     }
 
-    private Resource uploadFile(long userId, String uploadPath, MultipartFile file) {
+    private UploadOutcome tryUploadFile(long userId, String uploadPath, MultipartFile file) {
+
+        try {
+            return new UploadOutcome(file.getOriginalFilename(), uploadFile(userId, uploadPath, file), null);
+        } catch (RuntimeException e) {
+            return new UploadOutcome(file.getOriginalFilename(), null, e);
+        }
+    }
+
+    private ResourceMetadata uploadFile(long userId, String uploadPath, MultipartFile file) {
 
         String filename = Objects.requireNonNull(file.getOriginalFilename(), "Filename is null");
-        String techPath = paths.toTechnicalPath(userId, uploadPath + filename);
 
-        try (var savedResource = file.getInputStream()) {
-            s3Repo.saveResource(props.getBucket(), techPath, savedResource);
-            log.debug("File uploaded successfully - userId: {}, file: '{}'", userId, filename);
+        try {
+            return saveFile(userId, uploadPath, filename, file.getInputStream(), file.getSize());
+        } catch (IOException e) {
+            log.error("File upload failed - userId: {}, file: '{}'", userId, filename, e);
+            throw new ResourceUploadException(filename, e);
+        }
+    }
 
-            return s3Repo.getResourceByPath(props.getBucket(), techPath);
+    private ResourceMetadata saveFile(long userId, String uploadPath, String filename, InputStream dataStream,
+                                      long size) {
+
+        String techPath = paths.toTechnicalPath(userId, uploadPath + filename);
+
+        try (var savedResource = dataStream) {
+            ResourceMetadata saved = s3Repo.saveResource(props.getBucket(), techPath, savedResource, size);
+            log.debug("File uploaded successfully - userId: {}, file: '{}', size: {}", userId, filename, saved.size());
+            return saved;
         } catch (Exception e) {
             log.error("File upload failed - userId: {}, file: '{}'", userId, filename, e);
             throw new ResourceUploadException(filename, e);
         }
     }
 
-    private boolean resourceExists(long userId, String path) {
+    private Set<String> findExisting(long userId, Collection<String> userPaths) {
+
+        log.trace("Checking existence - userId: {}, paths: {}", userId, userPaths.size());
+        Map<String, String> byTechPath = userPaths.stream()
+                .collect(Collectors.toMap(path -> paths.toTechnicalPath(userId, path), Function.identity()));
+        Set<String> existing = userLimiter.call(userId, LOOKUP_PERMITS, props.getUserLookupConcurrency(),
+                () -> s3Repo.findExisting(props.getBucket(), byTechPath.keySet()));
+        return existing.stream()
+                .map(byTechPath::get)
+                .collect(Collectors.toSet());
+    }
 
-        return s3Repo.isObjectExists(props.getBucket(), paths.toTechnicalPath(userId, path));
+    private record UploadOutcome(String filename, ResourceMetadata metadata, RuntimeException error) {
     }
-}
\ No newline at end of file
+}
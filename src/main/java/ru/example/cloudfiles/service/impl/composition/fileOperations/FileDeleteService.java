@@ -4,9 +4,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryDeletionException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.repository.S3Repository;
 import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.composition.DirectoryListingCache;
+import ru.example.cloudfiles.service.impl.composition.ResourceIndexService;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +23,8 @@ public class FileDeleteService {
     private final FileQueryService fileQueryService;
     private final PathManager paths;
     private final MinioProperties props;
+    private final ResourceIndexService indexService;
+    private final DirectoryListingCache listingCache;
 
     public void deleteResource(long userId, String path) {
 
@@ -27,7 +35,14 @@ public class FileDeleteService {
             throw new ResourceNotFoundException(path);
         }
 
-        s3Repo.deleteResource(props.getBucket(), paths.toTechnicalPath(userId, path));
-        log.info("Delete completed - userId: {}, path: '{}'", userId, path);
+        String techPath = paths.toTechnicalPath(userId, path);
+        DeletionReport report = s3Repo.deleteResource(props.getBucket(), techPath);
+        listingCache.invalidate(userId, List.of(techPath));
+        if (!report.isComplete()) {
+            log.error("Delete incomplete - userId: {}, path: '{}', failed: {}", userId, path, report.failed());
+            throw new DirectoryDeletionException(path, report.failed().size());
+        }
+        indexService.removeResource(userId, path);
+        log.info("Delete completed - userId: {}, path: '{}', objects: {}", userId, path, report.deleted());
     }
 }
\ No newline at end of file
@@ -3,19 +3,31 @@ package ru.example.cloudfiles.service.impl.composition.fileOperations;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.example.cloudfiles.config.properties.MinioProperties;
 import ru.example.cloudfiles.dto.DownloadResult;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.exception.storageOperation.directory.ZipCreationException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceRetrievalException;
 import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.OperationObserver;
 import ru.example.cloudfiles.service.impl.PathManager;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -24,32 +36,197 @@ import java.util.zip.ZipOutputStream;
 @Slf4j
 public class FileDownloadService {
 
+    private static final int MAX_RANGES = 16;
+
     private final S3Repository s3Repo;
     private final FileQueryService fileQueryService;
     private final PathManager paths;
     private final MinioProperties props;
+    private final ZipEntryPrefetcher zipPrefetcher;
+    private final ZipCompressionPolicy compressionPolicy;
+    private final OperationObserver observer;
 
-    public DownloadResult prepareDownload(long userId, String path) {
+    public DownloadResult prepareDownload(long userId, String path, Integer compressionLevel,
+                                          HttpHeaders requestHeaders) {
 
         log.info("Download prepared - userId: {}, path: '{}'", userId, path);
 
-        return new DownloadResult(download(userId, path), ContentDisposition.attachment()
+        String contentDisposition = ContentDisposition.attachment()
                 .filename(extractFileName(path), StandardCharsets.UTF_8)
                 .build()
-                .toString()
-        );
+                .toString();
+
+        var resources = fileQueryService.findAll(userId, path);
+        observer.tag("objects", resources.size());
+
+        if (resources.size() == 1) {
+            DownloadResult result = prepareSingleFile(resources.getFirst().path(), contentDisposition, requestHeaders);
+            return new DownloadResult(observer.observeBody("resource.download.write", userId, path,
+                    result.streamingBody()), result.contentDisposition(), result.status(), result.headers());
+        }
+        log.debug("ZIP download - userId: {}, files: {}", userId, resources.size());
+        return new DownloadResult(observer.observeBody("resource.download.zip", userId, path, outputStream ->
+                writeZip(userId, resources, compressionLevel, outputStream, () -> { })), contentDisposition);
     }
 
     public StreamingResponseBody download(long userId, String path) {
 
-        var resourceNames = fileQueryService.findAllNames(userId, path);
+        var resources = fileQueryService.findAll(userId, path);
 
-        if (resourceNames.size() == 1) {
-            log.debug("Single file download - userId: {}, file: '{}'", userId, resourceNames.getFirst());
-            return createSingleFileResponse(resourceNames.getFirst());
+        if (resources.size() == 1) {
+            log.debug("Single file download - userId: {}, file: '{}'", userId, resources.getFirst().path());
+            return createSingleFileResponse(resources.getFirst().path());
         } else {
-            log.debug("ZIP download - userId: {}, files: {}", userId, resourceNames.size());
-            return createZipResponse(userId, resourceNames);
+            log.debug("ZIP download - userId: {}, files: {}", userId, resources.size());
+            return outputStream -> writeZip(userId, resources, null, outputStream, () -> { });
+        }
+    }
+
+    public void writeZip(long userId, List<ResourceMetadata> resources, Integer compressionLevel,
+                         OutputStream outputStream, Runnable onEntryWritten) throws IOException {
+
+        int level = compressionLevel != null ? compressionLevel : props.getZipCompressionLevel();
+
+        try (var zipOutputStream = new ZipOutputStream(outputStream)) {
+            zipPrefetcher.forEach(resources, entry -> {
+                addToZip(userId, entry, level, zipOutputStream);
+                onEntryWritten.run();
+            });
+            log.debug("ZIP archive created successfully - files: {}, level: {}", resources.size(), level);
+        } catch (Exception e) {
+            log.error("ZIP creation failed - userId: {}, files: {}", userId, resources.size(), e);
+            throw e;
+        }
+    }
+
+    private DownloadResult prepareSingleFile(String resourceName, String contentDisposition,
+                                             HttpHeaders requestHeaders) {
+
+        ResourceMetadata metadata = s3Repo.headResource(props.getBucket(), resourceName);
+        String etag = "\"" + metadata.etag() + "\"";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (metadata.lastModified() != null) {
+            headers.setLastModified(metadata.lastModified());
+        }
+
+        if (isNotModified(requestHeaders, etag, metadata)) {
+            log.debug("Single file not modified - file: '{}'", resourceName);
+            return new DownloadResult(null, contentDisposition, HttpStatus.NOT_MODIFIED, headers);
+        }
+
+        List<ByteRange> ranges = requestedRanges(requestHeaders, etag, metadata.size());
+
+        if (ranges == null) {
+            log.debug("Single file download - file: '{}', size: {}", resourceName, metadata.size());
+            headers.setContentLength(metadata.size());
+            return new DownloadResult(createSingleFileResponse(resourceName), contentDisposition,
+                    HttpStatus.OK, headers);
+        }
+        if (ranges.isEmpty()) {
+            log.debug("Unsatisfiable range request - file: '{}', size: {}", resourceName, metadata.size());
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size());
+            return new DownloadResult(null, contentDisposition, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, headers);
+        }
+
+        log.debug("Range download - file: '{}', ranges: {}", resourceName, ranges.size());
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.getFirst();
+            headers.set(HttpHeaders.CONTENT_RANGE, range.contentRange(metadata.size()));
+            headers.setContentLength(range.length());
+            return new DownloadResult(outputStream -> copyRange(resourceName, range, outputStream),
+                    contentDisposition, HttpStatus.PARTIAL_CONTENT, headers);
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        headers.setContentType(new MediaType("multipart", "byteranges", Map.of("boundary", boundary)));
+        return new DownloadResult(createMultipartRangeResponse(resourceName, ranges, boundary, metadata.size()),
+                contentDisposition, HttpStatus.PARTIAL_CONTENT, headers);
+    }
+
+    private boolean isNotModified(HttpHeaders requestHeaders, String etag, ResourceMetadata metadata) {
+
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            return ifNoneMatch.stream()
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+        }
+
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince >= 0 && metadata.lastModified() != null
+                && metadata.lastModified().toEpochSecond() * 1000 <= ifModifiedSince;
+    }
+
+    private List<ByteRange> requestedRanges(HttpHeaders requestHeaders, String etag, long size) {
+
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed Range header: {}", requestHeaders.getFirst(HttpHeaders.RANGE));
+            return null;
+        }
+        if (ranges.isEmpty() || ranges.size() > MAX_RANGES) {
+            return null;
+        }
+
+        return ranges.stream()
+                .filter(range -> isSatisfiable(range, size))
+                .map(range -> new ByteRange(range.getRangeStart(size), range.getRangeEnd(size)))
+                .toList();
+    }
+
+    private boolean isSatisfiable(HttpRange range, long size) {
+
+        try {
+            return range.getRangeStart(size) < size;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private StreamingResponseBody createMultipartRangeResponse(String resourceName, List<ByteRange> ranges,
+                                                               String boundary, long size) {
+
+        return outputStream -> {
+            for (ByteRange range : ranges) {
+                outputStream.write(("\r\n--" + boundary + "\r\n"
+                        + HttpHeaders.CONTENT_TYPE + ": " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n"
+                        + HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(size) + "\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                copyRange(resourceName, range, outputStream);
+            }
+            outputStream.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+            log.debug("Multipart range download completed - file: '{}', ranges: {}", resourceName, ranges.size());
+        };
+    }
+
+    private void copyRange(String resourceName, ByteRange range, OutputStream outputStream) {
+
+        try (var is = s3Repo.getResourceRange(props.getBucket(), resourceName, range.start(), range.length())) {
+            is.transferTo(outputStream);
+        } catch (IOException e) {
+            log.error("Range download failed - file: '{}', range: {}-{}", resourceName, range.start(), range.end(), e);
+            throw new ResourceRetrievalException(resourceName, e);
+        }
+    }
+
+    private record ByteRange(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long size) {
+            return "bytes %d-%d/%d".formatted(start, end, size);
         }
     }
 
@@ -72,31 +249,28 @@ public class FileDownloadService {
         };
     }
 
-    private StreamingResponseBody createZipResponse(long userId, List<String> resourceNames) {
-
-        return outputStream -> {
-            try (var zipOutputStream = new ZipOutputStream(outputStream)) {
-                resourceNames.forEach(name -> addToZip(userId, name, zipOutputStream));
-                log.debug("ZIP archive created successfully - files: {}", resourceNames.size());
-            } catch (Exception e) {
-                log.error("ZIP creation failed - userId: {}, files: {}", userId, resourceNames.size(), e);
-                throw e;
-            }
-        };
-    }
+    private void addToZip(long userId, ZipEntryPrefetcher.PrefetchedEntry entry, int level,
+                          ZipOutputStream zipOutputStream) {
 
-    private void addToZip(long userId, String resourceName, ZipOutputStream zipOutputStream) {
+        String resourceName = entry.name();
+        ZipEntry zipEntry = new ZipEntry(paths.toUserPath(userId, resourceName));
+        boolean store = compressionPolicy.shouldStore(resourceName, level);
 
         try {
-            var resource = s3Repo.getResourceByPath(props.getBucket(), resourceName);
-            zipOutputStream.putNextEntry(new ZipEntry(paths.toUserPath(userId, resource.path())));
-            if (!paths.isDirectory(resource.path())) {
-                try (var dataStream = resource.dataStream()) {
-                    dataStream.transferTo(zipOutputStream);
-                }
+            if (store && entry.content() != null) {
+                CRC32 crc = new CRC32();
+                crc.update(entry.content());
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(entry.content().length);
+                zipEntry.setCompressedSize(entry.content().length);
+                zipEntry.setCrc(crc.getValue());
+            } else {
+                zipOutputStream.setLevel(store ? Deflater.NO_COMPRESSION : level);
             }
+            zipOutputStream.putNextEntry(zipEntry);
+            entry.data().transferTo(zipOutputStream);
             zipOutputStream.closeEntry();
-            log.trace("File added to ZIP - '{}'", resourceName);
+            log.trace("File added to ZIP - '{}', stored: {}", resourceName, store);
         } catch (IOException e) {
             log.error("Failed to add file to ZIP - '{}'", resourceName, e);
             throw new ZipCreationException(resourceName, e);
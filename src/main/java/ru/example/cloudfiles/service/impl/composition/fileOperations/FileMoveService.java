@@ -4,14 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryDeletionException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.ParallelTaskRunner;
 import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.composition.DirectoryListingCache;
+import ru.example.cloudfiles.service.impl.composition.ResourceIndexService;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +27,9 @@ public class FileMoveService {
     private final FileQueryService fileQueryService;
     private final PathManager paths;
     private final MinioProperties props;
+    private final ParallelTaskRunner taskRunner;
+    private final ResourceIndexService indexService;
+    private final DirectoryListingCache listingCache;
 
     public ResourceInfoResponseDTO moveResource(long userId, String oldPath, String newPath) {
 
@@ -30,48 +38,67 @@ public class FileMoveService {
         String oldTech = paths.toTechnicalPath(userId, oldPath);
         String newTech = paths.toTechnicalPath(userId, newPath);
 
-        if (paths.isDirectory(oldPath)) {
-            log.debug("Moving directory - userId: {}, items will be copied", userId);
-            moveDir(oldTech, newTech);
-        } else {
-            log.debug("Moving single file - userId: {}", userId);
-            moveFile(oldTech, newTech);
+        try {
+            if (paths.isDirectory(oldPath)) {
+                log.debug("Moving directory - userId: {}, items will be copied", userId);
+                moveDir(userId, oldTech, newTech);
+            } else {
+                log.debug("Moving single file - userId: {}", userId);
+                moveFile(oldTech, newTech);
+                indexService.moveFile(userId, oldPath, newPath);
+            }
+        } finally {
+            listingCache.invalidate(userId, List.of(oldTech, newTech));
         }
 
-        s3Repo.deleteResource(props.getBucket(), oldTech);
         log.info("Move completed - userId: {}, from: '{}', to: '{}'", userId, oldPath, newPath);
 
         return fileQueryService.getResource(userId, newPath);
     }
 
-    private void moveDir(String oldTech, String newTech) {
+    private void moveDir(long userId, String oldTech, String newTech) {
 
         String oldPrefix = oldTech.endsWith("/") ? oldTech : oldTech + "/";
         String newPrefix = newTech.endsWith("/") ? newTech : newTech + "/";
 
-        var sourcePaths = s3Repo.findAllNamesByPrefix(props.getBucket(), oldPrefix, true);
-        log.debug("Moving directory - files: {} from: '{}' to: '{}'", sourcePaths.size(), oldPrefix, newPrefix);
-
-        sourcePaths.forEach(oldName -> {
-            String newName = newPrefix + oldName.substring(oldPrefix.length());
-            var resource = s3Repo.getResourceByPath(props.getBucket(), oldName);
-            try (var is = resource.dataStream()) {
-                s3Repo.saveResource(props.getBucket(), newName, new ByteArrayInputStream(is.readAllBytes()));
-                log.trace("Directory item moved - from: '{}' to: '{}'", oldName, newName);
-            } catch (IOException e) {
-                log.error("Failed to move directory item - from: '{}' to: '{}'", oldName, newName, e);
-                throw new ResourceNotFoundException("Failed to read resource: " + oldName);
+        List<ResourceMetadata> sources = s3Repo.findAllByPrefix(props.getBucket(), oldPrefix, true);
+        log.debug("Moving directory - files: {} from: '{}' to: '{}'", sources.size(), oldPrefix, newPrefix);
+
+        try {
+            taskRunner.runAll(sources, props.getCopyConcurrency(), source -> {
+                String newName = newPrefix + source.path().substring(oldPrefix.length());
+                s3Repo.copyResource(props.getBucket(), source, newName);
+                log.trace("Directory item copied - from: '{}' to: '{}'", source.path(), newName);
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to copy directory, removing partial copy - to: '{}'", newPrefix, e);
+            try {
+                s3Repo.deleteResource(props.getBucket(), newPrefix);
+            } catch (RuntimeException cleanupFailure) {
+                e.addSuppressed(cleanupFailure);
             }
-        });
+            throw e;
+        }
 
-        sourcePaths.forEach(oldName -> s3Repo.deleteResource(props.getBucket(), oldName));
+        deleteSource(oldPrefix);
+        indexService.moveDirectory(userId, paths.toUserPath(userId, oldPrefix), paths.toUserPath(userId, newPrefix));
     }
 
     private void moveFile(String oldTech, String newTech) {
 
         log.trace("Moving file - from: '{}' to: '{}'", oldTech, newTech);
-        var resource = s3Repo.getResourceByPath(props.getBucket(), oldTech);
-        s3Repo.saveResource(props.getBucket(), newTech, resource.dataStream());
+        ResourceMetadata source = s3Repo.headResource(props.getBucket(), oldTech);
+        s3Repo.copyResource(props.getBucket(), source, newTech);
+        deleteSource(oldTech);
+    }
+
+    private void deleteSource(String path) {
+
+        DeletionReport report = s3Repo.deleteResource(props.getBucket(), path);
+        if (!report.isComplete()) {
+            log.error("Move source not fully deleted - path: '{}', failed: {}", path, report.failed());
+            throw new DirectoryDeletionException(path, report.failed().size());
+        }
     }
 
     private void validateMove(long userId, String oldPath, String newPath) {
@@ -2,6 +2,7 @@ package ru.example.cloudfiles.service.impl.composition.fileOperations;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import ru.example.cloudfiles.dto.DownloadResult;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
@@ -26,9 +27,10 @@ public class FileOperationsService {
         fileDeleteService.deleteResource(userId, path);
     }
 
-    public DownloadResult prepareDownload(long userId, String path) {
+    public DownloadResult prepareDownload(long userId, String path, Integer compressionLevel,
+                                          HttpHeaders requestHeaders) {
 
-        return fileDownloadService.prepareDownload(userId, path);
+        return fileDownloadService.prepareDownload(userId, path, compressionLevel, requestHeaders);
     }
 
     public ResourceInfoResponseDTO moveResource(long userId, String oldPath, String newPath) {
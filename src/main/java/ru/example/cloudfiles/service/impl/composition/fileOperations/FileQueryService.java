@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
@@ -25,10 +26,10 @@ public class FileQueryService {
     public ResourceInfoResponseDTO getResource(long userId, String path) {
 
         try {
-            var resource = s3Repo.getResourceByPath(props.getBucket(),
+            var metadata = s3Repo.headResource(props.getBucket(),
                     paths.toTechnicalPath(userId, path));
             log.trace("Resource found - userId: {}, path: '{}'", userId, path);
-            return resourceMapper.toDto(userId, resource);
+            return resourceMapper.toDto(userId, metadata);
         } catch (Exception e) {
             log.warn("Resource not found - userId: {}, path: '{}'", userId, path);
             throw new ResourceNotFoundException(path);
@@ -51,4 +52,13 @@ public class FileQueryService {
         log.debug("Found {} names for userId: {}, prefix: '{}'", names.size(), userId, prefix);
         return names;
     }
+
+    public List<ResourceMetadata> findAll(long userId, String prefix) {
+
+        List<ResourceMetadata> items = s3Repo.findAllByPrefix(props.getBucket(),
+                paths.toTechnicalPath(userId, prefix), true);
+
+        log.debug("Found {} resources for userId: {}, prefix: '{}'", items.size(), userId, prefix);
+        return items;
+    }
 }
\ No newline at end of file
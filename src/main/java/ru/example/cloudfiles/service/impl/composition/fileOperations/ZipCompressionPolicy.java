@@ -0,0 +1,44 @@
+package ru.example.cloudfiles.service.impl.composition.fileOperations;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+@Component
+public class ZipCompressionPolicy {
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst", "lz4", "jar", "apk",
+            "docx", "xlsx", "pptx", "odt", "ods", "odp", "epub", "pdf");
+
+    private static final Set<String> COMPRESSED_MEDIA_TYPES = Set.of("image", "video", "audio");
+
+    private static final Set<MediaType> UNCOMPRESSED_MEDIA_TYPES = Set.of(
+            MediaType.valueOf("image/svg+xml"), MediaType.valueOf("image/bmp"), MediaType.valueOf("image/tiff"),
+            MediaType.valueOf("audio/wav"), MediaType.valueOf("audio/x-wav"));
+
+    public boolean shouldStore(String resourceName, int level) {
+
+        return level == Deflater.NO_COMPRESSION || isCompressed(resourceName);
+    }
+
+    private boolean isCompressed(String resourceName) {
+
+        int dot = resourceName.lastIndexOf('.');
+        if (dot < 0 || dot < resourceName.lastIndexOf('/')) {
+            return false;
+        }
+        if (COMPRESSED_EXTENSIONS.contains(resourceName.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+
+        return MediaTypeFactory.getMediaType(resourceName)
+                .filter(mediaType -> COMPRESSED_MEDIA_TYPES.contains(mediaType.getType()))
+                .filter(mediaType -> !UNCOMPRESSED_MEDIA_TYPES.contains(mediaType))
+                .isPresent();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.example.cloudfiles.service.impl.composition.fileOperations;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.exception.storageOperation.directory.ZipCreationException;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ZipEntryPrefetcher {
+
+    private final S3Repository s3Repo;
+    private final PathManager paths;
+    private final MinioProperties props;
+    private final ZipPrefetchBuffer buffer;
+
+    public void forEach(List<ResourceMetadata> resources, Consumer<PrefetchedEntry> consumer) {
+
+        int window = props.getZipPrefetchCount();
+        Deque<Future<PrefetchedEntry>> pending = new ArrayDeque<>(window);
+        Iterator<ResourceMetadata> items = resources.iterator();
+
+        log.trace("Prefetching ZIP entries - files: {}, window: {}", resources.size(), window);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                submitNext(executor, items, pending, window);
+                while (!pending.isEmpty()) {
+                    try (PrefetchedEntry entry = await(pending.poll())) {
+                        submitNext(executor, items, pending, window);
+                        consumer.accept(entry);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            pending.stream()
+                    .filter(future -> future.state() == Future.State.SUCCESS)
+                    .forEach(future -> future.resultNow().close());
+        }
+    }
+
+    private void submitNext(ExecutorService executor, Iterator<ResourceMetadata> items,
+                            Deque<Future<PrefetchedEntry>> pending, int window) {
+
+        while (pending.size() < window && items.hasNext()) {
+            ResourceMetadata item = items.next();
+            pending.add(executor.submit(() -> fetch(item)));
+        }
+    }
+
+    private PrefetchedEntry fetch(ResourceMetadata item) {
+
+        String name = item.path();
+        if (paths.isDirectory(name)) {
+            return new PrefetchedEntry(name, new byte[0], InputStream.nullInputStream(), 0, buffer);
+        }
+
+        InputStream resourceStream = s3Repo.getResourceStream(props.getBucket(), name);
+
+        if (!buffer.tryReserve(item.size())) {
+            log.trace("Prefetch buffer exhausted, streaming entry - '{}', size: {}", name, item.size());
+            return new PrefetchedEntry(name, null, resourceStream, 0, buffer);
+        }
+
+        int reserved = (int) item.size();
+        try (var dataStream = resourceStream) {
+            byte[] content = dataStream.readAllBytes();
+            return new PrefetchedEntry(name, content, new ByteArrayInputStream(content), reserved, buffer);
+        } catch (IOException e) {
+            buffer.release(reserved);
+            log.error("Failed to prefetch ZIP entry - '{}'", name, e);
+            throw new ZipCreationException(name, e);
+        }
+    }
+
+    private PrefetchedEntry await(Future<PrefetchedEntry> future) {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("ZIP entry prefetch failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while prefetching ZIP entries", e);
+        }
+    }
+
+    record PrefetchedEntry(String name, byte[] content, InputStream data, int reserved, ZipPrefetchBuffer buffer)
+            implements AutoCloseable {
+
+        @Override
+        public void close() {
+
+            try {
+                data.close();
+            } catch (IOException e) {
+                log.warn("Failed to close ZIP entry stream - '{}'", name, e);
+            } finally {
+                buffer.release(reserved);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.example.cloudfiles.service.impl.composition.fileOperations;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+
+import java.util.concurrent.Semaphore;
+
+@Component
+public class ZipPrefetchBuffer {
+
+    private final Semaphore permits;
+    private final int capacity;
+
+    public ZipPrefetchBuffer(MinioProperties props, MeterRegistry meterRegistry) {
+        this.capacity = (int) Math.min(props.getZipPrefetchBuffer().toBytes(), Integer.MAX_VALUE);
+        this.permits = new Semaphore(capacity);
+        Gauge.builder("cloudfiles.zip.prefetch.buffer.used", this, ZipPrefetchBuffer::usedBytes)
+                .description("ZIP entry bytes buffered ahead of the writer across all downloads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean tryReserve(long bytes) {
+
+        return bytes <= capacity && permits.tryAcquire((int) bytes);
+    }
+
+    public void release(int bytes) {
+
+        permits.release(bytes);
+    }
+
+    long usedBytes() {
+
+        return capacity - permits.availablePermits();
+    }
+}
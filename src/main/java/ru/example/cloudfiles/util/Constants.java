@@ -13,6 +13,7 @@ public final class Constants {
     public static final String MESSAGE_FAILED_TO_CREATE_DIRECTORY = "Failed to create directory: %s";
     public static final String MESSAGE_DIRECTORY_DOES_NOT_EXIST = "Directory does not exist: %s";
     public static final String MESSAGE_RESOURCE_TO_DELETE_DIRECTORY = "Failed to delete directory: %s";
+    public static final String MESSAGE_DIRECTORY_PARTIALLY_DELETED = "Failed to delete %d objects of directory: %s";
     public static final String MESSAGE_RESOURCE_ALREADY_EXISTS = "Resource: \"%s\" already exists";
     public static final String MESSAGE_RESOURCE_NOT_FOUND = "Resource: \"%s\" not found";
     public static final String MESSAGE_FAILED_TO_SAVE_RESOURCE = "Failed to save resource: %s";
@@ -24,4 +25,12 @@ public final class Constants {
     public static final String MESSAGE_FAILED_TO_LIST_OBJECTS_WITH_PREFIX = "Failed to list objects with prefix: ";
     public static final String MESSAGE_FAILED_TO_ADD_FILE_TO_ZIP = "Failed to add file to zip: %s";
     public static final String MESSAGE_EMPTY_PATH = "Path is empty";
+    public static final String MESSAGE_INVALID_CURSOR = "Invalid listing cursor: %s";
+    public static final String MESSAGE_UPLOAD_PARTIALLY_FAILED = "Failed to upload %d of %d files";
+    public static final String MESSAGE_UPLOAD_SESSION_NOT_FOUND = "Upload session not found: %s";
+    public static final String MESSAGE_INVALID_UPLOAD_PART = "Invalid upload part: %s";
+    public static final String MESSAGE_ARCHIVE_JOB_NOT_FOUND = "Archive job not found: %s";
+    public static final String MESSAGE_DIRECTORY_CANNOT_BE_PRESIGNED = "\"%s\" is a directory, use archive jobs to download it";
+    public static final String MESSAGE_PRESIGNED_UPLOAD_NOT_FOUND = "Presigned upload not found: %s";
+    public static final String MESSAGE_UPLOAD_TOO_LARGE = "Resource: \"%s\" exceeds the maximum upload size of %d bytes";
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package ru.example.cloudfiles.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public final class ObjectKeys {
+
+    private ObjectKeys() {
+    }
+
+    public static final Comparator<String> UTF8_ORDER = Comparator.comparing(
+            name -> name.getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned);
+
+    public static String keyBefore(String key) {
+
+        int last = key.offsetByCodePoints(key.length(), -1);
+        int codePoint = key.codePointAt(last) - 1;
+        if (codePoint < 0) {
+            return key.substring(0, last);
+        }
+        if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            codePoint = Character.MIN_SURROGATE - 1;
+        }
+        return key.substring(0, last) + Character.toString(codePoint);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.example.cloudfiles.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class MinioHttpClientMetricsTest {
+
+    @Test
+    @DisplayName("Should publish pool and dispatcher gauges")
+    void bindTo() {
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(40);
+        dispatcher.setMaxRequestsPerHost(20);
+        OkHttpClient client = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new MinioHttpClientMetrics(client).bindTo(registry);
+
+        assertEquals(0, registry.get("minio.http.pool.connections").gauge().value());
+        assertEquals(0, registry.get("minio.http.pool.connections.active").gauge().value());
+        assertEquals(0, registry.get("minio.http.dispatcher.queued").gauge().value());
+        assertEquals(40, registry.get("minio.http.dispatcher.max.requests").gauge().value());
+        assertEquals(20, registry.get("minio.http.dispatcher.max.requests.per.host").gauge().value());
+    }
+}
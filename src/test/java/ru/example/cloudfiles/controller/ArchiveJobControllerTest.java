@@ -0,0 +1,76 @@
+package ru.example.cloudfiles.controller;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.example.cloudfiles.dto.ArchiveJobStatus;
+import ru.example.cloudfiles.dto.response.ArchiveJobResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.archive.ArchiveJobNotFoundException;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ArchiveJobControllerTest extends BaseWebMvcTest {
+
+    @Test
+    @SneakyThrows
+    @DisplayName("POST /api/archive-jobs accepts archive job")
+    void createJob_ok() {
+
+        long userId = 3L;
+        when(s3Service.createArchiveJob(userId, "photos/", 1))
+                .thenReturn(ArchiveJobResponseDTO.builder()
+                        .id("job-1")
+                        .path("photos/")
+                        .status(ArchiveJobStatus.RUNNING)
+                        .totalFiles(10)
+                        .build());
+
+        mockMvc.perform(post("/api/archive-jobs")
+                        .param("path", "photos/")
+                        .param("compressionLevel", "1")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/archive-jobs/{id} returns download link of completed job")
+    void getJob_ok() {
+
+        long userId = 3L;
+        when(s3Service.getArchiveJob(userId, "job-1"))
+                .thenReturn(ArchiveJobResponseDTO.builder()
+                        .id("job-1")
+                        .path("photos/")
+                        .status(ArchiveJobStatus.COMPLETED)
+                        .totalFiles(10)
+                        .processedFiles(10)
+                        .downloadUrl("http://minio/archives/x.zip")
+                        .expiresInSeconds(3600L)
+                        .build());
+
+        mockMvc.perform(get("/api/archive-jobs/job-1")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.downloadUrl").value("http://minio/archives/x.zip"));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/archive-jobs/{id} returns 404 for unknown job")
+    void getJob_notFound() {
+
+        long userId = 3L;
+        when(s3Service.getArchiveJob(userId, "missing")).thenThrow(new ArchiveJobNotFoundException("missing"));
+
+        mockMvc.perform(get("/api/archive-jobs/missing")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -4,18 +4,32 @@ import lombok.SneakyThrows;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.example.cloudfiles.dto.DirectoryPage;
 import ru.example.cloudfiles.dto.ResourceType;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class DirectoryControllerTest extends BaseWebMvcTest {
@@ -43,7 +57,8 @@ class DirectoryControllerTest extends BaseWebMvcTest {
                 .type(ResourceType.FILE)
                 .build();
 
-        when(s3Service.getDirectory(eq(userId), eq(path))).thenReturn(List.of(item1, item2));
+        when(s3Service.getDirectory(eq(userId), eq(path), isNull(), eq(DirectoryController.UNPAGED)))
+                .thenReturn(new DirectoryPage(List.of(item1, item2), null));
 
         mockMvc.perform(get("/api/directory")
                         .param("path", path)
@@ -127,7 +142,8 @@ class DirectoryControllerTest extends BaseWebMvcTest {
                 .type(ResourceType.FILE)
                 .build();
 
-        when(s3Service.getDirectory(eq(userId), eq(path))).thenReturn(List.of(item1, item2));
+        when(s3Service.getDirectory(eq(userId), eq(path), isNull(), eq(DirectoryController.UNPAGED)))
+                .thenReturn(new DirectoryPage(List.of(item1, item2), null));
 
         mockMvc.perform(get("/api/directory")
                         .param("path", path)
@@ -171,4 +187,78 @@ class DirectoryControllerTest extends BaseWebMvcTest {
                 .andExpect(jsonPath("$.name").value(created.name()))
                 .andExpect(jsonPath("$.type").value("DIRECTORY"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/directory with NDJSON accept header - should stream entries")
+    void getDirectory_ndjson() {
+
+        long userId = 42L;
+        String path = "docs/";
+        StreamingResponseBody body = outputStream ->
+                outputStream.write("{\"name\":\"a.txt\"}\n".getBytes(StandardCharsets.UTF_8));
+
+        when(s3Service.streamDirectory(userId, path)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/api/directory")
+                        .param("path", path)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .with(withCustomUser(userId, "john")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"name\":\"a.txt\"}\n"));
+        verify(s3Service, never()).getDirectory(anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/directory with cursor - should pass paging params and return next cursor header")
+    void getDirectory_withCursor() {
+
+        long userId = 42L;
+        String path = "docs/";
+        var item = ResourceInfoResponseDTO.builder()
+                .path("docs/")
+                .name("b.txt")
+                .size(1L)
+                .type(ResourceType.FILE)
+                .build();
+
+        when(s3Service.getDirectory(userId, path, "abc", 1))
+                .thenReturn(new DirectoryPage(List.of(item), "def"));
+
+        mockMvc.perform(get("/api/directory")
+                        .param("path", path)
+                        .param("cursor", "abc")
+                        .param("limit", "1")
+                        .with(withCustomUser(userId, "john"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(DirectoryController.NEXT_CURSOR_HEADER, "def"))
+                .andExpect(jsonPath("$[0].name").value("b.txt"));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/directory with cursor only - should use default page size")
+    void getDirectory_cursorWithoutLimit() {
+
+        long userId = 42L;
+        String path = "docs/";
+
+        when(s3Service.getDirectory(userId, path, "abc", DirectoryController.DEFAULT_PAGE_SIZE))
+                .thenReturn(new DirectoryPage(List.of(), null));
+
+        mockMvc.perform(get("/api/directory")
+                        .param("path", path)
+                        .param("cursor", "abc")
+                        .with(withCustomUser(userId, "john"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(DirectoryController.NEXT_CURSOR_HEADER));
+    }
+}
@@ -4,24 +4,34 @@ import lombok.SneakyThrows;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.example.cloudfiles.dto.DownloadResult;
 import ru.example.cloudfiles.dto.ResourceType;
+import ru.example.cloudfiles.dto.SearchPage;
+import ru.example.cloudfiles.dto.response.PresignedUrlResponseDTO;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.upload.PartialUploadException;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -80,7 +90,7 @@ class ResourceControllerTest extends BaseWebMvcTest {
         String username = "tom";
         String path = "/docs/a.pdf";
         StreamingResponseBody body = outputStream -> outputStream.write("bytes".getBytes(StandardCharsets.UTF_8));
-        when(s3Service.prepareDownload(userId, path)).thenReturn(new DownloadResult(body, "attachment; filename=a.pdf"));
+        when(s3Service.prepareDownload(eq(userId), eq(path), isNull(), any(HttpHeaders.class))).thenReturn(new DownloadResult(body, "attachment; filename=a.pdf"));
 
         mockMvc.perform(get("/api/resource/download")
                         .param("path", path)
@@ -89,6 +99,30 @@ class ResourceControllerTest extends BaseWebMvcTest {
                 .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=a.pdf"));
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/resource/download passes Range header and returns 206 with Content-Range")
+    void downloadResource_partialContent() {
+
+        long userId = 3L;
+        String username = "tom";
+        String path = "/docs/a.pdf";
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes 0-3/10");
+        StreamingResponseBody body = outputStream -> outputStream.write("byte".getBytes(StandardCharsets.UTF_8));
+        when(s3Service.prepareDownload(eq(userId), eq(path), isNull(),
+                argThat(headers -> "bytes=0-3".equals(headers.getFirst(HttpHeaders.RANGE)))))
+                .thenReturn(new DownloadResult(body, "attachment; filename=a.pdf",
+                        HttpStatus.PARTIAL_CONTENT, responseHeaders));
+
+        mockMvc.perform(get("/api/resource/download")
+                        .param("path", path)
+                        .header(HttpHeaders.RANGE, "bytes=0-3")
+                        .with(withCustomUser(userId, username)))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-3/10"));
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("GET /api/resource/move returns moved resource info")
@@ -131,15 +165,85 @@ class ResourceControllerTest extends BaseWebMvcTest {
                 .size(0L)
                 .type(ResourceType.DIRECTORY)
                 .build();
-        when(s3Service.searchResource(userId, query)).thenReturn(List.of(item));
+        when(s3Service.searchResource(userId, query, 0, DirectoryController.UNPAGED))
+                .thenReturn(new SearchPage(List.of(item), null));
 
         mockMvc.perform(get("/api/resource/search")
                         .param("query", query)
                         .with(withCustomUser(userId, username)))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ResourceController.NEXT_PAGE_HEADER))
                 .andExpect(jsonPath("$[0].name").value("a"));
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/resource/search passes paging parameters")
+    void search_withPaging() {
+
+        long userId = 2L;
+        String username = "paged";
+        String query = "report";
+        var item = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+        when(s3Service.searchResource(userId, query, 2, 20)).thenReturn(new SearchPage(List.of(item), null));
+
+        mockMvc.perform(get("/api/resource/search")
+                        .param("query", query)
+                        .param("page", "2")
+                        .param("size", "20")
+                        .with(withCustomUser(userId, username)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(item.name()));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/resource/search with page only uses default size")
+    void search_pageOnly_usesDefaultSize() {
+
+        long userId = 2L;
+        String query = "report";
+        when(s3Service.searchResource(userId, query, 1, ResourceController.DEFAULT_SEARCH_PAGE_SIZE))
+                .thenReturn(new SearchPage(List.of(), null));
+
+        mockMvc.perform(get("/api/resource/search")
+                        .param("query", query)
+                        .param("page", "1")
+                        .with(withCustomUser(userId, "paged")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/resource/search signals next page when the page is truncated")
+    void search_truncatedPage_returnsNextPageHeader() {
+
+        long userId = 2L;
+        String query = "report";
+        var first = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+        var second = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+        when(s3Service.searchResource(userId, query, 0, 2)).thenReturn(new SearchPage(List.of(first, second), 1));
+        when(s3Service.searchResource(userId, query, 1, 2)).thenReturn(new SearchPage(List.of(first, second), null));
+
+        mockMvc.perform(get("/api/resource/search")
+                        .param("query", query)
+                        .param("size", "2")
+                        .with(withCustomUser(userId, "paged")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ResourceController.NEXT_PAGE_HEADER, "1"))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(get("/api/resource/search")
+                        .param("query", query)
+                        .param("page", "1")
+                        .param("size", "2")
+                        .with(withCustomUser(userId, "paged")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ResourceController.NEXT_PAGE_HEADER))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("POST /api/resource upload returns created list")
@@ -167,6 +271,60 @@ class ResourceControllerTest extends BaseWebMvcTest {
                 .andExpect(jsonPath("$[0].name").value("a.txt"));
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("POST /api/resource upload returns multi-status report on partial failure")
+    void upload_partial() {
+
+        long userId = 8L;
+        MockMultipartFile file1 = new MockMultipartFile("object", "a.txt", MediaType.TEXT_PLAIN_VALUE, "hello".getBytes());
+        MockMultipartFile file2 = new MockMultipartFile("object", "b.txt", MediaType.TEXT_PLAIN_VALUE, "world".getBytes());
+        var item = ResourceInfoResponseDTO.builder()
+                .path("uploads/")
+                .name("a.txt")
+                .size(5L)
+                .type(ResourceType.FILE)
+                .build();
+        when(s3Service.uploadResource(eq(userId), eq("uploads/"), any()))
+                .thenThrow(new PartialUploadException(List.of(item), Map.of("b.txt", "Failed to upload resource: b.txt")));
+
+        mockMvc.perform(multipart("/api/resource")
+                        .file(file1)
+                        .file(file2)
+                        .param("path", "uploads/")
+                        .with(withCustomUser(userId, "neo"))
+                        .with(csrf()))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.uploaded[0].name").value("a.txt"))
+                .andExpect(jsonPath("$.failed['b.txt']").exists());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("PUT /api/resource/stream uploads raw body and returns created resource")
+    void uploadStream_ok() {
+
+        long userId = 8L;
+        String path = "uploads/";
+        var item = ResourceInfoResponseDTO.builder()
+                .path(path)
+                .name("a.bin")
+                .size(5L)
+                .type(ResourceType.FILE)
+                .build();
+        when(s3Service.uploadResourceStream(eq(userId), eq(path), eq("a.bin"), any(InputStream.class), eq(5L)))
+                .thenReturn(item);
+
+        mockMvc.perform(put("/api/resource/stream")
+                        .param("path", path)
+                        .param("filename", "a.bin")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("hello".getBytes(StandardCharsets.UTF_8))
+                        .with(withCustomUser(userId, "neo")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("a.bin"));
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("GET /api/resource with Podam data returns resource info")
@@ -196,7 +354,8 @@ class ResourceControllerTest extends BaseWebMvcTest {
         String query = "search";
         var item1 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
         var item2 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-        when(s3Service.searchResource(userId, query)).thenReturn(List.of(item1, item2));
+        when(s3Service.searchResource(userId, query, 0, DirectoryController.UNPAGED))
+                .thenReturn(new SearchPage(List.of(item1, item2), null));
 
         mockMvc.perform(get("/api/resource/search")
                         .param("query", query)
@@ -208,4 +367,58 @@ class ResourceControllerTest extends BaseWebMvcTest {
                 .andExpect(jsonPath("$[1].name").value(item2.name()));
     }
 
-}
\ No newline at end of file
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/resource/presigned-download returns presigned URL")
+    void presignDownload_ok() {
+
+        long userId = 3L;
+        when(s3Service.presignDownload(userId, "docs/a.pdf"))
+                .thenReturn(new PresignedUrlResponseDTO("docs/a.pdf", "GET", "http://minio/get", null, 300));
+
+        mockMvc.perform(get("/api/resource/presigned-download")
+                        .param("path", "docs/a.pdf")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("http://minio/get"))
+                .andExpect(jsonPath("$.expiresInSeconds").value(300));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("POST /api/resource/presigned-upload returns presigned POST form")
+    void presignUpload_ok() {
+
+        long userId = 3L;
+        when(s3Service.presignUpload(userId, "docs/", "big.iso"))
+                .thenReturn(new PresignedUrlResponseDTO("docs/big.iso", "POST", "http://minio/bucket",
+                        Map.of("key", "user-3-files/docs/big.iso"), 300));
+
+        mockMvc.perform(post("/api/resource/presigned-upload")
+                        .param("path", "docs/")
+                        .param("filename", "big.iso")
+                        .with(withCustomUser(userId, "tom"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.method").value("POST"))
+                .andExpect(jsonPath("$.url").value("http://minio/bucket"))
+                .andExpect(jsonPath("$.formData.key").value("user-3-files/docs/big.iso"));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("POST /api/resource/presigned-upload/confirm registers uploaded file")
+    void confirmPresignedUpload_ok() {
+
+        long userId = 3L;
+        when(s3Service.confirmPresignedUpload(userId, "docs/big.iso"))
+                .thenReturn(new ResourceInfoResponseDTO("docs/", "big.iso", 42L, ResourceType.FILE));
+
+        mockMvc.perform(post("/api/resource/presigned-upload/confirm")
+                        .param("path", "docs/big.iso")
+                        .with(withCustomUser(userId, "tom"))
+                        .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("big.iso"));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.example.cloudfiles.controller;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import ru.example.cloudfiles.dto.ResourceType;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadPartResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadSessionResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.upload.UploadSessionNotFoundException;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UploadSessionControllerTest extends BaseWebMvcTest {
+
+    @Test
+    @SneakyThrows
+    @DisplayName("POST /api/upload-sessions creates session")
+    void createSession_ok() {
+
+        long userId = 3L;
+        when(s3Service.createUploadSession(userId, "docs/", "big.iso"))
+                .thenReturn(new UploadSessionResponseDTO("s-1", "docs/big.iso", 86400));
+
+        mockMvc.perform(post("/api/upload-sessions")
+                        .param("path", "docs/")
+                        .param("filename", "big.iso")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("s-1"))
+                .andExpect(jsonPath("$.path").value("docs/big.iso"));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("PUT /api/upload-sessions/{id}/parts/{n} uploads part with its content length")
+    void uploadPart_ok() {
+
+        long userId = 3L;
+        byte[] chunk = new byte[]{1, 2, 3, 4};
+        when(s3Service.uploadPart(eq(userId), eq("s-1"), eq(2), any(InputStream.class), eq(4L)))
+                .thenReturn(new UploadPartResponseDTO(2, "etag-2", 4));
+
+        mockMvc.perform(put("/api/upload-sessions/s-1/parts/2")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(chunk)
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partNumber").value(2))
+                .andExpect(jsonPath("$.etag").value("etag-2"));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("GET /api/upload-sessions/{id}/parts lists received parts")
+    void getParts_ok() {
+
+        long userId = 3L;
+        when(s3Service.listUploadParts(userId, "s-1"))
+                .thenReturn(List.of(new UploadPartResponseDTO(1, "etag-1", 5242880)));
+
+        mockMvc.perform(get("/api/upload-sessions/s-1/parts")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].partNumber").value(1))
+                .andExpect(jsonPath("$[0].size").value(5242880));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("POST /api/upload-sessions/{id}/complete returns uploaded resource")
+    void complete_ok() {
+
+        long userId = 3L;
+        var info = ResourceInfoResponseDTO.builder()
+                .path("docs/")
+                .name("big.iso")
+                .size(10L)
+                .type(ResourceType.FILE)
+                .build();
+        when(s3Service.completeUpload(userId, "s-1")).thenReturn(info);
+
+        mockMvc.perform(post("/api/upload-sessions/s-1/complete")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("big.iso"));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("DELETE /api/upload-sessions/{id} returns 404 for unknown session")
+    void abort_notFound() {
+
+        long userId = 3L;
+        doThrow(new UploadSessionNotFoundException("s-9")).when(s3Service).abortUpload(userId, "s-9");
+
+        mockMvc.perform(delete("/api/upload-sessions/s-9")
+                        .with(withCustomUser(userId, "tom")))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.ResourceType;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.service.impl.PathManager;
@@ -17,6 +18,7 @@ import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 import java.io.InputStream;
+import java.time.ZonedDateTime;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -190,4 +192,48 @@ class ResourceMapperTest {
         softly.assertThat(result.size()).isEqualTo(0L);
         softly.assertThat(result.type()).isEqualTo(ResourceType.DIRECTORY);
     }
+
+    @Test
+    @DisplayName("Should map file ResourceMetadata to ResourceInfoResponseDTO")
+    void toDtoFileMetadata(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String techPath = "user-" + userId + "/documents/report.pdf";
+        String userPath = "documents/report.pdf";
+        ResourceMetadata metadata = new ResourceMetadata(techPath, 2048L, "etag", ZonedDateTime.now());
+
+        when(paths.isDirectory(techPath)).thenReturn(false);
+        when(paths.toUserPath(userId, techPath)).thenReturn(userPath);
+        when(paths.getUserDirectory(userId)).thenReturn("user-" + userId + "/");
+
+        ResourceInfoResponseDTO result = resourceMapper.toDto(userId, metadata);
+
+        softly.assertThat(result).isNotNull();
+        softly.assertThat(result.path()).isEqualTo("documents/");
+        softly.assertThat(result.name()).isEqualTo("report.pdf");
+        softly.assertThat(result.size()).isEqualTo(2048L);
+        softly.assertThat(result.type()).isEqualTo(ResourceType.FILE);
+    }
+
+    @Test
+    @DisplayName("Should map directory ResourceMetadata to ResourceInfoResponseDTO")
+    void toDtoDirectoryMetadata(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String techPath = "user-" + userId + "/projects/src/";
+        String userPath = "projects/src/";
+        ResourceMetadata metadata = new ResourceMetadata(techPath, 0L, null, null);
+
+        when(paths.isDirectory(techPath)).thenReturn(true);
+        when(paths.toUserPath(userId, techPath)).thenReturn(userPath);
+        when(paths.getUserDirectory(userId)).thenReturn("user-" + userId + "/");
+
+        ResourceInfoResponseDTO result = resourceMapper.toDto(userId, metadata);
+
+        softly.assertThat(result).isNotNull();
+        softly.assertThat(result.path()).isEqualTo("projects/");
+        softly.assertThat(result.name()).isEqualTo("src/");
+        softly.assertThat(result.size()).isEqualTo(0L);
+        softly.assertThat(result.type()).isEqualTo(ResourceType.DIRECTORY);
+    }
 }
\ No newline at end of file
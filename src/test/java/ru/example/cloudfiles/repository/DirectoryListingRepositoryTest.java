@@ -0,0 +1,82 @@
+package ru.example.cloudfiles.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryListingRepositoryTest {
+
+    private static final String PREFIX = "user-1-files/docs/";
+    private static final String KEY = "cloudfiles:listing:1:" + PREFIX;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOps;
+
+    @Mock
+    private SetOperations<String, String> setOps;
+
+    private DirectoryListingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOps);
+        repository = new DirectoryListingRepository(redisTemplate, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should store entries relative to prefix and read them back")
+    void saveAndFindRoundTrip() {
+
+        List<ResourceMetadata> items = List.of(
+                new ResourceMetadata(PREFIX + "report.pdf", 2048, "etag1",
+                        ZonedDateTime.of(2025, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC)),
+                new ResourceMetadata(PREFIX + "photos/", 0, null, null));
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+
+        repository.save(1L, PREFIX, items, Duration.ofMinutes(5));
+
+        verify(valueOps).set(eq(KEY), stored.capture(), eq(Duration.ofMinutes(5)));
+        verify(setOps).add("cloudfiles:listing-keys:1", PREFIX);
+        assertFalse(stored.getValue().contains(PREFIX));
+
+        when(valueOps.get(KEY)).thenReturn(stored.getValue());
+        assertEquals(Optional.of(items), repository.find(1L, PREFIX));
+    }
+
+    @Test
+    @DisplayName("Should treat corrupted listing as a miss")
+    void findCorrupted() {
+
+        when(valueOps.get(KEY)).thenReturn("{not-json");
+
+        assertTrue(repository.find(1L, PREFIX).isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package ru.example.cloudfiles.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import ru.example.cloudfiles.dto.ResourceType;
+import ru.example.cloudfiles.entity.IndexedResource;
+
+import java.util.List;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ExtendWith(SoftAssertionsExtension.class)
+@RequiredArgsConstructor
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ResourceIndexRepositoryTest extends AbstractPostgreSQLTestContainer {
+
+    private static final long USER_ID = 1L;
+
+    private final ResourceIndexRepository indexRepository;
+    private final TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Test searching names case-insensitively with paging")
+    void searchByName(SoftAssertions softly) {
+
+        save("Reports/", "Reports", ResourceType.DIRECTORY);
+        save("Reports/annual_report.pdf", "annual_report.pdf", ResourceType.FILE);
+        save("photos/summer.jpg", "summer.jpg", ResourceType.FILE);
+
+        Slice<IndexedResource> firstPage = indexRepository.searchByName(USER_ID, "%report%", PageRequest.of(0, 1));
+        Slice<IndexedResource> secondPage = indexRepository.searchByName(USER_ID, "%report%", PageRequest.of(1, 1));
+
+        softly.assertThat(firstPage.getContent()).extracting(IndexedResource::getPath).containsExactly("Reports/");
+        softly.assertThat(firstPage.hasNext()).isTrue();
+        softly.assertThat(secondPage.getContent()).extracting(IndexedResource::getPath)
+                .containsExactly("Reports/annual_report.pdf");
+        softly.assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test wildcard characters are matched literally when escaped")
+    void searchByNameEscaped(SoftAssertions softly) {
+
+        save("50_off.txt", "50_off.txt", ResourceType.FILE);
+        save("500ff.txt", "500ff.txt", ResourceType.FILE);
+
+        Slice<IndexedResource> found = indexRepository.searchByName(USER_ID, "%50\\_off%", PageRequest.of(0, 10));
+
+        softly.assertThat(found.getContent()).extracting(IndexedResource::getName).containsExactly("50_off.txt");
+    }
+
+    @Test
+    @DisplayName("Test moving directory subtree rewrites paths")
+    void movePathPattern(SoftAssertions softly) {
+
+        save("docs/", "docs", ResourceType.DIRECTORY);
+        save("docs/a.txt", "a.txt", ResourceType.FILE);
+        save("docs2/b.txt", "b.txt", ResourceType.FILE);
+
+        int moved = indexRepository.movePathPattern(USER_ID, "docs/%", "docs/".length(), "archive/docs/");
+        entityManager.clear();
+
+        softly.assertThat(moved).isEqualTo(2);
+        softly.assertThat(indexRepository.findByUserIdAndPath(USER_ID, "archive/docs/a.txt")).isPresent();
+        softly.assertThat(indexRepository.findByUserIdAndPath(USER_ID, "docs2/b.txt")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Test deleting directory subtree keeps siblings")
+    void deleteByPathPattern(SoftAssertions softly) {
+
+        save("docs/", "docs", ResourceType.DIRECTORY);
+        save("docs/a.txt", "a.txt", ResourceType.FILE);
+        save("docs2/b.txt", "b.txt", ResourceType.FILE);
+
+        int deleted = indexRepository.deleteByPathPattern(USER_ID, "docs/%");
+        entityManager.clear();
+
+        softly.assertThat(deleted).isEqualTo(2);
+        softly.assertThat(indexRepository.existsByUserIdAndPath(USER_ID, "docs2/b.txt")).isTrue();
+    }
+
+    private void save(String path, String name, ResourceType type) {
+
+        IndexedResource entry = new IndexedResource();
+        entry.setUserId(USER_ID);
+        entry.setPath(path);
+        entry.setName(name);
+        entry.setType(type);
+        entityManager.persist(entry);
+    }
+}
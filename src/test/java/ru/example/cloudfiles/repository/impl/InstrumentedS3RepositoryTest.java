@@ -0,0 +1,145 @@
+package ru.example.cloudfiles.repository.impl;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedS3RepositoryTest {
+
+    private static final String BUCKET = "bucket";
+
+    @Mock
+    private MinioRepository delegate;
+
+    private SimpleMeterRegistry registry;
+    private InstrumentedS3Repository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(registry));
+        repository = new InstrumentedS3Repository(delegate, registry, observationRegistry);
+    }
+
+    @Test
+    @DisplayName("Should time successful calls by operation and method")
+    void recordsSuccess() {
+
+        when(delegate.isObjectExists(BUCKET, "a")).thenReturn(true);
+
+        repository.isObjectExists(BUCKET, "a");
+
+        assertEquals(1, registry.get(InstrumentedS3Repository.OPERATION_TIMER)
+                .tags("operation", "stat", "method", "isObjectExists", "outcome", "success", "error.code", "none")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("Should tag failures with MinIO error code")
+    void recordsErrorCode() {
+
+        ErrorResponseException minioError = mock(ErrorResponseException.class);
+        ErrorResponse response = mock(ErrorResponse.class);
+        when(minioError.errorResponse()).thenReturn(response);
+        when(response.code()).thenReturn("NoSuchKey");
+        ResourceNotFoundException failure = new ResourceNotFoundException("a");
+        failure.initCause(minioError);
+        when(delegate.headResource(BUCKET, "a")).thenThrow(failure);
+
+        assertThrows(ResourceNotFoundException.class, () -> repository.headResource(BUCKET, "a"));
+
+        assertEquals(1, registry.get(InstrumentedS3Repository.OPERATION_TIMER)
+                .tags("method", "headResource", "outcome", "error", "error.code", "NoSuchKey")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("Should record listed object count")
+    void recordsListingSize() {
+
+        when(delegate.findAllNamesByPrefix(BUCKET, "dir/", true)).thenReturn(List.of("dir/", "dir/a", "dir/b"));
+
+        repository.findAllNamesByPrefix(BUCKET, "dir/", true);
+
+        assertEquals(3, registry.get(InstrumentedS3Repository.LISTING_SUMMARY)
+                .tag("method", "findAllNamesByPrefix")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should record streamed listing size on close")
+    void recordsStreamedListingSize() {
+
+        ResourceMetadata item = new ResourceMetadata("dir/a", 1, null, null);
+        when(delegate.streamByPrefix(BUCKET, "dir/", true)).thenReturn(Stream.of(item, item));
+
+        try (Stream<ResourceMetadata> stream = repository.streamByPrefix(BUCKET, "dir/", true)) {
+            assertEquals(2, stream.toList().size());
+        }
+
+        assertEquals(2, registry.get(InstrumentedS3Repository.LISTING_SUMMARY)
+                .tag("method", "streamByPrefix")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should count downloaded bytes when stream is closed")
+    void recordsDownloadedBytes() throws Exception {
+
+        byte[] content = "0123456789".getBytes();
+        when(delegate.getResourceByPath(BUCKET, "a"))
+                .thenReturn(new Resource("/a", new ByteArrayInputStream(content), content.length));
+
+        try (InputStream data = repository.getResourceByPath(BUCKET, "a").dataStream()) {
+            data.transferTo(OutputStream.nullOutputStream());
+        }
+
+        assertEquals(content.length, registry.get(InstrumentedS3Repository.TRANSFER_SUMMARY)
+                .tags("operation", "get", "method", "getResourceByPath")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should count uploaded bytes read by the delegate")
+    void recordsUploadedBytes() {
+
+        byte[] content = "01234".getBytes();
+        doAnswer(invocation -> {
+            invocation.getArgument(2, InputStream.class).readAllBytes();
+            return null;
+        }).when(delegate).saveResource(eq(BUCKET), eq("a"), any(), eq(-1L));
+
+        repository.saveResource(BUCKET, "a", new ByteArrayInputStream(content));
+
+        assertEquals(content.length, registry.get(InstrumentedS3Repository.TRANSFER_SUMMARY)
+                .tags("operation", "put", "method", "saveResource")
+                .summary().totalAmount());
+    }
+}
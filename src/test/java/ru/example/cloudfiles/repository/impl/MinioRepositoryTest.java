@@ -23,6 +23,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import ru.example.cloudfiles.dto.DeletionReport;
 import ru.example.cloudfiles.dto.Resource;
 import ru.example.cloudfiles.repository.AbstractMinioTestContainer;
 import uk.co.jemos.podam.api.PodamFactory;
@@ -101,8 +102,10 @@ class MinioRepositoryTest extends AbstractMinioTestContainer {
         createEmptyObject(file1);
         createEmptyObject(file2);
 
-        minioRepository.deleteResource(BUCKET, baseDir);
+        DeletionReport report = minioRepository.deleteResource(BUCKET, baseDir);
 
+        assertThat(report.deleted()).isEqualTo(2);
+        assertThat(report.isComplete()).isTrue();
         assertThatObjectDoesNotExist(file1);
         assertThatObjectDoesNotExist(file2);
     }
@@ -0,0 +1,198 @@
+package ru.example.cloudfiles.repository.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.unit.DataSize;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ObjectMetadataCacheTest {
+
+    private static final String BUCKET = "bucket";
+    private static final String PATH = "user-1-files/docs/report.pdf";
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private MinioProperties props;
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        props = new MinioProperties();
+        props.setMetadataCacheTtl(Duration.ofSeconds(30));
+        props.setMetadataCacheNegativeTtl(Duration.ofSeconds(2));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ObjectMetadataCache(props, redisProvider, meterRegistry, now::get);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated existence checks from cache")
+    void existsHit() {
+
+        assertTrue(cache.exists(BUCKET, PATH, this::load));
+        assertTrue(cache.exists(BUCKET, PATH, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cloudfiles.metadata.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should load only uncached paths in batch lookups")
+    void existingBatch() {
+
+        cache.put(BUCKET, PATH, true);
+        cache.put(BUCKET, "missing", false);
+        List<Collection<String>> loaded = new ArrayList<>();
+
+        Set<String> existing = cache.existing(BUCKET, List.of(PATH, "missing", "new"), paths -> {
+            loaded.add(List.copyOf(paths));
+            return Set.of("new");
+        });
+
+        assertEquals(Set.of(PATH, "new"), existing);
+        assertEquals(List.of(List.of("new")), loaded);
+        assertTrue(cache.exists(BUCKET, "new", () -> false));
+    }
+
+    @Test
+    @DisplayName("Should expire negative entries sooner than positive ones")
+    void negativeTtl() {
+
+        cache.put(BUCKET, PATH, true);
+        cache.put(BUCKET, "missing", false);
+        now.addAndGet(Duration.ofSeconds(3).toNanos());
+
+        assertTrue(cache.exists(BUCKET, PATH, () -> false));
+        assertTrue(cache.exists(BUCKET, "missing", this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should drop cached entries under invalidated directory")
+    void invalidateDirectory() {
+
+        cache.put(BUCKET, PATH, true);
+        cache.put(BUCKET, "user-1-files/other.txt", true);
+
+        cache.invalidate(BUCKET, List.of("user-1-files/docs/"));
+
+        assertTrue(cache.exists(BUCKET, PATH, this::load));
+        assertTrue(cache.exists(BUCKET, "user-1-files/other.txt", () -> false));
+        assertEquals(1, loads.get());
+        verifyNoInteractions(redisProvider);
+    }
+
+    @Test
+    @DisplayName("Should not cache a result loaded concurrently with a write")
+    void invalidateDuringLoad() {
+
+        cache.exists(BUCKET, PATH, () -> {
+            cache.invalidate(BUCKET, List.of(PATH));
+            return false;
+        });
+
+        assertTrue(cache.exists(BUCKET, PATH, this::load));
+    }
+
+    @Test
+    @DisplayName("Should not cache a result whose load started before a write")
+    void putWithStaleGeneration() {
+
+        long generation = cache.generation();
+        cache.invalidate(BUCKET, List.of(PATH));
+        cache.put(BUCKET, PATH, true, generation);
+
+        assertFalse(cache.exists(BUCKET, PATH, () -> false));
+    }
+
+    @Test
+    @DisplayName("Should drop nested entries only under the invalidated directory of the same bucket")
+    void invalidateDirectoryScope() {
+
+        cache.put(BUCKET, "user-1-files/docs/a/b/c.txt", true);
+        cache.put(BUCKET, "user-1-files/docs-old/d.txt", true);
+        cache.put("other", "user-1-files/docs/e.txt", true);
+
+        cache.invalidate(BUCKET, List.of("user-1-files/docs/"));
+
+        assertTrue(cache.exists(BUCKET, "user-1-files/docs/a/b/c.txt", this::load));
+        assertTrue(cache.exists(BUCKET, "user-1-files/docs-old/d.txt", () -> false));
+        assertTrue(cache.exists("other", "user-1-files/docs/e.txt", () -> false));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should evict entries when weight limit is exceeded")
+    void evictsOverWeight() {
+
+        props.setMetadataCacheMaxSize(DataSize.ofBytes(1000));
+        cache = new ObjectMetadataCache(props, redisProvider, meterRegistry, now::get);
+
+        for (int i = 0; i < 50; i++) {
+            cache.put(BUCKET, PATH + i, true);
+        }
+
+        assertTrue(cache.weight() <= 1000);
+        assertTrue(meterRegistry.get("cloudfiles.metadata.cache.evictions").counter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("Should broadcast invalidations when enabled")
+    void broadcast() {
+
+        props.setMetadataCacheBroadcast(true);
+        when(redisProvider.getIfAvailable()).thenReturn(redisTemplate);
+
+        cache.invalidate(BUCKET, List.of(PATH));
+
+        verify(redisTemplate).convertAndSend(ObjectMetadataCache.INVALIDATION_CHANNEL, BUCKET + "\n" + PATH);
+    }
+
+    @Test
+    @DisplayName("Should call loader directly when disabled")
+    void disabled() {
+
+        props.setMetadataCacheEnabled(false);
+
+        assertFalse(cache.exists(BUCKET, PATH, () -> false));
+        cache.put(BUCKET, PATH, true);
+
+        assertTrue(cache.exists(BUCKET, PATH, this::load));
+        assertEquals(0, cache.weight());
+    }
+
+    private boolean load() {
+
+        loads.incrementAndGet();
+        return true;
+    }
+}
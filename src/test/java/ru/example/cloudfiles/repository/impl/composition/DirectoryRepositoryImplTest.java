@@ -22,15 +22,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.repository.AbstractMinioTestContainer;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 
 @SpringBootTest
@@ -42,6 +49,9 @@ class DirectoryRepositoryImplTest extends AbstractMinioTestContainer {
     private static final String BUCKET = "test-bucket";
     private final MinioClient minioClient;
     private final DirectoryRepository directoryRepository;
+
+    @MockitoSpyBean
+    private ObjectRepository objectRepository;
     private PodamFactory factory;
 
     @DynamicPropertySource
@@ -50,6 +60,7 @@ class DirectoryRepositoryImplTest extends AbstractMinioTestContainer {
         registry.add("minio.access-key", AbstractMinioTestContainer::getUsername);
         registry.add("minio.secret-key", AbstractMinioTestContainer::getPassword);
         registry.add("minio.bucket", () -> BUCKET);
+        registry.add("minio.existence-scan-limit", () -> 50);
     }
 
     @BeforeAll
@@ -224,6 +235,88 @@ class DirectoryRepositoryImplTest extends AbstractMinioTestContainer {
         );
     }
 
+    @Test
+    @DisplayName("Should list metadata with object sizes and etags")
+    @SneakyThrows
+    void shouldFindAllMetadataByPrefix() {
+
+        String root = factory.manufacturePojo(String.class) + "/";
+        String sub = root + factory.manufacturePojo(String.class) + "/";
+        String file = root + factory.manufacturePojo(String.class);
+        byte[] content = factory.manufacturePojo(String.class).getBytes();
+
+        directoryRepository.createDirectory(BUCKET, sub);
+        minioClient.putObject(PutObjectArgs.builder()
+                .bucket(BUCKET)
+                .object(file)
+                .stream(new ByteArrayInputStream(content), content.length, -1)
+                .build());
+
+        List<ResourceMetadata> result = directoryRepository.findAllByPrefix(BUCKET, root, false);
+
+        assertThat(result)
+                .extracting(ResourceMetadata::path)
+                .containsExactlyInAnyOrder(root, sub, file);
+        assertThat(result)
+                .filteredOn(item -> item.path().equals(file))
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.size()).isEqualTo(content.length);
+                    assertThat(item.etag()).isNotBlank();
+                    assertThat(item.lastModified()).isNotNull();
+                });
+    }
+
+    @Test
+    @DisplayName("Should list directory page after start key with limit")
+    void shouldFindPageByPrefix() {
+
+        String root = factory.manufacturePojo(String.class) + "/";
+        List.of("a", "b", "c", "d").forEach(name -> createEmptyObject(root + name));
+
+        List<ResourceMetadata> first = directoryRepository.findPageByPrefix(BUCKET, root, root, 2);
+        List<ResourceMetadata> second = directoryRepository.findPageByPrefix(BUCKET, root, root + "b", 2);
+
+        assertThat(first).extracting(ResourceMetadata::path).containsExactly(root + "a", root + "b");
+        assertThat(second).extracting(ResourceMetadata::path).containsExactly(root + "c", root + "d");
+    }
+
+    @Test
+    @DisplayName("Should find existing objects among candidates with one listing")
+    void shouldFindExisting() {
+
+        String root = factory.manufacturePojo(String.class) + "/";
+        String sub = root + factory.manufacturePojo(String.class) + "/";
+        String file = sub + factory.manufacturePojo(String.class);
+        String missing = sub + factory.manufacturePojo(String.class);
+
+        directoryRepository.createDirectory(BUCKET, sub);
+        createEmptyObject(file);
+
+        Set<String> result = directoryRepository.findExisting(BUCKET, List.of(root, sub, file, missing));
+
+        assertThat(result).containsExactlyInAnyOrder(root, sub, file);
+    }
+
+    @Test
+    @DisplayName("Should start existence listing at the first candidate")
+    void shouldFindExistingAfterManyPrecedingKeys() {
+
+        String dir = factory.manufacturePojo(String.class) + "/";
+        String file = dir + "zz-file";
+        String missing = dir + "zz-missing";
+        for (int i = 0; i < 120; i++) {
+            createEmptyObject(dir + "a-%03d".formatted(i));
+        }
+        createEmptyObject(file);
+        createEmptyObject(dir + "zzz-after");
+
+        Set<String> result = directoryRepository.findExisting(BUCKET, List.of(file, missing));
+
+        assertThat(result).containsExactly(file);
+        verify(objectRepository, never()).isObjectExists(anyString(), anyString());
+    }
+
     @Test
     @DisplayName("Should handle special characters in directory names")
     void shouldHandleSpecialCharactersInDirectoryNames() {
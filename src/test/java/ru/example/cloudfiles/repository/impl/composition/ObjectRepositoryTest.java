@@ -25,6 +25,7 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceSaveException;
 import ru.example.cloudfiles.repository.AbstractMinioTestContainer;
@@ -128,6 +129,71 @@ class ObjectRepositoryTest extends AbstractMinioTestContainer {
                 .hasMessageContaining(nonExistingPath);
     }
 
+    @Test
+    @DisplayName("Should get resource metadata without opening object stream")
+    void shouldHeadResource() {
+
+        String objectPath = factory.manufacturePojo(String.class);
+        String content = factory.manufacturePojo(String.class);
+        createObject(objectPath, content);
+
+        ResourceMetadata metadata = objectRepository.headResource(BUCKET, objectPath);
+
+        assertThat(metadata)
+                .isNotNull()
+                .satisfies(m -> {
+                    assertThat(m.path()).isEqualTo(objectPath);
+                    assertThat(m.size()).isEqualTo(content.getBytes().length);
+                    assertThat(m.etag()).isNotBlank();
+                    assertThat(m.lastModified()).isNotNull();
+                });
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException on head when resource not exists")
+    void shouldThrowResourceNotFoundExceptionOnHeadWhenResourceNotExists() {
+
+        String nonExistingPath = factory.manufacturePojo(String.class);
+
+        assertThatThrownBy(() -> objectRepository.headResource(BUCKET, nonExistingPath))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining(nonExistingPath);
+    }
+
+    @Test
+    @DisplayName("Should open object stream only on first read")
+    @SneakyThrows
+    void shouldOpenObjectStreamLazily() {
+
+        String objectPath = factory.manufacturePojo(String.class);
+        createObject(objectPath, factory.manufacturePojo(String.class));
+
+        Resource resource = objectRepository.getResourceByPath(BUCKET, objectPath);
+        removeObject(objectPath);
+
+        @Cleanup InputStream dataStream = resource.dataStream();
+        assertThatThrownBy(dataStream::read)
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Should copy resource on the server side")
+    @SneakyThrows
+    void shouldCopyResource() {
+
+        String sourcePath = factory.manufacturePojo(String.class);
+        String targetPath = factory.manufacturePojo(String.class);
+        String content = factory.manufacturePojo(String.class);
+        createObject(sourcePath, content);
+
+        objectRepository.copyResource(BUCKET, objectRepository.headResource(BUCKET, sourcePath), targetPath);
+
+        Resource copied = objectRepository.getResourceByPath(BUCKET, targetPath);
+        @Cleanup InputStream dataStream = copied.dataStream();
+        assertThat(new String(dataStream.readAllBytes())).isEqualTo(content);
+        assertThatObjectExists(sourcePath);
+    }
+
     @Test
     @DisplayName("Should save resource successfully")
     void shouldSaveResourceSuccessfully() {
@@ -136,12 +202,16 @@ class ObjectRepositoryTest extends AbstractMinioTestContainer {
         String content = factory.manufacturePojo(String.class);
         InputStream dataStream = new ByteArrayInputStream(content.getBytes());
 
-        objectRepository.saveResource(BUCKET, objectPath, dataStream);
+        ResourceMetadata saved = objectRepository.saveResource(BUCKET, objectPath, dataStream,
+                content.getBytes().length);
 
         assertThatObjectExists(objectPath);
 
         Resource savedResource = objectRepository.getResourceByPath(BUCKET, objectPath);
         assertThat(savedResource.size()).isEqualTo(content.getBytes().length);
+        assertThat(saved.size()).isEqualTo(content.getBytes().length);
+        assertThat(saved.etag()).isEqualTo(objectRepository.headResource(BUCKET, objectPath).etag());
+        assertThat(saved.lastModified()).isNotNull();
     }
 
     @Test
@@ -158,7 +228,7 @@ class ObjectRepositoryTest extends AbstractMinioTestContainer {
             }
         };
 
-        assertThatThrownBy(() -> objectRepository.saveResource(BUCKET, objectPath, invalidStream))
+        assertThatThrownBy(() -> objectRepository.saveResource(BUCKET, objectPath, invalidStream, -1))
                 .isInstanceOf(ResourceSaveException.class)
                 .hasMessageContaining(objectPath);
     }
@@ -257,6 +327,17 @@ class ObjectRepositoryTest extends AbstractMinioTestContainer {
                 .doesNotThrowAnyException();
     }
 
+    @SneakyThrows
+    private void removeObject(String objectPath) {
+
+        minioClient.removeObject(
+                RemoveObjectArgs.builder()
+                        .bucket(BUCKET)
+                        .object(objectPath)
+                        .build()
+        );
+    }
+
     @SneakyThrows
     private void clearBucket() {
 
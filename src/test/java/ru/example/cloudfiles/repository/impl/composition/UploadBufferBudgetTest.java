@@ -0,0 +1,53 @@
+package ru.example.cloudfiles.repository.impl.composition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceSaveException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UploadBufferBudgetTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UploadBufferBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties props = new MinioProperties();
+        props.setUploadBufferLimit(DataSize.ofKilobytes(8));
+        props.setUploadBufferWait(Duration.ofMillis(10));
+        meterRegistry = new SimpleMeterRegistry();
+        budget = new UploadBufferBudget(props, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should release reserved bytes when reservation is closed")
+    void reserveAndRelease() {
+
+        try (UploadBufferBudget.Reservation ignored = budget.reserve("a", 3000)) {
+            assertEquals(3072, budget.usedBytes());
+            assertEquals(3072.0, meterRegistry.get("cloudfiles.upload.buffer.used").gauge().value());
+        }
+
+        assertEquals(0, budget.usedBytes());
+    }
+
+    @Test
+    @DisplayName("Should fail when budget stays exhausted past the wait timeout")
+    void exhausted() {
+
+        try (UploadBufferBudget.Reservation ignored = budget.reserve("a", 6144)) {
+            assertThrows(ResourceSaveException.class, () -> budget.reserve("b", 4096));
+        }
+
+        budget.reserve("b", 4096).close();
+        assertEquals(0, budget.usedBytes());
+    }
+}
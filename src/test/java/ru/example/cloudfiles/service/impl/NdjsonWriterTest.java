@@ -0,0 +1,55 @@
+package ru.example.cloudfiles.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.example.cloudfiles.dto.ResourceType;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonWriterTest {
+
+    private final NdjsonWriter ndjsonWriter = new NdjsonWriter(new ObjectMapper());
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Should write one JSON document per line and close the source stream")
+    void writeLines() {
+
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<ResourceInfoResponseDTO> items = Stream.of(
+                        new ResourceInfoResponseDTO("docs/", "a.txt", 1L, ResourceType.FILE),
+                        new ResourceInfoResponseDTO("docs/", "b/", 0L, ResourceType.DIRECTORY))
+                .onClose(() -> closed.set(true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ndjsonWriter.write(items).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"a.txt\""));
+        assertTrue(lines[1].startsWith("{") && lines[1].contains("\"DIRECTORY\""));
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Should write nothing for an empty stream")
+    void writeEmpty() {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ndjsonWriter.write(Stream.empty()).writeTo(out);
+
+        assertEquals(0, out.size());
+    }
+}
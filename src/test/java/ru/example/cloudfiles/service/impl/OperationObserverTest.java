@@ -0,0 +1,104 @@
+package ru.example.cloudfiles.service.impl;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+class OperationObserverTest {
+
+    private final List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+    private OperationObserver observer;
+
+    @BeforeEach
+    void setUp() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        observer = new OperationObserver(registry);
+    }
+
+    @Test
+    @DisplayName("Should tag operation with user, path depth and object count")
+    void observeTagsContext() {
+
+        String result = observer.observe("resource.download", 7L, "docs/2024/report.pdf", () -> {
+            observer.tag("objects", 3);
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        Observation.Context context = stopped.getFirst();
+        assertEquals("resource.download", context.getContextualName());
+        assertEquals("7", value(context, "user.id"));
+        assertEquals("3", value(context, "path.depth"));
+        assertEquals("3", value(context, "objects"));
+    }
+
+    @Test
+    @DisplayName("Should record bytes written by streaming body")
+    void observeBodyCountsBytes() throws Exception {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        observer.observeBody("resource.download.write", 7L, "a.txt",
+                outputStream -> outputStream.write("0123456789".getBytes())).writeTo(output);
+
+        assertEquals(10, output.size());
+        assertEquals("10", value(stopped.getFirst(), "bytes"));
+    }
+
+    @Test
+    @DisplayName("Should nest repository observations under service observation")
+    void observeKeepsParent() {
+
+        observer.observe("outer", 1L, "", () -> observer.observe("inner", 1L, "a/", () -> null));
+
+        Observation.Context inner = stopped.getFirst();
+        assertEquals("inner", inner.getContextualName());
+        assertSame(stopped.get(1), inner.getParentObservation().getContextView());
+    }
+
+    @Test
+    @DisplayName("Should keep empty body for responses without content")
+    void observeBodyNull() {
+
+        assertNull(observer.observeBody("resource.download.write", 1L, "a", null));
+    }
+
+    @Test
+    @DisplayName("Should count non-empty path segments as depth")
+    void pathDepth() {
+
+        assertEquals(0, OperationObserver.pathDepth(""));
+        assertEquals(1, OperationObserver.pathDepth("docs/"));
+        assertEquals(2, OperationObserver.pathDepth("/docs//a.txt"));
+    }
+
+    private String value(Observation.Context context, String key) {
+
+        KeyValue keyValue = context.getHighCardinalityKeyValue(key);
+        return keyValue != null ? keyValue.getValue() : null;
+    }
+}
@@ -0,0 +1,131 @@
+package ru.example.cloudfiles.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ParallelTaskRunnerTest {
+
+    private final ParallelTaskRunner taskRunner = new ParallelTaskRunner();
+
+    @Test
+    @DisplayName("Should run task for every item")
+    void runAllOk() {
+
+        List<Integer> items = IntStream.range(0, 50).boxed().toList();
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+
+        taskRunner.runAll(items, 8, processed::add);
+
+        assertEquals(Set.copyOf(items), processed);
+    }
+
+    @Test
+    @DisplayName("Should not exceed configured concurrency")
+    void runAllBoundedConcurrency() {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        taskRunner.runAll(IntStream.range(0, 40).boxed().toList(), 3, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        });
+
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    @DisplayName("Should rethrow task failure")
+    void runAllFailure() {
+
+        IllegalArgumentException failure = new IllegalArgumentException("boom");
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> taskRunner.runAll(List.of(1, 2, 3), 1, item -> {
+                    if (item == 2) {
+                        throw failure;
+                    }
+                }));
+
+        assertEquals(failure, thrown);
+    }
+
+    @Test
+    @DisplayName("Should return results in item order")
+    void mapAllKeepsOrder() {
+
+        List<Integer> items = IntStream.range(0, 100).boxed().toList();
+
+        List<Integer> results = taskRunner.mapAll(items, 8, item -> {
+            try {
+                Thread.sleep(item % 3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return item * 2;
+        });
+
+        assertEquals(items.stream().map(item -> item * 2).toList(), results);
+    }
+
+    @Test
+    @DisplayName("Should rethrow first failure and stop in-flight tasks")
+    void mapAllFailFast() {
+
+        IllegalArgumentException failure = new IllegalArgumentException("boom");
+        AtomicInteger interrupted = new AtomicInteger();
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> taskRunner.mapAll(IntStream.range(0, 10).boxed().toList(), 10, item -> {
+                    if (item == 9) {
+                        throw failure;
+                    }
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.incrementAndGet();
+                        throw new IllegalStateException(e);
+                    }
+                    return item;
+                }));
+
+        assertEquals(failure, thrown);
+        assertEquals(9, interrupted.get());
+    }
+
+    @Test
+    @DisplayName("Should rethrow task failure when it stops the executor while items are still being submitted")
+    void mapAllFailureDuringSubmit() {
+
+        IllegalArgumentException failure = new IllegalArgumentException("boom");
+        List<Integer> items = IntStream.range(0, 2_000).boxed().toList();
+
+        for (int attempt = 0; attempt < 20; attempt++) {
+            IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                    () -> taskRunner.mapAll(items, items.size(), item -> {
+                        if (item == 0) {
+                            throw failure;
+                        }
+                        return item;
+                    }));
+
+            assertEquals(failure, thrown);
+        }
+    }
+}
@@ -165,4 +165,16 @@ class PathManagerTest {
 
         assertEquals("", result);
     }
+
+    @Test
+    @DisplayName("Should recognise objects inside any user directory")
+    void isInUserDirectory() {
+
+        when(minioProperties.getUserDirectoryPattern()).thenReturn("user-%d-files/");
+
+        assertTrue(pathManager.isInUserDirectory("user-42-files/docs/big.iso"));
+        assertFalse(pathManager.isInUserDirectory("archives/abc.zip"));
+        assertFalse(pathManager.isInUserDirectory("user-x-files/docs/big.iso"));
+        assertFalse(pathManager.isInUserDirectory("backup/user-42-files/big.iso"));
+    }
 }
@@ -0,0 +1,78 @@
+package ru.example.cloudfiles.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class UserConcurrencyLimiterTest {
+
+    private final UserConcurrencyLimiter limiter = new UserConcurrencyLimiter();
+    private final ParallelTaskRunner taskRunner = new ParallelTaskRunner();
+
+    @Test
+    @DisplayName("Should cap concurrent calls of one user")
+    void callBoundedPerUser() {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        taskRunner.runAll(IntStream.range(0, 40).boxed().toList(), 20, item -> limiter.call(1L, "upload", 3, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return running.decrementAndGet();
+        }));
+
+        assertTrue(maxRunning.get() <= 3);
+        assertEquals(0, limiter.trackedUsers());
+    }
+
+    @Test
+    @DisplayName("Should release user permits when task fails")
+    void callReleasesOnFailure() {
+
+        assertThrows(IllegalStateException.class, () -> limiter.call(1L, "upload", 1, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", limiter.call(1L, "upload", 1, () -> "ok"));
+        assertEquals(0, limiter.trackedUsers());
+    }
+
+    @Test
+    @DisplayName("Should keep separate limits per purpose for the same user")
+    void callLimitsPerPurpose() {
+
+        CountDownLatch allRunning = new CountDownLatch(3);
+
+        List<Boolean> results = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                limiter.call(1L, "lookup", 1, () -> taskRunner.mapAll(List.of(1, 2, 3), 3,
+                        item -> limiter.call(1L, "upload", 3, () -> {
+                            allRunning.countDown();
+                            try {
+                                return allRunning.await(2, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return false;
+                            }
+                        }))));
+
+        assertEquals(List.of(true, true, true), results);
+        assertEquals(0, limiter.trackedUsers());
+    }
+}
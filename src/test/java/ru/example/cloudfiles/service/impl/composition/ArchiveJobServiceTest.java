@@ -0,0 +1,453 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ArchiveJob;
+import ru.example.cloudfiles.dto.ArchiveJobStatus;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.response.ArchiveJobResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.archive.ArchiveJobNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryNotExistException;
+import ru.example.cloudfiles.exception.storageOperation.directory.NotDirectoryException;
+import ru.example.cloudfiles.exception.storageOperation.directory.ZipCreationException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceDeletionException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.repository.ArchiveJobRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.UserConcurrencyLimiter;
+import ru.example.cloudfiles.service.impl.composition.fileOperations.FileDownloadService;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArchiveJobServiceTest {
+
+    private static final long USER_ID = 5L;
+    private static final String BUCKET = "bucket";
+    private static final String PATH = "photos/";
+    private static final String PREFIX = "user-5-files/photos/";
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final List<ResourceMetadata> LISTING = List.of(
+            new ResourceMetadata(PREFIX + "a.jpg", 10, "etag-a", null),
+            new ResourceMetadata(PREFIX + "b.jpg", 20, "etag-b", null));
+
+    @Mock
+    private S3Repository s3Repo;
+
+    @Mock
+    private ArchiveJobRepository jobRepo;
+
+    @Mock
+    private FileDownloadService fileDownloadService;
+
+    @Mock
+    private PathManager paths;
+
+    @Mock
+    private MinioProperties props;
+
+    private ExecutorService executor;
+
+    private ArchiveJobService archiveJobService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        archiveJobService = new ArchiveJobService(s3Repo, jobRepo, fileDownloadService, paths, props, executor,
+                new UserConcurrencyLimiter(), new Semaphore(4, true));
+        lenient().when(props.getBucket()).thenReturn(BUCKET);
+        lenient().when(props.getArchivePrefix()).thenReturn("archives/");
+        lenient().when(props.getArchiveJobTtl()).thenReturn(TTL);
+        lenient().when(props.getArchiveLinkExpiry()).thenReturn(TTL);
+        lenient().when(props.getArchiveJobHeartbeat()).thenReturn(Duration.ofMinutes(1));
+        lenient().when(props.getArchiveJobStaleAfter()).thenReturn(Duration.ofMinutes(2));
+        lenient().when(props.getZipCompressionLevel()).thenReturn(6);
+        lenient().when(props.getUserArchiveConcurrency()).thenReturn(4);
+        lenient().when(paths.isDirectory(anyString())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).endsWith("/"));
+        lenient().when(paths.toTechnicalPath(USER_ID, PATH)).thenReturn(PREFIX);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should reject archive jobs for files")
+    void createJobRejectsFile() {
+
+        assertThrows(NotDirectoryException.class, () -> archiveJobService.createJob(USER_ID, "photos/a.jpg", null));
+    }
+
+    @Test
+    @DisplayName("Should reject archive jobs for missing directories")
+    void createJobRejectsMissingDirectory() {
+
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(List.of());
+
+        assertThrows(DirectoryNotExistException.class, () -> archiveJobService.createJob(USER_ID, PATH, null));
+    }
+
+    @Test
+    @DisplayName("Should build archive in background and report completion")
+    void createJobBuildsArchive() throws Exception {
+
+        byte[] zip = {1, 2, 3};
+        AtomicReference<byte[]> uploaded = new AtomicReference<>();
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenThrow(new ResourceNotFoundException("archive"));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write(zip);
+            invocation.<Runnable>getArgument(4).run();
+            invocation.<Runnable>getArgument(4).run();
+            return null;
+        }).when(fileDownloadService).writeZip(eq(USER_ID), eq(LISTING),
+                eq(6), any(OutputStream.class), any(Runnable.class));
+        doAnswer(invocation -> {
+            uploaded.set(invocation.<InputStream>getArgument(2).readAllBytes());
+            return null;
+        }).when(s3Repo).saveResource(eq(BUCKET), anyString(), any(InputStream.class));
+
+        ArchiveJobResponseDTO result = archiveJobService.createJob(USER_ID, PATH, null);
+
+        assertEquals(ArchiveJobStatus.RUNNING, result.status());
+        assertEquals(2, result.totalFiles());
+        assertNull(result.downloadUrl());
+        verify(jobRepo, timeout(2000)).save(argThat(job ->
+                job.status() == ArchiveJobStatus.COMPLETED && job.processedFiles() == 2), eq(TTL));
+        assertArrayEquals(zip, uploaded.get());
+        verify(s3Repo, never()).deleteResource(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should refresh job heartbeat while a long entry is being written")
+    void createJobSendsHeartbeat() throws Exception {
+
+        when(props.getArchiveJobHeartbeat()).thenReturn(Duration.ofMillis(20));
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenThrow(new ResourceNotFoundException("archive"));
+        doAnswer(invocation -> {
+            Thread.sleep(300);
+            return null;
+        }).when(fileDownloadService).writeZip(anyLong(), anyList(), eq(6), any(), any());
+        doAnswer(invocation -> {
+            invocation.<InputStream>getArgument(2).readAllBytes();
+            return null;
+        }).when(s3Repo).saveResource(eq(BUCKET), anyString(), any(InputStream.class));
+
+        archiveJobService.createJob(USER_ID, PATH, null);
+
+        verify(jobRepo, timeout(2000)).save(argThat(job -> job.status() == ArchiveJobStatus.COMPLETED), eq(TTL));
+        verify(jobRepo, atLeast(3)).save(argThat(job -> job.status() == ArchiveJobStatus.RUNNING), eq(TTL));
+    }
+
+    @Test
+    @DisplayName("Should mark job failed and drop partial archive when ZIP creation fails")
+    void createJobFailure() throws Exception {
+
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenThrow(new ResourceNotFoundException("archive"));
+        doThrow(new ZipCreationException(PREFIX + "a.jpg", new RuntimeException("boom")))
+                .when(fileDownloadService).writeZip(anyLong(), anyList(), eq(6), any(), any());
+        doAnswer(invocation -> invocation.<InputStream>getArgument(2).readAllBytes())
+                .when(s3Repo).saveResource(eq(BUCKET), anyString(), any(InputStream.class));
+        when(s3Repo.deleteResource(eq(BUCKET), anyString())).thenReturn(new DeletionReport(1, Map.of(), Duration.ZERO));
+
+        archiveJobService.createJob(USER_ID, PATH, null);
+
+        verify(jobRepo, timeout(2000)).releaseFingerprint(anyString());
+        verify(jobRepo).save(argThat(job -> job.status() == ArchiveJobStatus.FAILED), eq(TTL));
+        verify(s3Repo).deleteResource(eq(BUCKET), argThat(name -> name.startsWith("archives/")));
+    }
+
+    @Test
+    @DisplayName("Should reuse cached archive when listing fingerprint is unchanged")
+    void createJobReusesCachedArchive() {
+
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenReturn(archive(ZonedDateTime.now(ZoneOffset.UTC)));
+        when(s3Repo.getPresignedDownloadUrl(eq(BUCKET), anyString(), eq(TTL), anyString()))
+                .thenReturn("http://minio/archives/x.zip?sig");
+
+        ArchiveJobResponseDTO result = archiveJobService.createJob(USER_ID, PATH, null);
+
+        assertEquals(ArchiveJobStatus.COMPLETED, result.status());
+        assertEquals("http://minio/archives/x.zip?sig", result.downloadUrl());
+        verify(s3Repo, never()).saveResource(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should return running job for the same listing instead of starting another")
+    void createJobReusesRunningJob() {
+
+        ArchiveJob running = new ArchiveJob("job-1", USER_ID, PATH, "fp", "archives/fp.zip",
+                ArchiveJobStatus.RUNNING, 2, 1, Instant.now());
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenReturn("job-1");
+        when(jobRepo.findById("job-1")).thenReturn(Optional.of(running));
+
+        ArchiveJobResponseDTO result = archiveJobService.createJob(USER_ID, PATH, null);
+
+        assertEquals("job-1", result.id());
+        assertEquals(1, result.processedFiles());
+        verify(s3Repo, never()).headResource(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should fail running job with stale heartbeat and start a new one")
+    void createJobReplacesStaleJob() {
+
+        ArchiveJob stale = new ArchiveJob("job-1", USER_ID, PATH, "fp", "archives/fp.zip",
+                ArchiveJobStatus.RUNNING, 2, 1, Instant.now().minus(Duration.ofMinutes(10)));
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenReturn("job-1");
+        when(jobRepo.claimFingerprint(anyString(), eq("job-1"), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(jobRepo.findById("job-1")).thenReturn(Optional.of(stale));
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenReturn(archive(ZonedDateTime.now(ZoneOffset.UTC)));
+        when(s3Repo.getPresignedDownloadUrl(eq(BUCKET), anyString(), eq(TTL), anyString())).thenReturn("url");
+
+        ArchiveJobResponseDTO result = archiveJobService.createJob(USER_ID, PATH, null);
+
+        assertNotEquals("job-1", result.id());
+        verify(jobRepo).save(argThat(job -> job.id().equals("job-1") && job.status() == ArchiveJobStatus.FAILED),
+                eq(TTL));
+        verify(jobRepo).claimFingerprint(anyString(), eq("job-1"), eq(result.id()), eq(TTL));
+    }
+
+    @Test
+    @DisplayName("Should reuse the job of a concurrent caller that replaced the stale job first")
+    void createJobLosesStaleJobReplacement() {
+
+        ArchiveJob stale = new ArchiveJob("job-1", USER_ID, PATH, "fp", "archives/fp.zip",
+                ArchiveJobStatus.FAILED, 2, 1, Instant.now());
+        ArchiveJob winner = new ArchiveJob("job-2", USER_ID, PATH, "fp", "archives/fp.zip",
+                ArchiveJobStatus.RUNNING, 2, 0, Instant.now());
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenReturn("job-1");
+        when(jobRepo.claimFingerprint(anyString(), eq("job-1"), anyString(), eq(TTL))).thenReturn("job-2");
+        when(jobRepo.findById("job-1")).thenReturn(Optional.of(stale));
+        when(jobRepo.findById("job-2")).thenReturn(Optional.of(winner));
+
+        ArchiveJobResponseDTO result = archiveJobService.createJob(USER_ID, PATH, null);
+
+        assertEquals("job-2", result.id());
+        verify(s3Repo, never()).headResource(anyString(), anyString());
+        verify(jobRepo, never()).save(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should build at most the per-user number of archives at once")
+    void createJobLimitsBuildsPerUser() throws Exception {
+
+        assertMaxConcurrentBuilds(1, 4, USER_ID, USER_ID);
+    }
+
+    @Test
+    @DisplayName("Should build at most the global number of archives at once across users")
+    void createJobLimitsBuildsGlobally() throws Exception {
+
+        when(paths.toTechnicalPath(7L, PATH)).thenReturn("user-7-files/photos/");
+        when(s3Repo.findAllByPrefix(BUCKET, "user-7-files/photos/", true)).thenReturn(List.of(
+                new ResourceMetadata("user-7-files/photos/c.jpg", 30, "etag-c", null)));
+
+        assertMaxConcurrentBuilds(4, 1, USER_ID, 7L);
+    }
+
+    @Test
+    @DisplayName("Should report running job with stale heartbeat as failed")
+    void getJobWithStaleHeartbeat() {
+
+        ArchiveJob stale = new ArchiveJob("job-1", USER_ID, PATH, "fp", "archives/fp.zip",
+                ArchiveJobStatus.RUNNING, 2, 1, Instant.now().minus(Duration.ofMinutes(10)));
+        when(jobRepo.findById("job-1")).thenReturn(Optional.of(stale));
+
+        ArchiveJobResponseDTO result = archiveJobService.getJob(USER_ID, "job-1");
+
+        assertEquals(ArchiveJobStatus.FAILED, result.status());
+        verify(jobRepo).save(argThat(job -> job.status() == ArchiveJobStatus.FAILED), eq(TTL));
+    }
+
+    @Test
+    @DisplayName("Should rebuild archive older than job TTL instead of reusing it")
+    void createJobRebuildsExpiredArchive() {
+
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString()))
+                .thenReturn(archive(ZonedDateTime.now(ZoneOffset.UTC).minus(TTL).minusMinutes(1)));
+
+        ArchiveJobResponseDTO result = archiveJobService.createJob(USER_ID, PATH, null);
+
+        assertEquals(ArchiveJobStatus.RUNNING, result.status());
+    }
+
+    @Test
+    @DisplayName("Should produce the same fingerprint for the same listing")
+    void createJobFingerprintIsStable() {
+
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true))
+                .thenReturn(LISTING)
+                .thenReturn(List.of(LISTING.get(1), LISTING.get(0)));
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenReturn(archive(ZonedDateTime.now(ZoneOffset.UTC)));
+        when(s3Repo.getPresignedDownloadUrl(eq(BUCKET), anyString(), eq(TTL), anyString())).thenReturn("url");
+
+        archiveJobService.createJob(USER_ID, PATH, null);
+        archiveJobService.createJob(USER_ID, PATH, null);
+
+        ArgumentCaptor<String> objectNames = ArgumentCaptor.forClass(String.class);
+        verify(s3Repo, times(2)).headResource(eq(BUCKET), objectNames.capture());
+        assertEquals(objectNames.getAllValues().get(0), objectNames.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("Should produce the same fingerprint for default and explicit default compression level")
+    void createJobFingerprintUsesResolvedLevel() {
+
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true)).thenReturn(LISTING);
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenReturn(archive(ZonedDateTime.now(ZoneOffset.UTC)));
+        when(s3Repo.getPresignedDownloadUrl(eq(BUCKET), anyString(), eq(TTL), anyString())).thenReturn("url");
+
+        archiveJobService.createJob(USER_ID, PATH, null);
+        archiveJobService.createJob(USER_ID, PATH, 6);
+        archiveJobService.createJob(USER_ID, PATH, 1);
+
+        ArgumentCaptor<String> objectNames = ArgumentCaptor.forClass(String.class);
+        verify(s3Repo, times(3)).headResource(eq(BUCKET), objectNames.capture());
+        assertEquals(objectNames.getAllValues().get(0), objectNames.getAllValues().get(1));
+        assertNotEquals(objectNames.getAllValues().get(0), objectNames.getAllValues().get(2));
+    }
+
+    private void assertMaxConcurrentBuilds(int userLimit, int globalLimit, long firstUser, long secondUser)
+            throws Exception {
+
+        archiveJobService = new ArchiveJobService(s3Repo, jobRepo, fileDownloadService, paths, props, executor,
+                new UserConcurrencyLimiter(), new Semaphore(globalLimit, true));
+        when(props.getUserArchiveConcurrency()).thenReturn(userLimit);
+        when(s3Repo.findAllByPrefix(BUCKET, PREFIX, true))
+                .thenReturn(LISTING)
+                .thenReturn(List.of(LISTING.getFirst()));
+        when(jobRepo.claimFingerprint(anyString(), isNull(), anyString(), eq(TTL))).thenAnswer(ownedByCaller());
+        when(s3Repo.headResource(eq(BUCKET), anyString())).thenThrow(new ResourceNotFoundException("archive"));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            active.decrementAndGet();
+            return null;
+        }).when(fileDownloadService).writeZip(anyLong(), anyList(), eq(6), any(), any());
+        doAnswer(invocation -> {
+            invocation.<InputStream>getArgument(2).readAllBytes();
+            return null;
+        }).when(s3Repo).saveResource(eq(BUCKET), anyString(), any(InputStream.class));
+
+        archiveJobService.createJob(firstUser, PATH, null);
+        archiveJobService.createJob(secondUser, PATH, null);
+
+        verify(fileDownloadService, timeout(2000)).writeZip(anyLong(), anyList(), eq(6), any(), any());
+        Thread.sleep(200);
+        assertEquals(1, maxActive.get());
+        release.countDown();
+        verify(jobRepo, timeout(2000).times(2))
+                .save(argThat(job -> job.status() == ArchiveJobStatus.COMPLETED), eq(TTL));
+        assertEquals(1, maxActive.get());
+    }
+
+    private Answer<String> ownedByCaller() {
+
+        return invocation -> invocation.getArgument(2);
+    }
+
+    @Test
+    @DisplayName("Should remove archives older than job TTL and link expiry")
+    void removeExpiredArchives() {
+
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        when(s3Repo.findAllByPrefix(BUCKET, "archives/", true)).thenReturn(List.of(
+                new ResourceMetadata("archives/old.zip", 10, "e1", now.minusHours(3)),
+                new ResourceMetadata("archives/broken.zip", 10, "e2", now.minusHours(3)),
+                new ResourceMetadata("archives/fresh.zip", 10, "e3", now.minusMinutes(90))));
+        when(s3Repo.deleteResource(BUCKET, "archives/old.zip"))
+                .thenReturn(new DeletionReport(1, Map.of(), Duration.ZERO));
+        when(s3Repo.deleteResource(BUCKET, "archives/broken.zip"))
+                .thenThrow(new ResourceDeletionException("archives/broken.zip", new RuntimeException("boom")));
+
+        archiveJobService.removeExpiredArchives();
+
+        verify(s3Repo).deleteResource(BUCKET, "archives/old.zip");
+        verify(s3Repo).deleteResource(BUCKET, "archives/broken.zip");
+        verify(s3Repo, never()).deleteResource(BUCKET, "archives/fresh.zip");
+    }
+
+    @Test
+    @DisplayName("Should hide jobs of other users")
+    void getJobOfOtherUser() {
+
+        ArchiveJob job = new ArchiveJob("job-1", 99L, PATH, "fp", "archives/fp.zip",
+                ArchiveJobStatus.COMPLETED, 2, 2, Instant.now());
+        when(jobRepo.findById("job-1")).thenReturn(Optional.of(job));
+
+        assertThrows(ArchiveJobNotFoundException.class, () -> archiveJobService.getJob(USER_ID, "job-1"));
+    }
+
+    private ResourceMetadata archive(ZonedDateTime lastModified) {
+
+        return new ResourceMetadata("archives/fp.zip", 3, "etag", lastModified);
+    }
+}
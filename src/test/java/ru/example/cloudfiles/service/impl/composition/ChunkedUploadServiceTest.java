@@ -0,0 +1,297 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import io.minio.ObjectWriteArgs;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.PendingUpload;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.UploadSession;
+import ru.example.cloudfiles.dto.UploadedPart;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadPartResponseDTO;
+import ru.example.cloudfiles.dto.response.UploadSessionResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
+import ru.example.cloudfiles.exception.storageOperation.upload.UploadSessionNotFoundException;
+import ru.example.cloudfiles.exception.validation.InvalidUploadPartException;
+import ru.example.cloudfiles.mapper.ResourceMapper;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.repository.UploadSessionRepository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceTest {
+
+    private static final long USER_ID = 5L;
+    private static final String BUCKET = "bucket";
+    private static final String OBJECT = "user-5-files/docs/big.iso";
+    private static final long PART_SIZE = ObjectWriteArgs.MIN_MULTIPART_SIZE;
+    private static final UploadSession SESSION =
+            new UploadSession("s-1", USER_ID, "docs/big.iso", OBJECT, "upload-1", null);
+
+    @Mock
+    private S3Repository s3Repo;
+
+    @Mock
+    private UploadSessionRepository sessionRepo;
+
+    @Mock
+    private UploadService uploadService;
+
+    @Mock
+    private PathManager paths;
+
+    @Mock
+    private MinioProperties props;
+
+    @Mock
+    private ResourceMapper resourceMapper;
+
+    @Mock
+    private ResourceIndexService indexService;
+
+    @Mock
+    private DirectoryListingCache listingCache;
+
+    @InjectMocks
+    private ChunkedUploadService chunkedUploadService;
+
+    @Test
+    @DisplayName("Should validate target, start multipart upload and store session")
+    void createSession() {
+
+        Duration ttl = Duration.ofHours(2);
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(props.getUploadSessionTtl()).thenReturn(ttl);
+        when(paths.toTechnicalPath(USER_ID, "docs/big.iso")).thenReturn(OBJECT);
+        when(s3Repo.createMultipartUpload(BUCKET, OBJECT)).thenReturn("upload-1");
+
+        UploadSessionResponseDTO result = chunkedUploadService.createSession(USER_ID, "docs/", "big.iso");
+
+        ArgumentCaptor<UploadSession> captor = ArgumentCaptor.forClass(UploadSession.class);
+        verify(uploadService).validateTarget(USER_ID, "docs/", "big.iso");
+        verify(sessionRepo).save(captor.capture(), eq(ttl));
+        assertEquals(captor.getValue().id(), result.id());
+        assertEquals("upload-1", captor.getValue().uploadId());
+        assertEquals(OBJECT, captor.getValue().objectName());
+        assertEquals(7200, result.expiresInSeconds());
+    }
+
+    @Test
+    @DisplayName("Should upload part into session multipart upload")
+    void uploadPart() {
+
+        InputStream data = InputStream.nullInputStream();
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+        when(s3Repo.uploadPart(BUCKET, OBJECT, "upload-1", 3, data, PART_SIZE))
+                .thenReturn(new UploadedPart(3, "etag-3", PART_SIZE));
+
+        UploadPartResponseDTO result = chunkedUploadService.uploadPart(USER_ID, "s-1", 3, data, PART_SIZE);
+
+        assertEquals(new UploadPartResponseDTO(3, "etag-3", PART_SIZE), result);
+        verify(s3Repo, never()).listParts(anyString(), anyString(), anyString());
+        verify(sessionRepo, never()).update(any());
+    }
+
+    @Test
+    @DisplayName("Should remember a part below the S3 minimum as the last part")
+    void uploadShortLastPart() {
+
+        InputStream data = InputStream.nullInputStream();
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+        when(s3Repo.listParts(BUCKET, OBJECT, "upload-1")).thenReturn(List.of(new UploadedPart(1, "e1", PART_SIZE)));
+        when(s3Repo.uploadPart(BUCKET, OBJECT, "upload-1", 2, data, 10L))
+                .thenReturn(new UploadedPart(2, "etag-2", 10L));
+
+        chunkedUploadService.uploadPart(USER_ID, "s-1", 2, data, 10L);
+
+        verify(sessionRepo).update(SESSION.withLastPartNumber(2));
+    }
+
+    @Test
+    @DisplayName("Should reject a part below the S3 minimum that is not the last part")
+    void uploadShortPartBeforeLaterPart() {
+
+        InputStream data = InputStream.nullInputStream();
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+        when(s3Repo.listParts(BUCKET, OBJECT, "upload-1")).thenReturn(List.of(new UploadedPart(3, "e3", PART_SIZE)));
+
+        assertThrows(InvalidUploadPartException.class,
+                () -> chunkedUploadService.uploadPart(USER_ID, "s-1", 2, data, 10L));
+        verify(s3Repo, never()).uploadPart(any(), any(), any(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject parts after a part below the S3 minimum")
+    void uploadPartAfterShortPart() {
+
+        InputStream data = InputStream.nullInputStream();
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION.withLastPartNumber(2)));
+
+        assertThrows(InvalidUploadPartException.class,
+                () -> chunkedUploadService.uploadPart(USER_ID, "s-1", 3, data, PART_SIZE));
+        assertThrows(InvalidUploadPartException.class,
+                () -> chunkedUploadService.uploadPart(USER_ID, "s-1", 3, data, 10L));
+        verify(s3Repo, never()).uploadPart(any(), any(), any(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject out of range part numbers and unknown length")
+    void uploadPartInvalid() {
+
+        InputStream data = InputStream.nullInputStream();
+
+        assertThrows(InvalidUploadPartException.class,
+                () -> chunkedUploadService.uploadPart(USER_ID, "s-1", 0, data, 10L));
+        assertThrows(InvalidUploadPartException.class,
+                () -> chunkedUploadService.uploadPart(USER_ID, "s-1", 10001, data, 10L));
+        assertThrows(InvalidUploadPartException.class,
+                () -> chunkedUploadService.uploadPart(USER_ID, "s-1", 1, data, -1L));
+        verify(s3Repo, never()).uploadPart(any(), any(), any(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should hide sessions of other users")
+    void foreignSession() {
+
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+
+        assertThrows(UploadSessionNotFoundException.class, () -> chunkedUploadService.listParts(USER_ID + 1, "s-1"));
+        verify(s3Repo, never()).listParts(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should complete upload, drop session and index the file")
+    void complete() {
+
+        List<UploadedPart> parts = List.of(new UploadedPart(1, "e1", PART_SIZE), new UploadedPart(2, "e2", 3));
+        ResourceMetadata metadata = new ResourceMetadata(OBJECT, PART_SIZE + 3, "etag", null);
+        ResourceInfoResponseDTO dto = ResourceInfoResponseDTO.builder().name("big.iso").size(8).build();
+
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+        when(s3Repo.listParts(BUCKET, OBJECT, "upload-1")).thenReturn(parts);
+        when(s3Repo.isObjectExists(BUCKET, OBJECT)).thenReturn(false);
+        when(s3Repo.headResource(BUCKET, OBJECT)).thenReturn(metadata);
+        when(resourceMapper.toDto(USER_ID, metadata)).thenReturn(dto);
+
+        ResourceInfoResponseDTO result = chunkedUploadService.complete(USER_ID, "s-1");
+
+        assertEquals(dto, result);
+        verify(s3Repo).completeMultipartUpload(BUCKET, OBJECT, "upload-1", parts);
+        verify(sessionRepo).delete(SESSION);
+        verify(uploadService).createParentDirs(USER_ID, List.of(OBJECT));
+        verify(indexService).indexResources(USER_ID, List.of(metadata));
+    }
+
+    @Test
+    @DisplayName("Should not complete when a non-final part is below the S3 minimum")
+    void completeShortPart() {
+
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+        when(s3Repo.listParts(BUCKET, OBJECT, "upload-1"))
+                .thenReturn(List.of(new UploadedPart(1, "e1", 5), new UploadedPart(2, "e2", PART_SIZE)));
+
+        assertThrows(InvalidUploadPartException.class, () -> chunkedUploadService.complete(USER_ID, "s-1"));
+        verify(s3Repo, never()).completeMultipartUpload(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not complete over a resource created during the session")
+    void completeConflict() {
+
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+        when(s3Repo.listParts(BUCKET, OBJECT, "upload-1")).thenReturn(List.of(new UploadedPart(1, "e1", 5)));
+        when(s3Repo.isObjectExists(BUCKET, OBJECT)).thenReturn(true);
+
+        assertThrows(ResourceAlreadyExistsException.class, () -> chunkedUploadService.complete(USER_ID, "s-1"));
+        verify(s3Repo, never()).completeMultipartUpload(any(), any(), any(), any());
+        verify(sessionRepo, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Should abort multipart upload and drop session")
+    void abort() {
+
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(sessionRepo.findById("s-1")).thenReturn(Optional.of(SESSION));
+
+        chunkedUploadService.abort(USER_ID, "s-1");
+
+        verify(s3Repo).abortMultipartUpload(BUCKET, OBJECT, "upload-1");
+        verify(sessionRepo).delete(SESSION);
+    }
+
+    @Test
+    @DisplayName("Should abort multipart uploads older than the session TTL")
+    void abortExpiredUploads() {
+
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        PendingUpload expired = new PendingUpload(OBJECT, "upload-1", now.minusDays(2));
+        PendingUpload active = new PendingUpload("user-5-files/other.iso", "upload-2", now.minusHours(1));
+
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(props.getUploadSessionTtl()).thenReturn(Duration.ofHours(24));
+        when(s3Repo.findMultipartUploads(BUCKET)).thenReturn(List.of(expired, active));
+        when(sessionRepo.findIdByUploadId("upload-1")).thenReturn(Optional.of("s-1"));
+
+        chunkedUploadService.abortExpiredUploads();
+
+        verify(s3Repo).abortMultipartUpload(BUCKET, OBJECT, "upload-1");
+        verify(sessionRepo).deleteByUploadId("upload-1");
+        verify(s3Repo, never()).abortMultipartUpload(BUCKET, "user-5-files/other.iso", "upload-2");
+    }
+
+    @Test
+    @DisplayName("Should abort only expired uploads that belong to sessions or user directories")
+    void abortExpiredUploadsSkipsForeignUploads() {
+
+        ZonedDateTime expiredAt = ZonedDateTime.now(ZoneOffset.UTC).minusDays(2);
+        PendingUpload orphan = new PendingUpload(OBJECT, "upload-1", expiredAt);
+        PendingUpload archive = new PendingUpload("archives/abc.zip", "upload-2", expiredAt);
+        PendingUpload foreign = new PendingUpload("backups/db.dump", "upload-3", expiredAt);
+
+        when(props.getBucket()).thenReturn(BUCKET);
+        when(props.getUploadSessionTtl()).thenReturn(Duration.ofHours(24));
+        when(s3Repo.findMultipartUploads(BUCKET)).thenReturn(List.of(orphan, archive, foreign));
+        when(sessionRepo.findIdByUploadId(anyString())).thenReturn(Optional.empty());
+        when(paths.isInUserDirectory(OBJECT)).thenReturn(true);
+        when(paths.isInUserDirectory("archives/abc.zip")).thenReturn(false);
+        when(paths.isInUserDirectory("backups/db.dump")).thenReturn(false);
+
+        chunkedUploadService.abortExpiredUploads();
+
+        verify(s3Repo).abortMultipartUpload(BUCKET, OBJECT, "upload-1");
+        verify(sessionRepo).deleteByUploadId("upload-1");
+        verify(s3Repo, never()).abortMultipartUpload(BUCKET, "archives/abc.zip", "upload-2");
+        verify(s3Repo, never()).abortMultipartUpload(BUCKET, "backups/db.dump", "upload-3");
+    }
+}
@@ -0,0 +1,165 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.repository.DirectoryListingRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryListingCacheTest {
+
+    private static final long USER_ID = 1L;
+    private static final String BUCKET = "bucket";
+    private static final String PREFIX = "user-1-files/docs/";
+
+    @Mock
+    private DirectoryListingRepository listingRepo;
+
+    @Mock
+    private S3Repository s3Repo;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DirectoryListingCache listingCache;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties props = new MinioProperties();
+        props.setBucket(BUCKET);
+        props.setListingCacheMaxEntries(2);
+        props.setListingCacheTtl(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        listingCache = new DirectoryListingCache(listingRepo, s3Repo, props, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should count hits and misses")
+    void findCountsResults() {
+
+        when(listingRepo.find(USER_ID, PREFIX))
+                .thenReturn(Optional.of(List.of()))
+                .thenReturn(Optional.empty());
+
+        assertTrue(listingCache.find(USER_ID, PREFIX).isPresent());
+        assertTrue(listingCache.find(USER_ID, PREFIX).isEmpty());
+
+        assertEquals(1, meterRegistry.get("cloudfiles.listing.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("cloudfiles.listing.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should treat Redis failure as a miss")
+    void findRedisUnavailable() {
+
+        when(listingRepo.find(USER_ID, PREFIX)).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(listingCache.find(USER_ID, PREFIX).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should cache listing that fits the entry limit")
+    void loadCachesSmallListing() {
+
+        List<ResourceMetadata> items = List.of(new ResourceMetadata(PREFIX + "a", 1, "e", null));
+        when(s3Repo.findPageByPrefix(BUCKET, PREFIX, PREFIX, 3)).thenReturn(items);
+
+        assertEquals(Optional.of(items), listingCache.load(USER_ID, PREFIX));
+
+        verify(listingRepo).save(USER_ID, PREFIX, items, Duration.ofMinutes(1));
+        verify(listingRepo, never()).evict(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should bypass cache for listings above the entry limit")
+    void loadBypassesLargeListing() {
+
+        ResourceMetadata item = new ResourceMetadata(PREFIX + "a", 1, "e", null);
+        when(s3Repo.findPageByPrefix(BUCKET, PREFIX, PREFIX, 3)).thenReturn(List.of(item, item, item));
+
+        assertTrue(listingCache.load(USER_ID, PREFIX).isEmpty());
+
+        verify(listingRepo, never()).save(anyLong(), any(), any(), any());
+        assertEquals(1, meterRegistry.get("cloudfiles.listing.cache").tag("result", "bypass").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop freshly cached listing when a write raced with the load")
+    void loadDropsRacedListing() {
+
+        List<ResourceMetadata> items = List.of(new ResourceMetadata(PREFIX + "a", 1, "e", null));
+        when(listingRepo.version(USER_ID)).thenReturn(1L, 2L);
+        when(s3Repo.findPageByPrefix(BUCKET, PREFIX, PREFIX, 3)).thenReturn(items);
+
+        listingCache.load(USER_ID, PREFIX);
+
+        verify(listingRepo).evict(USER_ID, List.of(PREFIX));
+    }
+
+    @Test
+    @DisplayName("Should evict every ancestor listing of a written file")
+    void invalidateFileEvictsAncestors() {
+
+        listingCache.invalidate(USER_ID, List.of("user-1-files/docs/2024/report.pdf"));
+
+        verify(listingRepo).evict(USER_ID,
+                Set.of("user-1-files/", "user-1-files/docs/", "user-1-files/docs/2024/"));
+        verify(listingRepo, never()).findCachedPrefixes(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should evict cached listings below a removed directory")
+    void invalidateDirectoryEvictsDescendants() {
+
+        when(listingRepo.findCachedPrefixes(USER_ID))
+                .thenReturn(Set.of("user-1-files/", "user-1-files/docs/", "user-1-files/docs/a/", "user-1-files/other/"));
+
+        listingCache.invalidate(USER_ID, List.of("user-1-files/docs/"));
+
+        verify(listingRepo).evict(USER_ID, Set.of("user-1-files/", "user-1-files/docs/", "user-1-files/docs/a/"));
+    }
+
+    @Test
+    @DisplayName("Should slice cached listing after cursor")
+    void pageAfterCursor() {
+
+        List<ResourceMetadata> listing = List.of(
+                new ResourceMetadata(PREFIX + "a", 1, "e", null),
+                new ResourceMetadata(PREFIX + "b", 1, "e", null),
+                new ResourceMetadata(PREFIX + "c", 1, "e", null));
+
+        assertEquals(listing.subList(1, 3), DirectoryListingCache.page(listing, PREFIX + "a", 5));
+        assertEquals(listing.subList(0, 1), DirectoryListingCache.page(listing, PREFIX, 1));
+    }
+
+    @Test
+    @DisplayName("Should slice cached listing in UTF-8 key order")
+    void pageAfterCursorUtf8Order() {
+
+        List<ResourceMetadata> listing = List.of(
+                new ResourceMetadata(PREFIX + "\uFF5E", 1, "e", null),
+                new ResourceMetadata(PREFIX + "\uD83D\uDE00", 1, "e", null));
+
+        assertEquals(listing.subList(1, 2), DirectoryListingCache.page(listing, PREFIX + "\uFF5E", 5));
+        assertEquals(List.of(), DirectoryListingCache.page(listing, PREFIX + "\uD83D\uDE00", 5));
+    }
+}
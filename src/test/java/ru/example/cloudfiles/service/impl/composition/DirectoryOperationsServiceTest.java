@@ -8,29 +8,39 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.example.cloudfiles.config.properties.MinioProperties;
-import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.DirectoryPage;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.exception.storageOperation.directory.NotDirectoryException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.exception.validation.InvalidCursorException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
 import ru.example.cloudfiles.repository.S3Repository;
 import ru.example.cloudfiles.service.impl.PathManager;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 
@@ -49,6 +59,12 @@ class DirectoryOperationsServiceTest {
     @Mock
     private ResourceMapper resourceMapper;
 
+    @Mock
+    private ResourceIndexService indexService;
+
+    @Mock
+    private DirectoryListingCache listingCache;
+
     @InjectMocks
     private DirectoryOperationsService directoryOperationsService;
 
@@ -73,6 +89,7 @@ class DirectoryOperationsServiceTest {
         directoryOperationsService.createUserDirectory(userId);
 
         verify(s3Repo).createDirectory(bucket, userDirectory);
+        verify(indexService).markIndexed(userId);
         verify(paths).getUserDirectory(userId);
         verify(props).getBucket();
     }
@@ -85,23 +102,26 @@ class DirectoryOperationsServiceTest {
         String path = factory.manufacturePojo(String.class) + "/";
         String techPath = factory.manufacturePojo(String.class);
         String bucket = factory.manufacturePojo(String.class);
-        Resource resource = factory.manufacturePojo(Resource.class);
+        ResourceMetadata metadata = new ResourceMetadata(techPath, 0L, "etag", null);
         ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
         when(paths.isDirectory(path)).thenReturn(true);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
         when(props.getBucket()).thenReturn(bucket);
         when(s3Repo.isObjectExists(bucket, techPath)).thenReturn(false);
-        when(s3Repo.getResourceByPath(bucket, techPath)).thenReturn(resource);
-        when(resourceMapper.toDto(userId, resource)).thenReturn(expectedDto);
+        when(s3Repo.createDirectory(bucket, techPath)).thenReturn(List.of(techPath));
+        when(s3Repo.headResource(bucket, techPath)).thenReturn(metadata);
+        when(resourceMapper.toDto(userId, metadata)).thenReturn(expectedDto);
 
         ResourceInfoResponseDTO result = directoryOperationsService.createDirectory(userId, path);
 
         assertEquals(expectedDto, result);
         verify(s3Repo).createDirectory(bucket, techPath);
+        verify(indexService).indexResources(userId, List.of(new ResourceMetadata(techPath, 0, null, null)));
         verify(s3Repo).isObjectExists(bucket, techPath);
-        verify(s3Repo).getResourceByPath(bucket, techPath);
-        verify(resourceMapper).toDto(userId, resource);
+        verify(s3Repo).headResource(bucket, techPath);
+        verify(s3Repo, never()).getResourceByPath(any(), any());
+        verify(resourceMapper).toDto(userId, metadata);
     }
 
     @Test
@@ -144,14 +164,14 @@ class DirectoryOperationsServiceTest {
         String userDir = factory.manufacturePojo(String.class);
         String techPath = factory.manufacturePojo(String.class);
         String bucket = factory.manufacturePojo(String.class);
-        List<String> names = List.of(
-                techPath,
-                techPath + "file1.pdf",
-                techPath + "file2.doc"
+        List<ResourceMetadata> items = List.of(
+                new ResourceMetadata(techPath, 0, null, null),
+                new ResourceMetadata(techPath + "file1.pdf", 10, "etag1", null),
+                new ResourceMetadata(techPath + "file2.doc", 20, "etag2", null)
         );
 
         List<ResourceInfoResponseDTO> expectedDtos = new ArrayList<>();
-        for (int i = 0; i < names.size() - 1; i++) {
+        for (int i = 0; i < items.size() - 1; i++) {
             expectedDtos.add(factory.manufacturePojo(ResourceInfoResponseDTO.class));
         }
 
@@ -160,18 +180,18 @@ class DirectoryOperationsServiceTest {
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
         when(props.getBucket()).thenReturn(bucket);
         when(s3Repo.isObjectExists(bucket, techPath)).thenReturn(true);
-        when(s3Repo.findAllNamesByPrefix(bucket, techPath, false)).thenReturn(names);
+        when(s3Repo.findPageByPrefix(bucket, techPath, techPath, 1001)).thenReturn(items);
 
-        for (int i = 1; i < names.size(); i++) {
-            Resource resource = factory.manufacturePojo(Resource.class);
-            when(s3Repo.getResourceByPath(bucket, names.get(i))).thenReturn(resource);
-            when(resourceMapper.toDto(userId, resource)).thenReturn(expectedDtos.get(i - 1));
+        for (int i = 1; i < items.size(); i++) {
+            when(resourceMapper.toDto(userId, items.get(i))).thenReturn(expectedDtos.get(i - 1));
         }
 
-        List<ResourceInfoResponseDTO> result = directoryOperationsService.getDirectory(userId, path);
+        DirectoryPage result = directoryOperationsService.getDirectory(userId, path, null, 1000);
 
-        assertEquals(expectedDtos.size(), result.size());
-        verify(s3Repo).findAllNamesByPrefix(bucket, techPath, false);
+        assertEquals(expectedDtos, result.items());
+        assertNull(result.nextCursor());
+        verify(s3Repo).findPageByPrefix(bucket, techPath, techPath, 1001);
+        verify(s3Repo, never()).getResourceByPath(any(), any());
     }
 
     @Test
@@ -183,8 +203,8 @@ class DirectoryOperationsServiceTest {
 
         when(paths.isDirectory(path)).thenReturn(false);
 
-        assertThrows(NotDirectoryException.class, () -> directoryOperationsService.getDirectory(userId, path));
-        verify(s3Repo, never()).findAllNamesByPrefix(any(), any(), anyBoolean());
+        assertThrows(NotDirectoryException.class, () -> directoryOperationsService.getDirectory(userId, path, null, 1000));
+        verify(s3Repo, never()).findPageByPrefix(any(), any(), any(), anyInt());
     }
 
     @Test
@@ -201,8 +221,8 @@ class DirectoryOperationsServiceTest {
         when(props.getBucket()).thenReturn(bucket);
         when(s3Repo.isObjectExists(bucket, techPath)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> directoryOperationsService.getDirectory(userId, path));
-        verify(s3Repo, never()).findAllNamesByPrefix(any(), any(), anyBoolean());
+        assertThrows(ResourceNotFoundException.class, () -> directoryOperationsService.getDirectory(userId, path, null, 1000));
+        verify(s3Repo, never()).findPageByPrefix(any(), any(), any(), anyInt());
     }
 
     @Test
@@ -214,11 +234,11 @@ class DirectoryOperationsServiceTest {
         String userDir = factory.manufacturePojo(String.class);
         String techPath = userDir + path;
         String bucket = factory.manufacturePojo(String.class);
-        List<String> names = List.of(
-                userDir,
-                techPath,
-                techPath + "file1.pdf",
-                techPath + "subdir/"
+        List<ResourceMetadata> items = List.of(
+                new ResourceMetadata(userDir, 0, null, null),
+                new ResourceMetadata(techPath, 0, null, null),
+                new ResourceMetadata(techPath + "file1.pdf", 10, "etag1", null),
+                new ResourceMetadata(techPath + "subdir/", 0, null, null)
         );
 
         List<ResourceInfoResponseDTO> expectedDtos = new ArrayList<>();
@@ -231,21 +251,147 @@ class DirectoryOperationsServiceTest {
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
         when(props.getBucket()).thenReturn(bucket);
         when(s3Repo.isObjectExists(bucket, techPath)).thenReturn(true);
-        when(s3Repo.findAllNamesByPrefix(bucket, techPath, false)).thenReturn(names);
+        when(s3Repo.findPageByPrefix(bucket, techPath, techPath, 1001)).thenReturn(items);
 
-        for (int i = 2; i < names.size(); i++) {
-            Resource resource = factory.manufacturePojo(Resource.class);
-            when(s3Repo.getResourceByPath(bucket, names.get(i))).thenReturn(resource);
-            when(resourceMapper.toDto(userId, resource)).thenReturn(expectedDtos.get(i - 2));
+        for (int i = 2; i < items.size(); i++) {
+            when(resourceMapper.toDto(userId, items.get(i))).thenReturn(expectedDtos.get(i - 2));
         }
 
-        List<ResourceInfoResponseDTO> result = directoryOperationsService.getDirectory(userId, path);
+        DirectoryPage result = directoryOperationsService.getDirectory(userId, path, null, 1000);
+
+        assertEquals(2, result.items().size());
+
+        verify(resourceMapper, times(2)).toDto(eq(userId), any(ResourceMetadata.class));
+
+        verify(resourceMapper).toDto(userId, items.get(2));
+        verify(resourceMapper).toDto(userId, items.get(3));
+        verify(s3Repo, never()).getResourceByPath(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should return next cursor when directory has more entries than limit")
+    void getDirectoryReturnsNextCursor() {
 
-        assertEquals(2, result.size());
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/";
+        String userDir = "user-1-files/";
+        String techPath = userDir + path;
+        String bucket = factory.manufacturePojo(String.class);
+        List<ResourceMetadata> items = List.of(
+                new ResourceMetadata(techPath + "a.txt", 1, "etag", null),
+                new ResourceMetadata(techPath + "b/", 0, null, null),
+                new ResourceMetadata(techPath + "c.txt", 1, "etag", null)
+        );
+
+        when(paths.isDirectory(path)).thenReturn(true);
+        when(paths.isDirectory(techPath + "b/")).thenReturn(true);
+        when(paths.getUserDirectory(userId)).thenReturn(userDir);
+        when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(props.getBucket()).thenReturn(bucket);
+        when(s3Repo.isObjectExists(bucket, techPath)).thenReturn(true);
+        when(s3Repo.findPageByPrefix(bucket, techPath, techPath, 3)).thenReturn(items);
+
+        DirectoryPage first = directoryOperationsService.getDirectory(userId, path, null, 2);
+
+        assertEquals(2, first.items().size());
+        assertNotNull(first.nextCursor());
+
+        String startAfter = techPath + "b/" + Character.toString(Character.MAX_CODE_POINT);
+        when(s3Repo.findPageByPrefix(bucket, techPath, startAfter, 3)).thenReturn(List.of(items.get(2)));
+
+        DirectoryPage second = directoryOperationsService.getDirectory(userId, path, first.nextCursor(), 2);
+
+        assertEquals(1, second.items().size());
+        assertNull(second.nextCursor());
+        verify(resourceMapper).toDto(userId, items.get(2));
+    }
+
+    @Test
+    @DisplayName("Should stream directory entries without the directory itself")
+    void streamDirectoryFiltersCurrentDirectory() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/";
+        String userDir = "user-1-files/";
+        String techPath = userDir + path;
+        String bucket = factory.manufacturePojo(String.class);
+        ResourceMetadata file = new ResourceMetadata(techPath + "a.txt", 1, "etag", null);
+        ResourceInfoResponseDTO dto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+
+        when(paths.isDirectory(path)).thenReturn(true);
+        when(paths.getUserDirectory(userId)).thenReturn(userDir);
+        when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(props.getBucket()).thenReturn(bucket);
+        when(s3Repo.isObjectExists(bucket, techPath)).thenReturn(true);
+        when(s3Repo.streamByPrefix(bucket, techPath, false))
+                .thenReturn(Stream.of(new ResourceMetadata(techPath, 0, null, null), file));
+        when(resourceMapper.toDto(userId, file)).thenReturn(dto);
+
+        List<ResourceInfoResponseDTO> result = directoryOperationsService.streamDirectory(userId, path).toList();
+
+        assertEquals(List.of(dto), result);
+    }
+
+    @Test
+    @DisplayName("Should throw NotDirectoryException before streaming a file path")
+    void streamDirectoryNotDirectory() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "file.txt";
+
+        when(paths.isDirectory(path)).thenReturn(false);
+
+        assertThrows(NotDirectoryException.class, () -> directoryOperationsService.streamDirectory(userId, path));
+        verify(s3Repo, never()).streamByPrefix(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidCursorException when cursor points outside directory")
+    void getDirectoryInvalidCursor() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/";
+        String techPath = "user-1-files/" + path;
+        String bucket = factory.manufacturePojo(String.class);
+        String foreignCursor = Base64.getUrlEncoder().encodeToString("user-2-files/x".getBytes(StandardCharsets.UTF_8));
+
+        when(paths.isDirectory(path)).thenReturn(true);
+        when(paths.getUserDirectory(userId)).thenReturn("user-1-files/");
+        when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(props.getBucket()).thenReturn(bucket);
+        when(s3Repo.isObjectExists(bucket, techPath)).thenReturn(true);
+
+        assertThrows(InvalidCursorException.class,
+                () -> directoryOperationsService.getDirectory(userId, path, foreignCursor, 10));
+        assertThrows(InvalidCursorException.class,
+                () -> directoryOperationsService.getDirectory(userId, path, "%%%", 10));
+        verify(s3Repo, never()).findPageByPrefix(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should serve directory page from listing cache without MinIO calls")
+    void getDirectoryFromCache() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/";
+        String techPath = "user-1-files/" + path;
+        List<ResourceMetadata> listing = List.of(
+                new ResourceMetadata(techPath + "a.txt", 1, "etag1", null),
+                new ResourceMetadata(techPath + "b.txt", 2, "etag2", null),
+                new ResourceMetadata(techPath + "c.txt", 3, "etag3", null)
+        );
+        ResourceInfoResponseDTO dto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+
+        when(paths.isDirectory(path)).thenReturn(true);
+        when(paths.getUserDirectory(userId)).thenReturn("user-1-files/");
+        when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(listingCache.find(userId, techPath)).thenReturn(Optional.of(listing));
+        when(resourceMapper.toDto(eq(userId), any(ResourceMetadata.class))).thenReturn(dto);
 
-        verify(s3Repo, times(2)).getResourceByPath(eq(bucket), anyString());
+        DirectoryPage result = directoryOperationsService.getDirectory(userId, path, null, 2);
 
-        verify(s3Repo).getResourceByPath(bucket, techPath + "file1.pdf");
-        verify(s3Repo).getResourceByPath(bucket, techPath + "subdir/");
+        assertEquals(List.of(dto, dto), result.items());
+        assertNotNull(result.nextCursor());
+        verifyNoInteractions(s3Repo);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.util.unit.DataSize;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.PresignedPost;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.response.PresignedUrlResponseDTO;
+import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.upload.PresignedUploadNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.upload.UploadTooLargeException;
+import ru.example.cloudfiles.exception.validation.DirectoryPresignException;
+import ru.example.cloudfiles.mapper.ResourceMapper;
+import ru.example.cloudfiles.repository.PresignedUploadRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PresignServiceTest {
+
+    private static final long USER_ID = 5L;
+    private static final String BUCKET = "bucket";
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration CONFIRM_WINDOW = Duration.ofHours(1);
+    private static final DataSize MAX_SIZE = DataSize.ofMegabytes(5);
+
+    @Mock
+    private S3Repository s3Repo;
+
+    @Mock
+    private UploadService uploadService;
+
+    @Mock
+    private PathManager paths;
+
+    @Mock
+    private MinioProperties props;
+
+    @Mock
+    private ResourceMapper resourceMapper;
+
+    @Mock
+    private ResourceIndexService indexService;
+
+    @Mock
+    private DirectoryListingCache listingCache;
+
+    @Mock
+    private PresignedUploadRepository presignedUploads;
+
+    @Mock
+    private MultipartProperties multipartProps;
+
+    @InjectMocks
+    private PresignService presignService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(props.getBucket()).thenReturn(BUCKET);
+        lenient().when(props.getPresignTtl()).thenReturn(TTL);
+        lenient().when(props.getPresignConfirmWindow()).thenReturn(CONFIRM_WINDOW);
+        lenient().when(multipartProps.getMaxFileSize()).thenReturn(MAX_SIZE);
+        lenient().when(paths.isDirectory(anyString())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).endsWith("/"));
+        lenient().when(paths.toTechnicalPath(eq(USER_ID), anyString())).thenAnswer(invocation ->
+                "user-5-files/" + invocation.getArgument(1));
+    }
+
+    @Test
+    @DisplayName("Should presign GET for user's technical path with short TTL")
+    void presignDownload() {
+
+        when(s3Repo.headResource(BUCKET, "user-5-files/docs/a.pdf"))
+                .thenReturn(new ResourceMetadata("user-5-files/docs/a.pdf", 3, "etag", null));
+        when(s3Repo.getPresignedDownloadUrl(eq(BUCKET), eq("user-5-files/docs/a.pdf"), eq(TTL), contains("a.pdf")))
+                .thenReturn("http://minio/get");
+
+        PresignedUrlResponseDTO result = presignService.presignDownload(USER_ID, "docs/a.pdf");
+
+        assertEquals("http://minio/get", result.url());
+        assertEquals("GET", result.method());
+        assertEquals(TTL.toSeconds(), result.expiresInSeconds());
+    }
+
+    @Test
+    @DisplayName("Should not presign download of missing file")
+    void presignDownloadMissing() {
+
+        when(s3Repo.headResource(BUCKET, "user-5-files/docs/a.pdf")).thenThrow(new ResourceNotFoundException("docs/a.pdf"));
+
+        assertThrows(ResourceNotFoundException.class, () -> presignService.presignDownload(USER_ID, "docs/a.pdf"));
+        verify(s3Repo, never()).getPresignedDownloadUrl(anyString(), anyString(), eq(TTL), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject presigned download of directory")
+    void presignDownloadDirectory() {
+
+        assertThrows(DirectoryPresignException.class, () -> presignService.presignDownload(USER_ID, "docs/"));
+    }
+
+    @Test
+    @DisplayName("Should presign size-bounded POST and record the target")
+    void presignUpload() {
+
+        Map<String, String> formData = Map.of("key", "user-5-files/docs/big.iso", "policy", "encoded");
+        when(s3Repo.getPresignedUpload(BUCKET, "user-5-files/docs/big.iso", TTL, MAX_SIZE.toBytes()))
+                .thenReturn(new PresignedPost("http://minio/bucket", formData));
+
+        PresignedUrlResponseDTO result = presignService.presignUpload(USER_ID, "docs/", "big.iso");
+
+        verify(uploadService).validateTarget(USER_ID, "docs/", "big.iso");
+        verify(presignedUploads).save(eq(USER_ID), eq("docs/big.iso"), any(Instant.class), eq(TTL.plus(CONFIRM_WINDOW)));
+        assertEquals("docs/big.iso", result.path());
+        assertEquals("POST", result.method());
+        assertEquals("http://minio/bucket", result.url());
+        assertEquals(formData, result.formData());
+    }
+
+    @Test
+    @DisplayName("Should not presign upload over existing resource")
+    void presignUploadConflict() {
+
+        doThrow(new ResourceAlreadyExistsException("big.iso"))
+                .when(uploadService).validateTarget(USER_ID, "docs/", "big.iso");
+
+        assertThrows(ResourceAlreadyExistsException.class,
+                () -> presignService.presignUpload(USER_ID, "docs/", "big.iso"));
+        verify(s3Repo, never()).getPresignedUpload(anyString(), anyString(), eq(TTL), anyLong());
+        verify(presignedUploads, never()).save(anyLong(), anyString(), any(Instant.class), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Should index uploaded object on confirmation")
+    void confirmUpload() {
+
+        ResourceMetadata uploaded = new ResourceMetadata("user-5-files/docs/big.iso", 42, "etag", null);
+        ResourceInfoResponseDTO dto = new ResourceInfoResponseDTO("docs/", "big.iso", 42L, null);
+        when(presignedUploads.findExpiry(USER_ID, "docs/big.iso")).thenReturn(Optional.of(Instant.now()));
+        when(s3Repo.headResource(BUCKET, "user-5-files/docs/big.iso")).thenReturn(uploaded);
+        when(resourceMapper.toDto(USER_ID, uploaded)).thenReturn(dto);
+
+        ResourceInfoResponseDTO result = presignService.confirmUpload(USER_ID, "docs/big.iso");
+
+        assertSame(dto, result);
+        verify(indexService).indexResources(USER_ID, List.of(uploaded));
+        verify(presignedUploads).delete(USER_ID, "docs/big.iso");
+    }
+
+    @Test
+    @DisplayName("Should reject confirmation of path that was not presigned for the user")
+    void confirmUploadNotPresigned() {
+
+        when(presignedUploads.findExpiry(USER_ID, "docs/big.iso")).thenReturn(Optional.empty());
+
+        assertThrows(PresignedUploadNotFoundException.class,
+                () -> presignService.confirmUpload(USER_ID, "docs/big.iso"));
+        verify(s3Repo, never()).headResource(anyString(), anyString());
+        verify(indexService, never()).indexResources(anyLong(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject and remove uploaded object larger than the limit")
+    void confirmUploadTooLarge() {
+
+        ResourceMetadata uploaded = new ResourceMetadata("user-5-files/docs/big.iso", MAX_SIZE.toBytes() + 1, "etag", null);
+        when(presignedUploads.findExpiry(USER_ID, "docs/big.iso")).thenReturn(Optional.of(Instant.now()));
+        when(s3Repo.headResource(BUCKET, "user-5-files/docs/big.iso")).thenReturn(uploaded);
+
+        assertThrows(UploadTooLargeException.class, () -> presignService.confirmUpload(USER_ID, "docs/big.iso"));
+        verify(s3Repo).deleteResource(BUCKET, "user-5-files/docs/big.iso");
+        verify(presignedUploads).delete(USER_ID, "docs/big.iso");
+        verify(indexService, never()).indexResources(anyLong(), anyList());
+    }
+}
@@ -0,0 +1,226 @@
+package ru.example.cloudfiles.service.impl.composition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.dto.ResourceType;
+import ru.example.cloudfiles.entity.IndexedResource;
+import ru.example.cloudfiles.repository.ResourceIndexRepository;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+@ExtendWith(MockitoExtension.class)
+class ResourceIndexServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final String USER_DIR = "user-7-files/";
+
+    @Mock
+    private ResourceIndexRepository indexRepo;
+
+    @Mock
+    private S3Repository s3Repo;
+
+    @Mock
+    private MinioProperties props;
+
+    @Spy
+    private PathManager paths = new PathManager(pathProperties());
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private ResourceIndexService indexService;
+
+    private ArgumentCaptor<IndexedResource> entryCaptor;
+
+    @BeforeEach
+    void setUp() {
+        entryCaptor = ArgumentCaptor.forClass(IndexedResource.class);
+    }
+
+    @Test
+    @DisplayName("Should query index with escaped contains pattern")
+    void searchIndexed() {
+
+        IndexedResource entry = new IndexedResource();
+        when(indexRepo.existsByUserIdAndPath(USER_ID, "")).thenReturn(true);
+        when(indexRepo.searchByName(USER_ID, "%50\\%\\_off%", PageRequest.of(1, 20))).thenReturn(new SliceImpl<>(List.of(entry)));
+
+        Slice<IndexedResource> result = indexService.search(USER_ID, "50%_off", 1, 20);
+
+        assertEquals(List.of(entry), result.getContent());
+        verify(s3Repo, never()).findAllByPrefix(anyString(), anyString(), any(Boolean.class));
+    }
+
+    @Test
+    @DisplayName("Should build index from storage on first search")
+    void searchBuildsIndex() {
+
+        ZonedDateTime modified = ZonedDateTime.now();
+        when(props.getBucket()).thenReturn("bucket");
+        when(indexRepo.existsByUserIdAndPath(USER_ID, "")).thenReturn(false);
+        when(s3Repo.findAllByPrefix("bucket", USER_DIR, true)).thenReturn(List.of(
+                new ResourceMetadata(USER_DIR, 0, null, null),
+                new ResourceMetadata(USER_DIR + "docs/", 0, null, null),
+                new ResourceMetadata(USER_DIR + "docs/report.pdf", 42, "etag", modified)));
+        when(indexRepo.searchByName(USER_ID, "%report%", PageRequest.of(0, 50))).thenReturn(new SliceImpl<>(List.of()));
+
+        indexService.search(USER_ID, "report", 0, 50);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IndexedResource>> entriesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(indexRepo).deleteAllByUserId(USER_ID);
+        verify(indexRepo).saveAll(entriesCaptor.capture());
+        verify(indexRepo).save(entryCaptor.capture());
+
+        List<IndexedResource> entries = entriesCaptor.getValue();
+        assertEquals(2, entries.size());
+        assertEquals("docs/", entries.get(0).getPath());
+        assertEquals("docs", entries.get(0).getName());
+        assertEquals(ResourceType.DIRECTORY, entries.get(0).getType());
+        assertEquals("docs/report.pdf", entries.get(1).getPath());
+        assertEquals("report.pdf", entries.get(1).getName());
+        assertEquals(42, entries.get(1).getSize());
+        assertEquals(modified.toInstant(), entries.get(1).getLastModified());
+        assertEquals("", entryCaptor.getValue().getPath());
+    }
+
+    @Test
+    @DisplayName("Should insert new entry for uploaded resource")
+    void indexResourcesInsert() {
+
+        when(indexRepo.findByUserIdAndPath(USER_ID, "docs/a.txt")).thenReturn(Optional.empty());
+
+        indexService.indexResources(USER_ID, List.of(new ResourceMetadata(USER_DIR + "docs/a.txt", 5, "e", null)));
+
+        verify(indexRepo).save(entryCaptor.capture());
+        assertEquals(USER_ID, entryCaptor.getValue().getUserId());
+        assertEquals("docs/a.txt", entryCaptor.getValue().getPath());
+        assertEquals("a.txt", entryCaptor.getValue().getName());
+        assertEquals(ResourceType.FILE, entryCaptor.getValue().getType());
+    }
+
+    @Test
+    @DisplayName("Should remove directory subtree from index")
+    void removeDirectory() {
+
+        indexService.removeResource(USER_ID, "my_docs/");
+
+        verify(indexRepo).deleteByPathPattern(USER_ID, "my\\_docs/%");
+    }
+
+    @Test
+    @DisplayName("Should remove single file from index")
+    void removeFile() {
+
+        indexService.removeResource(USER_ID, "docs/a.txt");
+
+        verify(indexRepo).deleteByPathPattern(USER_ID, "docs/a.txt");
+    }
+
+    @Test
+    @DisplayName("Should rewrite directory prefix and rename its entry")
+    void moveDirectory() {
+
+        IndexedResource root = new IndexedResource();
+        root.setName("docs");
+        when(indexRepo.findByUserIdAndPath(USER_ID, "archive/old/")).thenReturn(Optional.of(root));
+
+        indexService.moveDirectory(USER_ID, "docs/", "archive/old/");
+
+        verify(indexRepo).movePathPattern(USER_ID, "docs/%", 5, "archive/old/");
+        assertEquals("old", root.getName());
+    }
+
+    @Test
+    @DisplayName("Should move file entry")
+    void moveFile() {
+
+        IndexedResource entry = new IndexedResource();
+        when(indexRepo.findByUserIdAndPath(USER_ID, "a.txt")).thenReturn(Optional.of(entry));
+
+        indexService.moveFile(USER_ID, "a.txt", "docs/b.txt");
+
+        assertEquals("docs/b.txt", entry.getPath());
+        assertEquals("b.txt", entry.getName());
+    }
+
+    @Test
+    @DisplayName("Should invalidate index instead of failing when update fails")
+    void updateFailureInvalidatesIndex() {
+
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(indexRepo).deleteByPathPattern(USER_ID, "docs/a.txt");
+
+        indexService.removeResource(USER_ID, "docs/a.txt");
+
+        verify(indexRepo).deleteByPathPattern(USER_ID, "");
+    }
+
+    private static MinioProperties pathProperties() {
+
+        MinioProperties properties = new MinioProperties();
+        properties.setUserDirectoryPattern("user-%d-files/");
+        return properties;
+    }
+
+    @Test
+    @DisplayName("Should stream search results in keyset batches")
+    void streamSearchBatches() {
+
+        List<IndexedResource> firstBatch = IntStream.range(0, 500)
+                .mapToObj(i -> indexedEntry("docs/file-%03d".formatted(i)))
+                .toList();
+        IndexedResource last = indexedEntry("docs/zzz");
+        when(indexRepo.existsByUserIdAndPath(USER_ID, "")).thenReturn(true);
+        when(indexRepo.searchByNameAfter(USER_ID, "%file%", "", PageRequest.of(0, 500))).thenReturn(firstBatch);
+        when(indexRepo.searchByNameAfter(USER_ID, "%file%", "docs/file-499", PageRequest.of(0, 500)))
+                .thenReturn(List.of(last));
+
+        List<IndexedResource> result = indexService.streamSearch(USER_ID, "FILE").toList();
+
+        assertEquals(501, result.size());
+        assertEquals(last, result.getLast());
+        verify(indexRepo, times(2)).searchByNameAfter(anyLong(), anyString(), anyString(), any());
+    }
+
+    private IndexedResource indexedEntry(String path) {
+
+        IndexedResource entry = new IndexedResource();
+        entry.setPath(path);
+        return entry;
+    }
+}
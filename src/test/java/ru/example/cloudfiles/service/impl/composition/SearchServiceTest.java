@@ -7,28 +7,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.example.cloudfiles.config.properties.MinioProperties;
-import ru.example.cloudfiles.dto.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.example.cloudfiles.dto.ResourceType;
+import ru.example.cloudfiles.dto.SearchPage;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
+import ru.example.cloudfiles.entity.IndexedResource;
 import ru.example.cloudfiles.exception.validation.InvalidSearchQueryException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
-import ru.example.cloudfiles.repository.S3Repository;
-import ru.example.cloudfiles.service.impl.PathManager;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,13 +38,7 @@ import static org.mockito.Mockito.when;
 class SearchServiceTest {
 
     @Mock
-    private S3Repository s3Repo;
-
-    @Mock
-    private PathManager paths;
-
-    @Mock
-    private MinioProperties props;
+    private ResourceIndexService indexService;
 
     @Mock
     private ResourceMapper resourceMapper;
@@ -59,150 +54,91 @@ class SearchServiceTest {
     }
 
     @Test
-    @DisplayName("Should search resources successfully with matching query")
+    @DisplayName("Should map indexed matches to response DTOs")
     void searchOk() {
 
         long userId = factory.manufacturePojo(Long.class);
         String query = "doc";
-        String bucket = factory.manufacturePojo(String.class);
-        String userDirectory = "user-" + userId + "/";
-
-        List<String> technicalPaths = List.of(
-                userDirectory + "document.txt",
-                userDirectory + "image.jpg",
-                userDirectory + "documents/file.pdf",
-                userDirectory + "photos/picture.png",
-                userDirectory + "readme.doc"
-        );
-
-        List<String> filteredUserPaths = List.of(
-                "document.txt",
-                "documents/file.pdf",
-                "readme.doc"
-        );
-
-        Resource resource1 = factory.manufacturePojo(Resource.class);
-        Resource resource2 = factory.manufacturePojo(Resource.class);
-        Resource resource3 = factory.manufacturePojo(Resource.class);
-        List<Resource> resources = List.of(resource1, resource2, resource3);
+
+        IndexedResource entry1 = entryOf(userId, "document.txt", ResourceType.FILE);
+        IndexedResource entry2 = entryOf(userId, "documents/", ResourceType.DIRECTORY);
 
         ResourceInfoResponseDTO dto1 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
         ResourceInfoResponseDTO dto2 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-        ResourceInfoResponseDTO dto3 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-        List<ResourceInfoResponseDTO> expectedDtos = List.of(dto1, dto2, dto3);
-
-        when(props.getBucket()).thenReturn(bucket);
-        when(paths.toTechnicalPath(userId, "")).thenReturn(userDirectory);
-        when(s3Repo.findAllNamesByPrefix(bucket, userDirectory, true)).thenReturn(technicalPaths);
-
-        for (String technicalPath : technicalPaths) {
-            when(paths.toUserPath(userId, technicalPath)).thenReturn(technicalPath.substring(userDirectory.length()));
-        }
-
-        for (int i = 0; i < filteredUserPaths.size(); i++) {
-            String userPath = filteredUserPaths.get(i);
-            String technicalPath = userDirectory + userPath;
-            when(paths.toTechnicalPath(userId, userPath)).thenReturn(technicalPath);
-            when(s3Repo.getResourceByPath(bucket, technicalPath)).thenReturn(resources.get(i));
-            when(resourceMapper.toDto(userId, resources.get(i))).thenReturn(expectedDtos.get(i));
-        }
-
-        List<ResourceInfoResponseDTO> result = searchService.search(userId, query);
-
-        assertEquals(filteredUserPaths.size(), result.size());
-        verify(s3Repo).findAllNamesByPrefix(bucket, userDirectory, true);
-        verify(s3Repo, times(filteredUserPaths.size())).getResourceByPath(eq(bucket), anyString());
-        verify(resourceMapper, times(filteredUserPaths.size())).toDto(eq(userId), any(Resource.class));
+
+        when(indexService.search(userId, query, 0, 50)).thenReturn(new SliceImpl<>(List.of(entry1, entry2)));
+        when(resourceMapper.toDto(userId, entry1)).thenReturn(dto1);
+        when(resourceMapper.toDto(userId, entry2)).thenReturn(dto2);
+
+        SearchPage result = searchService.search(userId, query, 0, 50);
+
+        assertEquals(List.of(dto1, dto2), result.items());
+        assertNull(result.nextPage());
+        verify(indexService).search(userId, query, 0, 50);
     }
 
     @Test
-    @DisplayName("Should filter resources by query")
-    void searchWithFiltering() {
+    @DisplayName("Should pass requested page to index")
+    void searchPaged() {
 
         long userId = factory.manufacturePojo(Long.class);
-        String query = "doc";
-        String bucket = factory.manufacturePojo(String.class);
-        String userDirectory = factory.manufacturePojo(String.class);
-
-        List<String> technicalPaths = List.of(
-                userDirectory + "document.txt",
-                userDirectory + "image.jpg",
-                userDirectory + "documents/file.pdf",
-                userDirectory + "readme.txt"
-        );
+        IndexedResource entry = entryOf(userId, "report.pdf", ResourceType.FILE);
+        ResourceInfoResponseDTO dto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
-        List<String> matchingUserPaths = List.of("document.txt", "documents/file.pdf");
+        when(indexService.search(userId, "report", 3, 10)).thenReturn(new SliceImpl<>(List.of(entry)));
+        when(resourceMapper.toDto(userId, entry)).thenReturn(dto);
 
-        Resource resource1 = factory.manufacturePojo(Resource.class);
-        Resource resource2 = factory.manufacturePojo(Resource.class);
-        List<Resource> matchingResources = List.of(resource1, resource2);
+        SearchPage result = searchService.search(userId, "report", 3, 10);
 
-        ResourceInfoResponseDTO dto1 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-        ResourceInfoResponseDTO dto2 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-        List<ResourceInfoResponseDTO> expectedDtos = List.of(dto1, dto2);
-
-        when(props.getBucket()).thenReturn(bucket);
-        when(paths.toTechnicalPath(userId, "")).thenReturn(userDirectory);
-        when(s3Repo.findAllNamesByPrefix(bucket, userDirectory, true)).thenReturn(technicalPaths);
-
-        for (String techPath : technicalPaths) {
-            String userPath = techPath.substring(userDirectory.length());
-            when(paths.toUserPath(userId, techPath)).thenReturn(userPath);
-        }
-
-        for (int i = 0; i < matchingUserPaths.size(); i++) {
-            String userPath = matchingUserPaths.get(i);
-            String techPath = userDirectory + userPath;
-            when(paths.toTechnicalPath(userId, userPath)).thenReturn(techPath);
-            when(s3Repo.getResourceByPath(bucket, techPath)).thenReturn(matchingResources.get(i));
-            when(resourceMapper.toDto(userId, matchingResources.get(i))).thenReturn(expectedDtos.get(i));
-        }
-
-        List<ResourceInfoResponseDTO> result = searchService.search(userId, query);
-
-        assertEquals(matchingUserPaths.size(), result.size());
-        verify(s3Repo, times(matchingUserPaths.size())).getResourceByPath(eq(bucket), anyString());
-        verify(resourceMapper, times(matchingUserPaths.size())).toDto(eq(userId), any(Resource.class));
+        assertEquals(List.of(dto), result.items());
     }
 
     @Test
-    @DisplayName("Should handle case insensitive search")
-    void searchCaseInsensitive() {
+    @DisplayName("Should point to the next page only when more matches remain")
+    void searchNextPage() {
 
         long userId = factory.manufacturePojo(Long.class);
-        String query = "DOC";
-        String bucket = factory.manufacturePojo(String.class);
-        String userDirectory = factory.manufacturePojo(String.class);
+        IndexedResource entry1 = entryOf(userId, "report-1.pdf", ResourceType.FILE);
+        IndexedResource entry2 = entryOf(userId, "report-2.pdf", ResourceType.FILE);
 
-        List<String> technicalPaths = List.of(
-                userDirectory + "document.txt",
-                userDirectory + "DOCUMENT.pdf"
-        );
+        when(indexService.search(userId, "report", 0, 2))
+                .thenReturn(new SliceImpl<>(List.of(entry1, entry2), PageRequest.of(0, 2), true));
+        when(indexService.search(userId, "report", 1, 2))
+                .thenReturn(new SliceImpl<>(List.of(entry1, entry2), PageRequest.of(1, 2), false));
 
-        Resource resource1 = factory.manufacturePojo(Resource.class);
-        Resource resource2 = factory.manufacturePojo(Resource.class);
-        List<Resource> resources = List.of(resource1, resource2);
+        SearchPage first = searchService.search(userId, "report", 0, 2);
+        SearchPage last = searchService.search(userId, "report", 1, 2);
 
-        ResourceInfoResponseDTO dto1 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-        ResourceInfoResponseDTO dto2 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-        List<ResourceInfoResponseDTO> expectedDtos = List.of(dto1, dto2);
+        assertEquals(1, first.nextPage());
+        assertEquals(2, first.items().size());
+        assertNull(last.nextPage());
+        assertEquals(2, last.items().size());
+    }
 
-        when(props.getBucket()).thenReturn(bucket);
-        when(paths.toTechnicalPath(userId, "")).thenReturn(userDirectory);
-        when(s3Repo.findAllNamesByPrefix(bucket, userDirectory, true)).thenReturn(technicalPaths);
+    @Test
+    @DisplayName("Should stream normalized query matches as response DTOs")
+    void streamSearchOk() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        IndexedResource entry = entryOf(userId, "report.pdf", ResourceType.FILE);
+        ResourceInfoResponseDTO dto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
-        for (int i = 0; i < technicalPaths.size(); i++) {
-            String userPath = technicalPaths.get(i).substring(userDirectory.length());
-            when(paths.toUserPath(userId, technicalPaths.get(i))).thenReturn(userPath);
-            when(paths.toTechnicalPath(userId, userPath)).thenReturn(technicalPaths.get(i));
-            when(s3Repo.getResourceByPath(bucket, technicalPaths.get(i))).thenReturn(resources.get(i));
-            when(resourceMapper.toDto(userId, resources.get(i))).thenReturn(expectedDtos.get(i));
-        }
+        when(indexService.streamSearch(userId, "report")).thenReturn(Stream.of(entry));
+        when(resourceMapper.toDto(userId, entry)).thenReturn(dto);
 
-        List<ResourceInfoResponseDTO> result = searchService.search(userId, query);
+        List<ResourceInfoResponseDTO> result = searchService.streamSearch(userId, "  Report ").toList();
 
-        assertEquals(technicalPaths.size(), result.size());
-        verify(s3Repo, times(technicalPaths.size())).getResourceByPath(eq(bucket), anyString());
+        assertEquals(List.of(dto), result);
+    }
+
+    @Test
+    @DisplayName("Should reject blank query before streaming")
+    void streamSearchBlankQuery() {
+
+        long userId = factory.manufacturePojo(Long.class);
+
+        assertThrows(InvalidSearchQueryException.class, () -> searchService.streamSearch(userId, " "));
+        verify(indexService, never()).streamSearch(anyLong(), anyString());
     }
 
     @Test
@@ -211,8 +147,8 @@ class SearchServiceTest {
 
         long userId = factory.manufacturePojo(Long.class);
 
-        assertThrows(InvalidSearchQueryException.class, () -> searchService.search(userId, null));
-        verify(s3Repo, never()).findAllNamesByPrefix(any(), any(), anyBoolean());
+        assertThrows(InvalidSearchQueryException.class, () -> searchService.search(userId, null, 0, 50));
+        verify(indexService, never()).search(anyLong(), anyString(), anyInt(), anyInt());
     }
 
     @Test
@@ -221,8 +157,8 @@ class SearchServiceTest {
 
         long userId = factory.manufacturePojo(Long.class);
 
-        assertThrows(InvalidSearchQueryException.class, () -> searchService.search(userId, ""));
-        verify(s3Repo, never()).findAllNamesByPrefix(any(), any(), anyBoolean());
+        assertThrows(InvalidSearchQueryException.class, () -> searchService.search(userId, "", 0, 50));
+        verify(indexService, never()).search(anyLong(), anyString(), anyInt(), anyInt());
     }
 
     @Test
@@ -231,8 +167,8 @@ class SearchServiceTest {
 
         long userId = factory.manufacturePojo(Long.class);
 
-        assertThrows(InvalidSearchQueryException.class, () -> searchService.search(userId, "   "));
-        verify(s3Repo, never()).findAllNamesByPrefix(any(), any(), anyBoolean());
+        assertThrows(InvalidSearchQueryException.class, () -> searchService.search(userId, "   ", 0, 50));
+        verify(indexService, never()).search(anyLong(), anyString(), anyInt(), anyInt());
     }
 
     @Test
@@ -240,62 +176,13 @@ class SearchServiceTest {
     void searchNoMatches() {
 
         long userId = factory.manufacturePojo(Long.class);
-        String query = "nonexistent";
-        String bucket = factory.manufacturePojo(String.class);
-        String userDirectory = factory.manufacturePojo(String.class);
-
-        List<String> technicalPaths = List.of(
-                userDirectory + "document.txt",
-                userDirectory + "image.jpg"
-        );
 
-        when(props.getBucket()).thenReturn(bucket);
-        when(paths.toTechnicalPath(userId, "")).thenReturn(userDirectory);
-        when(s3Repo.findAllNamesByPrefix(bucket, userDirectory, true)).thenReturn(technicalPaths);
+        when(indexService.search(userId, "nonexistent", 0, 50)).thenReturn(new SliceImpl<>(List.of()));
 
-        for (String techPath : technicalPaths) {
-            String userPath = techPath.substring(userDirectory.length());
-            when(paths.toUserPath(userId, techPath)).thenReturn(userPath);
-        }
+        SearchPage result = searchService.search(userId, "nonexistent", 0, 50);
 
-        List<ResourceInfoResponseDTO> result = searchService.search(userId, query);
-
-        assertTrue(result.isEmpty());
-        verify(s3Repo, never()).getResourceByPath(any(), any());
-        verify(resourceMapper, never()).toDto(anyLong(), any(Resource.class));
-    }
-
-    @Test
-    @DisplayName("Should handle query with special characters")
-    void searchSpecialCharacters() {
-
-        long userId = factory.manufacturePojo(Long.class);
-        String query = "file-2024_v1.2";
-        String bucket = factory.manufacturePojo(String.class);
-        String userDirectory = factory.manufacturePojo(String.class);
-
-        List<String> technicalPaths = List.of(
-                userDirectory + "file-2024_v1.2.txt"
-        );
-
-        Resource resource = factory.manufacturePojo(Resource.class);
-        ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
-
-        when(props.getBucket()).thenReturn(bucket);
-        when(paths.toTechnicalPath(userId, "")).thenReturn(userDirectory);
-        when(s3Repo.findAllNamesByPrefix(bucket, userDirectory, true)).thenReturn(technicalPaths);
-
-        String userPath = technicalPaths.getFirst().substring(userDirectory.length());
-        when(paths.toUserPath(userId, technicalPaths.getFirst())).thenReturn(userPath);
-        when(paths.toTechnicalPath(userId, userPath)).thenReturn(technicalPaths.getFirst());
-        when(s3Repo.getResourceByPath(bucket, technicalPaths.getFirst())).thenReturn(resource);
-        when(resourceMapper.toDto(userId, resource)).thenReturn(expectedDto);
-
-        List<ResourceInfoResponseDTO> result = searchService.search(userId, query);
-
-        assertEquals(1, result.size());
-        assertEquals(expectedDto, result.getFirst());
-        verify(s3Repo).getResourceByPath(bucket, technicalPaths.getFirst());
+        assertTrue(result.items().isEmpty());
+        verify(resourceMapper, never()).toDto(anyLong(), any(IndexedResource.class));
     }
 
     @Test
@@ -303,30 +190,25 @@ class SearchServiceTest {
     void searchNormalizesQuery() {
 
         long userId = factory.manufacturePojo(Long.class);
-        String rawQuery = "  DOCument  ";
-        String bucket = factory.manufacturePojo(String.class);
-        String userDirectory = factory.manufacturePojo(String.class);
+        IndexedResource entry = entryOf(userId, "document.txt", ResourceType.FILE);
+        ResourceInfoResponseDTO dto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
-        List<String> technicalPaths = List.of(
-                userDirectory + "document.txt"
-        );
+        when(indexService.search(userId, "document", 0, 50)).thenReturn(new SliceImpl<>(List.of(entry)));
+        when(resourceMapper.toDto(userId, entry)).thenReturn(dto);
 
-        Resource resource = factory.manufacturePojo(Resource.class);
-        ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+        SearchPage result = searchService.search(userId, "  DOCument  ", 0, 50);
 
-        when(props.getBucket()).thenReturn(bucket);
-        when(paths.toTechnicalPath(userId, "")).thenReturn(userDirectory);
-        when(s3Repo.findAllNamesByPrefix(bucket, userDirectory, true)).thenReturn(technicalPaths);
-
-        String userPath = technicalPaths.getFirst().substring(userDirectory.length());
-        when(paths.toUserPath(userId, technicalPaths.getFirst())).thenReturn(userPath);
-        when(paths.toTechnicalPath(userId, userPath)).thenReturn(technicalPaths.getFirst());
-        when(s3Repo.getResourceByPath(bucket, technicalPaths.getFirst())).thenReturn(resource);
-        when(resourceMapper.toDto(userId, resource)).thenReturn(expectedDto);
+        assertEquals(1, result.items().size());
+        verify(indexService).search(userId, "document", 0, 50);
+    }
 
-        List<ResourceInfoResponseDTO> result = searchService.search(userId, rawQuery);
+    private IndexedResource entryOf(long userId, String path, ResourceType type) {
 
-        assertEquals(1, result.size());
-        verify(s3Repo).getResourceByPath(bucket, technicalPaths.getFirst());
+        IndexedResource entry = new IndexedResource();
+        entry.setUserId(userId);
+        entry.setPath(path);
+        entry.setName(path);
+        entry.setType(type);
+        return entry;
     }
-}
\ No newline at end of file
+}
@@ -7,17 +7,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 import ru.example.cloudfiles.config.properties.MinioProperties;
-import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryNotExistException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceUploadException;
+import ru.example.cloudfiles.exception.storageOperation.upload.PartialUploadException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
 import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.ParallelTaskRunner;
 import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.UserConcurrencyLimiter;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
@@ -25,12 +29,15 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -52,6 +59,18 @@ class UploadServiceTest {
     @Mock
     private ResourceMapper resourceMapper;
 
+    @Mock
+    private ResourceIndexService indexService;
+
+    @Spy
+    private ParallelTaskRunner taskRunner = new ParallelTaskRunner();
+
+    @Spy
+    private UserConcurrencyLimiter userLimiter = new UserConcurrencyLimiter();
+
+    @Mock
+    private DirectoryListingCache listingCache;
+
     @InjectMocks
     private UploadService uploadService;
 
@@ -60,6 +79,13 @@ class UploadServiceTest {
     @BeforeEach
     void setUp() {
         factory = new PodamFactoryImpl();
+        lenient().when(props.getUserLookupConcurrency()).thenReturn(8);
+        lenient().when(props.getUploadConcurrency()).thenReturn(4);
+        lenient().when(props.getUserUploadConcurrency()).thenReturn(8);
+        lenient().when(paths.toTechnicalPath(anyLong(), anyString()))
+                .thenAnswer(invocation -> "user/" + invocation.getArgument(1));
+        lenient().when(paths.isDirectory(anyString()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(0).endsWith("/"));
     }
 
     @Test
@@ -79,8 +105,8 @@ class UploadServiceTest {
         String techPath1 = "user-" + userId + "/documents/file1.txt";
         String techPath2 = "user-" + userId + "/documents/file2.jpg";
 
-        Resource resource1 = factory.manufacturePojo(Resource.class);
-        Resource resource2 = factory.manufacturePojo(Resource.class);
+        ResourceMetadata metadata1 = new ResourceMetadata(techPath1, 8L, "etag1", null);
+        ResourceMetadata metadata2 = new ResourceMetadata(techPath2, 8L, "etag2", null);
         ResourceInfoResponseDTO dto1 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
         ResourceInfoResponseDTO dto2 = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
@@ -100,22 +126,116 @@ class UploadServiceTest {
             throw new RuntimeException(e);
         }
 
-        when(s3Repo.isObjectExists(bucket, "user-" + userId + "/documents/")).thenReturn(true);
-        when(s3Repo.isObjectExists(bucket, techPath1)).thenReturn(false);
-        when(s3Repo.isObjectExists(bucket, techPath2)).thenReturn(false);
+        when(s3Repo.findExisting(eq(bucket), any())).thenReturn(Set.of("user-" + userId + "/documents/"));
 
-        when(s3Repo.getResourceByPath(bucket, techPath1)).thenReturn(resource1);
-        when(s3Repo.getResourceByPath(bucket, techPath2)).thenReturn(resource2);
+        when(file1.getSize()).thenReturn(8L);
+        when(file2.getSize()).thenReturn(8L);
+        when(s3Repo.saveResource(eq(bucket), eq(techPath1), any(InputStream.class), eq(8L))).thenReturn(metadata1);
+        when(s3Repo.saveResource(eq(bucket), eq(techPath2), any(InputStream.class), eq(8L))).thenReturn(metadata2);
 
-        when(resourceMapper.toDto(userId, resource1)).thenReturn(dto1);
-        when(resourceMapper.toDto(userId, resource2)).thenReturn(dto2);
+        when(resourceMapper.toDto(userId, metadata1)).thenReturn(dto1);
+        when(resourceMapper.toDto(userId, metadata2)).thenReturn(dto2);
 
         List<ResourceInfoResponseDTO> result = uploadService.upload(userId, uploadPath, files);
 
         assertEquals(2, result.size());
-        verify(s3Repo, times(2)).saveResource(eq(bucket), anyString(), any(InputStream.class));
-        verify(s3Repo, times(2)).getResourceByPath(eq(bucket), anyString());
-        verify(resourceMapper, times(2)).toDto(eq(userId), any(Resource.class));
+        verify(s3Repo, times(2)).saveResource(eq(bucket), anyString(), any(InputStream.class), eq(8L));
+        verify(s3Repo, never()).headResource(any(), any());
+        verify(s3Repo, never()).getResourceByPath(any(), any());
+        verify(resourceMapper, times(2)).toDto(eq(userId), any(ResourceMetadata.class));
+        verify(indexService).indexResources(userId, List.of(metadata1, metadata2));
+        verify(s3Repo).findExisting(bucket, Set.of("user-" + userId + "/documents/", techPath1, techPath2));
+        verify(s3Repo, never()).isObjectExists(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should check target files and all parent directories in one lookup")
+    void uploadNestedSingleLookup() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String bucket = factory.manufacturePojo(String.class);
+        MultipartFile file1 = mock(MultipartFile.class);
+        MultipartFile file2 = mock(MultipartFile.class);
+        MultipartFile[] files = {file1, file2};
+
+        when(props.getBucket()).thenReturn(bucket);
+        when(paths.isDirectory("docs/")).thenReturn(true);
+        when(file1.getOriginalFilename()).thenReturn("a/b.txt");
+        when(file2.getOriginalFilename()).thenReturn("c.txt");
+        when(s3Repo.findExisting(eq(bucket), any())).thenReturn(Set.of("user/docs/", "user/docs/c.txt"));
+
+        assertThrows(ResourceAlreadyExistsException.class, () -> uploadService.upload(userId, "docs/", files));
+
+        verify(s3Repo).findExisting(bucket, Set.of("user/docs/", "user/docs/a/", "user/docs/a/b.txt",
+                "user/docs/c.txt"));
+        verify(s3Repo, never()).saveResource(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should stream raw upload body to storage and index it")
+    void uploadStreamOk() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String uploadPath = "documents/";
+        String filename = "video.mp4";
+        String bucket = factory.manufacturePojo(String.class);
+        String techDir = "user-" + userId + "/documents/";
+        String techPath = techDir + filename;
+        InputStream body = new ByteArrayInputStream("content".getBytes());
+        ResourceMetadata metadata = new ResourceMetadata(techPath, 7L, "etag", null);
+        ResourceInfoResponseDTO dto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+
+        when(props.getBucket()).thenReturn(bucket);
+        when(paths.isDirectory(uploadPath)).thenReturn(true);
+        when(paths.toTechnicalPath(userId, uploadPath)).thenReturn(techDir);
+        when(paths.toTechnicalPath(userId, uploadPath + filename)).thenReturn(techPath);
+        when(s3Repo.findExisting(eq(bucket), any())).thenReturn(Set.of(techDir));
+        when(s3Repo.saveResource(bucket, techPath, body, 7)).thenReturn(metadata);
+        when(resourceMapper.toDto(userId, metadata)).thenReturn(dto);
+
+        ResourceInfoResponseDTO result = uploadService.uploadStream(userId, uploadPath, filename, body, 7);
+
+        assertEquals(dto, result);
+        verify(s3Repo, never()).headResource(any(), any());
+        verify(s3Repo, never()).createDirectory(any(), any());
+        verify(indexService).indexResources(userId, List.of(metadata));
+    }
+
+    @Test
+    @DisplayName("Should create missing parent directories of an uploaded file")
+    void uploadStreamCreatesParentDirs() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String bucket = factory.manufacturePojo(String.class);
+        InputStream body = InputStream.nullInputStream();
+        ResourceMetadata metadata = new ResourceMetadata("user/new/a.txt", 0L, "etag", null);
+
+        when(props.getBucket()).thenReturn(bucket);
+        when(paths.getUserDirectory(userId)).thenReturn("user/");
+        when(s3Repo.findExisting(eq(bucket), any())).thenReturn(Set.of());
+        when(s3Repo.saveResource(bucket, "user/new/a.txt", body, -1)).thenReturn(metadata);
+        when(s3Repo.createDirectory(bucket, "user/new/")).thenReturn(List.of("user/new/"));
+
+        uploadService.uploadStream(userId, "", "new/a.txt", body, -1);
+
+        verify(indexService).indexResources(userId, List.of(new ResourceMetadata("user/new/", 0, null, null)));
+        verify(listingCache).invalidate(userId, List.of("user/new/"));
+    }
+
+    @Test
+    @DisplayName("Should reject streaming upload over an existing resource")
+    void uploadStreamAlreadyExists() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String bucket = factory.manufacturePojo(String.class);
+
+        when(props.getBucket()).thenReturn(bucket);
+        when(paths.toTechnicalPath(userId, "a.txt")).thenReturn("user/a.txt");
+        when(s3Repo.findExisting(bucket, Set.of("user/a.txt"))).thenReturn(Set.of("user/a.txt"));
+
+        assertThrows(ResourceAlreadyExistsException.class,
+                () -> uploadService.uploadStream(userId, "", "a.txt", InputStream.nullInputStream(), 0));
+        verify(s3Repo, never()).saveResource(any(), any(), any(), anyLong());
     }
 
     @Test
@@ -128,10 +248,10 @@ class UploadServiceTest {
         MultipartFile[] files = {file};
 
         when(paths.isDirectory(uploadPath)).thenReturn(true);
-        when(s3Repo.isObjectExists(any(), any())).thenReturn(false);
+        when(s3Repo.findExisting(any(), any())).thenReturn(Set.of());
 
         assertThrows(DirectoryNotExistException.class, () -> uploadService.upload(userId, uploadPath, files));
-        verify(s3Repo, never()).saveResource(any(), any(), any());
+        verify(s3Repo, never()).saveResource(any(), any(), any(), anyLong());
     }
 
     @Test
@@ -146,10 +266,10 @@ class UploadServiceTest {
 
         when(paths.isDirectory(uploadPath)).thenReturn(true);
         when(file.getOriginalFilename()).thenReturn(filename);
-        when(s3Repo.isObjectExists(any(), any())).thenReturn(true);
+        when(s3Repo.findExisting(any(), any())).thenAnswer(invocation -> Set.copyOf(invocation.getArgument(1)));
 
         assertThrows(ResourceAlreadyExistsException.class, () -> uploadService.upload(userId, uploadPath, files));
-        verify(s3Repo, never()).saveResource(any(), any(), any());
+        verify(s3Repo, never()).saveResource(any(), any(), any(), anyLong());
     }
 
     @Test
@@ -165,13 +285,45 @@ class UploadServiceTest {
 
         when(paths.isDirectory(uploadPath)).thenReturn(true);
         when(file.getOriginalFilename()).thenReturn(filename);
-        when(s3Repo.isObjectExists(any(), any())).thenReturn(true, false);
+        when(s3Repo.findExisting(any(), any())).thenReturn(Set.of("user/documents/"));
 
         when(file.getInputStream()).thenThrow(new IOException("File read error"));
 
         assertThrows(ResourceUploadException.class, () -> uploadService.upload(userId, uploadPath, files));
     }
 
+    @Test
+    @DisplayName("Should keep uploaded files and report the failed ones")
+    @SneakyThrows
+    void uploadPartiallyFails() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String bucket = factory.manufacturePojo(String.class);
+        MultipartFile good = mock(MultipartFile.class);
+        MultipartFile bad = mock(MultipartFile.class);
+        MultipartFile[] files = {good, bad};
+        ResourceMetadata metadata = new ResourceMetadata("user/docs/good.txt", 4L, "etag", null);
+        ResourceInfoResponseDTO dto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
+
+        when(props.getBucket()).thenReturn(bucket);
+        when(good.getOriginalFilename()).thenReturn("good.txt");
+        when(bad.getOriginalFilename()).thenReturn("bad.txt");
+        when(s3Repo.findExisting(any(), any())).thenReturn(Set.of("user/docs/"));
+        when(good.getInputStream()).thenReturn(new ByteArrayInputStream("good".getBytes()));
+        when(bad.getInputStream()).thenThrow(new IOException("File read error"));
+        when(s3Repo.saveResource(eq(bucket), eq("user/docs/good.txt"), any(InputStream.class), anyLong()))
+                .thenReturn(metadata);
+        when(resourceMapper.toDto(userId, metadata)).thenReturn(dto);
+
+        PartialUploadException exception = assertThrows(PartialUploadException.class,
+                () -> uploadService.upload(userId, "docs/", files));
+
+        assertEquals(List.of(dto), exception.getUploaded());
+        assertEquals(Set.of("bad.txt"), exception.getFailed().keySet());
+        verify(indexService).indexResources(userId, List.of(metadata));
+        verify(listingCache).invalidate(userId, List.of("user/docs/good.txt"));
+    }
+
     @Test
     @DisplayName("Should handle file with null filename")
     void uploadNullFilename() {
@@ -183,7 +335,7 @@ class UploadServiceTest {
 
         when(paths.isDirectory(uploadPath)).thenReturn(true);
         when(file.getOriginalFilename()).thenReturn(null);
-        when(s3Repo.isObjectExists(any(), any())).thenReturn(true);
+        when(s3Repo.findExisting(any(), any())).thenReturn(Set.of("user/documents/"));
 
         assertThrows(NullPointerException.class, () -> uploadService.upload(userId, uploadPath, files));
     }
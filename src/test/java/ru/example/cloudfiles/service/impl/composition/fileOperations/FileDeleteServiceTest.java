@@ -8,14 +8,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.exception.storageOperation.directory.DirectoryDeletionException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.repository.S3Repository;
 import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.composition.ResourceIndexService;
+import ru.example.cloudfiles.service.impl.composition.DirectoryListingCache;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.time.Duration;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -39,6 +47,12 @@ class FileDeleteServiceTest {
     @Mock
     private MinioProperties props;
 
+    @Mock
+    private ResourceIndexService indexService;
+
+    @Mock
+    private DirectoryListingCache listingCache;
+
     @InjectMocks
     private FileDeleteService fileDeleteService;
 
@@ -61,11 +75,13 @@ class FileDeleteServiceTest {
         when(fileQueryService.resourceExists(userId, path)).thenReturn(true);
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(s3Repo.deleteResource(bucket, techPath)).thenReturn(completeReport());
 
         assertDoesNotThrow(() -> fileDeleteService.deleteResource(userId, path));
 
         verify(fileQueryService).resourceExists(userId, path);
         verify(s3Repo).deleteResource(bucket, techPath);
+        verify(indexService).removeResource(userId, path);
     }
 
     @Test
@@ -95,6 +111,7 @@ class FileDeleteServiceTest {
         when(fileQueryService.resourceExists(userId, path)).thenReturn(true);
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(s3Repo.deleteResource(bucket, techPath)).thenReturn(completeReport());
 
         assertDoesNotThrow(() -> fileDeleteService.deleteResource(userId, path));
 
@@ -114,6 +131,7 @@ class FileDeleteServiceTest {
         when(fileQueryService.resourceExists(userId, path)).thenReturn(true);
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(s3Repo.deleteResource(bucket, techPath)).thenReturn(completeReport());
 
         assertDoesNotThrow(() -> fileDeleteService.deleteResource(userId, path));
 
@@ -133,6 +151,7 @@ class FileDeleteServiceTest {
         when(fileQueryService.resourceExists(userId, path)).thenReturn(true);
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(s3Repo.deleteResource(bucket, techPath)).thenReturn(completeReport());
 
         assertDoesNotThrow(() -> fileDeleteService.deleteResource(userId, path));
 
@@ -152,6 +171,7 @@ class FileDeleteServiceTest {
         when(fileQueryService.resourceExists(userId, path)).thenReturn(true);
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(s3Repo.deleteResource(bucket, techPath)).thenReturn(completeReport());
 
         assertDoesNotThrow(() -> fileDeleteService.deleteResource(userId, path));
 
@@ -171,6 +191,7 @@ class FileDeleteServiceTest {
         when(fileQueryService.resourceExists(userId, path)).thenReturn(true);
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(expectedTechPath);
+        when(s3Repo.deleteResource(bucket, expectedTechPath)).thenReturn(completeReport());
 
         fileDeleteService.deleteResource(userId, path);
 
@@ -193,4 +214,31 @@ class FileDeleteServiceTest {
         verify(s3Repo, never()).deleteResource(any(), any());
         verify(paths, never()).toTechnicalPath(anyLong(), anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should throw DirectoryDeletionException when some objects were not deleted")
+    void deleteDirectoryPartiallyFails() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/";
+        String bucket = factory.manufacturePojo(String.class);
+        String techPath = "user-" + userId + "/documents/";
+        DeletionReport report = new DeletionReport(1, Map.of(techPath + "locked.txt", "AccessDenied"), Duration.ZERO);
+
+        when(fileQueryService.resourceExists(userId, path)).thenReturn(true);
+        when(props.getBucket()).thenReturn(bucket);
+        when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
+        when(s3Repo.deleteResource(bucket, techPath)).thenReturn(report);
+
+        DirectoryDeletionException exception = assertThrows(DirectoryDeletionException.class,
+                () -> fileDeleteService.deleteResource(userId, path));
+
+        assertTrue(exception.getMessage().contains(path));
+        verify(indexService, never()).removeResource(anyLong(), anyString());
+    }
+
+    private DeletionReport completeReport() {
+
+        return new DeletionReport(1, Map.of(), Duration.ZERO);
+    }
+}
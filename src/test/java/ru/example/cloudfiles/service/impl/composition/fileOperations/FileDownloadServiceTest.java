@@ -3,20 +3,26 @@ package ru.example.cloudfiles.service.impl.composition.fileOperations;
 import lombok.SneakyThrows;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.example.cloudfiles.config.properties.MinioProperties;
 import ru.example.cloudfiles.dto.DownloadResult;
 import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.exception.storageOperation.directory.ZipCreationException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.OperationObserver;
 import ru.example.cloudfiles.service.impl.PathManager;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
@@ -25,18 +31,29 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith({MockitoExtension.class, SoftAssertionsExtension.class})
 class FileDownloadServiceTest {
 
+    private static final String BUCKET = "bucket";
+    private static final String ETAG = "abc123";
+    private static final byte[] CONTENT = "0123456789".getBytes();
+    private static final ZonedDateTime LAST_MODIFIED = ZonedDateTime.of(2025, 1, 10, 12, 0, 0, 0, ZoneOffset.UTC);
+
     @Mock
     private S3Repository s3Repo;
 
@@ -49,7 +66,6 @@ class FileDownloadServiceTest {
     @Mock
     private MinioProperties props;
 
-    @InjectMocks
     private FileDownloadService fileDownloadService;
 
     private PodamFactory factory;
@@ -57,6 +73,14 @@ class FileDownloadServiceTest {
     @BeforeEach
     void setUp() {
         factory = new PodamFactoryImpl();
+        lenient().when(props.getZipPrefetchCount()).thenReturn(4);
+        lenient().when(props.getZipPrefetchBuffer()).thenReturn(DataSize.ofKilobytes(64));
+        fileDownloadService = new FileDownloadService(s3Repo, fileQueryService, paths, props,
+                new ZipEntryPrefetcher(s3Repo, paths, props, new ZipPrefetchBuffer(props, new SimpleMeterRegistry())),
+                new ZipCompressionPolicy(), new OperationObserver(ObservationRegistry.NOOP));
+        lenient().when(props.getBucket()).thenReturn(BUCKET);
+        lenient().when(s3Repo.headResource(eq(BUCKET), anyString())).thenAnswer(invocation ->
+                new ResourceMetadata(invocation.getArgument(1), CONTENT.length, ETAG, LAST_MODIFIED));
     }
 
     @Test
@@ -68,9 +92,9 @@ class FileDownloadServiceTest {
         String fileName = "file.txt";
         String resourceName = "user-" + userId + "/documents/file.txt";
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(List.of(resourceName));
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(resourceName)));
 
-        DownloadResult result = fileDownloadService.prepareDownload(userId, path);
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, new HttpHeaders());
 
         softly.assertThat(result).isNotNull();
         softly.assertThat(result.streamingBody()).isNotNull();
@@ -85,12 +109,12 @@ class FileDownloadServiceTest {
         String path = "documents/";
         String fileName = "documents.zip";
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(List.of(
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(
                 "user-" + userId + "/documents/file1.txt",
                 "user-" + userId + "/documents/file2.txt"
-        ));
+        )));
 
-        DownloadResult result = fileDownloadService.prepareDownload(userId, path);
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, new HttpHeaders());
 
         softly.assertThat(result).isNotNull();
         softly.assertThat(result.streamingBody()).isNotNull();
@@ -109,7 +133,7 @@ class FileDownloadServiceTest {
         InputStream inputStream = new ByteArrayInputStream("file content" .getBytes());
         Resource resource = new Resource(resourceName, inputStream, 12L);
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(List.of(resourceName));
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(resourceName)));
         when(s3Repo.getResourceByPath(any(), eq(resourceName))).thenReturn(resource);
         when(props.getBucket()).thenReturn("bucket");
 
@@ -131,9 +155,9 @@ class FileDownloadServiceTest {
         String path = "documents/file.txt";
         String resourceName = "user-" + userId + "/documents/file.txt";
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(List.of(resourceName));
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(resourceName)));
 
-        DownloadResult result = fileDownloadService.prepareDownload(userId, path);
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, new HttpHeaders());
 
         softly.assertThat(result.contentDisposition()).contains("file.txt");
     }
@@ -151,7 +175,7 @@ class FileDownloadServiceTest {
         InputStream inputStream = new ByteArrayInputStream("file content" .getBytes());
         Resource resource = new Resource("user-" + userId + "/documents/file.txt", inputStream, 12L);
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(resourceNames);
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(resourceNames));
         when(s3Repo.getResourceByPath(any(), any())).thenReturn(resource);
 
         lenient().when(paths.toUserPath(userId, "user-" + userId + "/documents/file.txt")).thenReturn("documents/file.txt");
@@ -182,12 +206,10 @@ class FileDownloadServiceTest {
 
         InputStream stream1 = new ByteArrayInputStream("content1" .getBytes());
         InputStream stream2 = new ByteArrayInputStream("content2" .getBytes());
-        Resource resource1 = new Resource("user-" + userId + "/documents/file1.txt", stream1, 8L);
-        Resource resource2 = new Resource("user-" + userId + "/documents/file2.txt", stream2, 8L);
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(resourceNames);
-        when(s3Repo.getResourceByPath(any(), eq("user-" + userId + "/documents/file1.txt"))).thenReturn(resource1);
-        when(s3Repo.getResourceByPath(any(), eq("user-" + userId + "/documents/file2.txt"))).thenReturn(resource2);
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(resourceNames));
+        when(s3Repo.getResourceStream(any(), eq("user-" + userId + "/documents/file1.txt"))).thenReturn(stream1);
+        when(s3Repo.getResourceStream(any(), eq("user-" + userId + "/documents/file2.txt"))).thenReturn(stream2);
         when(paths.toUserPath(anyLong(), anyString())).thenAnswer(invocation -> {
             String techPath = invocation.getArgument(1);
             return techPath.substring(("user-" + userId + "/").length());
@@ -223,7 +245,7 @@ class FileDownloadServiceTest {
         };
         Resource resource = new Resource("user-" + userId + "/documents/file.txt", brokenStream, 12L);
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(resourceNames);
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(resourceNames));
         when(s3Repo.getResourceByPath(any(), any())).thenReturn(resource);
         when(props.getBucket()).thenReturn("bucket");
 
@@ -251,11 +273,10 @@ class FileDownloadServiceTest {
                 throw new IOException("Stream error");
             }
         };
-        Resource brokenResource = new Resource("user-" + userId + "/documents/file1.txt", brokenStream, 12L);
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(resourceNames);
-        when(s3Repo.getResourceByPath(any(), any())).thenReturn(brokenResource);
-        when(paths.toUserPath(anyLong(), anyString())).thenReturn("documents/file.txt");
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(resourceNames));
+        when(s3Repo.getResourceStream(any(), any())).thenReturn(brokenStream);
+        lenient().when(paths.toUserPath(anyLong(), anyString())).thenReturn("documents/file.txt");
         when(paths.isDirectory(anyString())).thenReturn(false);
         when(props.getBucket()).thenReturn("bucket");
 
@@ -274,9 +295,9 @@ class FileDownloadServiceTest {
         String path = "files/документ.txt";
         String resourceName = "user-" + userId + "/files/документ.txt";
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(List.of(resourceName));
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(resourceName)));
 
-        DownloadResult result = fileDownloadService.prepareDownload(userId, path);
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, new HttpHeaders());
 
         softly.assertThat(result).isNotNull();
         softly.assertThat(result.contentDisposition()).contains("UTF-8");
@@ -290,7 +311,7 @@ class FileDownloadServiceTest {
         long userId = factory.manufacturePojo(Long.class);
         String path = "empty/";
 
-        when(fileQueryService.findAllNames(userId, path)).thenReturn(List.of());
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of()));
 
         StreamingResponseBody responseBody = fileDownloadService.download(userId, path);
 
@@ -300,4 +321,185 @@ class FileDownloadServiceTest {
         softly.assertThatCode(() -> responseBody.writeTo(outputStream))
                 .doesNotThrowAnyException();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Return full file with validators when no range requested")
+    void prepareDownloadReturnsValidators(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/file.txt";
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of("user-" + userId + "/" + path)));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, new HttpHeaders());
+
+        softly.assertThat(result.status()).isEqualTo(HttpStatus.OK);
+        softly.assertThat(result.headers().getETag()).isEqualTo("\"" + ETAG + "\"");
+        softly.assertThat(result.headers().getContentLength()).isEqualTo(CONTENT.length);
+        softly.assertThat(result.headers().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        softly.assertThat(result.headers().getLastModified()).isEqualTo(LAST_MODIFIED.toInstant().toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("Return not modified when If-None-Match matches etag")
+    void prepareDownloadNotModifiedByEtag(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/file.txt";
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.setIfNoneMatch("\"" + ETAG + "\"");
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of("user-" + userId + "/" + path)));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, requestHeaders);
+
+        softly.assertThat(result.status()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        softly.assertThat(result.streamingBody()).isNull();
+        verify(s3Repo, never()).getResourceByPath(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Return not modified when file unchanged since If-Modified-Since")
+    void prepareDownloadNotModifiedByDate(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/file.txt";
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.setIfModifiedSince(LAST_MODIFIED.plusHours(1));
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of("user-" + userId + "/" + path)));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, requestHeaders);
+
+        softly.assertThat(result.status()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Return partial content for single byte range")
+    void prepareDownloadSingleRange(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/file.txt";
+        String resourceName = "user-" + userId + "/" + path;
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=2-5");
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(resourceName)));
+        when(s3Repo.getResourceRange(BUCKET, resourceName, 2, 4))
+                .thenReturn(new ByteArrayInputStream(CONTENT, 2, 4));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, requestHeaders);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        result.streamingBody().writeTo(outputStream);
+
+        softly.assertThat(result.status()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        softly.assertThat(result.headers().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        softly.assertThat(result.headers().getContentLength()).isEqualTo(4);
+        softly.assertThat(outputStream.toString()).isEqualTo("2345");
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Return multipart byteranges for several ranges")
+    void prepareDownloadMultipleRanges(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/file.txt";
+        String resourceName = "user-" + userId + "/" + path;
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=0-1,-2");
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(resourceName)));
+        when(s3Repo.getResourceRange(BUCKET, resourceName, 0, 2))
+                .thenReturn(new ByteArrayInputStream(CONTENT, 0, 2));
+        when(s3Repo.getResourceRange(BUCKET, resourceName, 8, 2))
+                .thenReturn(new ByteArrayInputStream(CONTENT, 8, 2));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, requestHeaders);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        result.streamingBody().writeTo(outputStream);
+
+        String boundary = result.headers().getContentType().getParameter("boundary");
+        softly.assertThat(result.status()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        softly.assertThat(result.headers().getContentType().getSubtype()).isEqualTo("byteranges");
+        softly.assertThat(outputStream.toString())
+                .contains("Content-Range: bytes 0-1/10\r\n\r\n01")
+                .contains("Content-Range: bytes 8-9/10\r\n\r\n89")
+                .endsWith("--" + boundary + "--\r\n");
+    }
+
+    @Test
+    @DisplayName("Return range not satisfiable when range starts past end of file")
+    void prepareDownloadUnsatisfiableRange(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/file.txt";
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=50-60");
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of("user-" + userId + "/" + path)));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, requestHeaders);
+
+        softly.assertThat(result.status()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        softly.assertThat(result.headers().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    @DisplayName("Ignore range when If-Range does not match current etag")
+    void prepareDownloadIgnoresStaleIfRange(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "documents/file.txt";
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=2-5");
+        requestHeaders.set(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of("user-" + userId + "/" + path)));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, null, requestHeaders);
+
+        softly.assertThat(result.status()).isEqualTo(HttpStatus.OK);
+        softly.assertThat(result.headers().getContentLength()).isEqualTo(CONTENT.length);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Store already compressed entries and deflate the rest")
+    void zipStoresCompressedEntries(SoftAssertions softly) {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String path = "photos/";
+        String photo = "user-" + userId + "/photos/cat.jpg";
+        String notes = "user-" + userId + "/photos/notes.txt";
+
+        when(fileQueryService.findAll(userId, path)).thenReturn(listing(List.of(photo, notes)));
+        when(s3Repo.getResourceStream(eq(BUCKET), anyString())).thenAnswer(invocation ->
+                new ByteArrayInputStream(CONTENT));
+        when(paths.toUserPath(eq(userId), anyString())).thenAnswer(invocation ->
+                invocation.<String>getArgument(1).substring(("user-" + userId + "/").length()));
+
+        DownloadResult result = fileDownloadService.prepareDownload(userId, path, 9, new HttpHeaders());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        result.streamingBody().writeTo(outputStream);
+
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            ZipEntry first = zip.getNextEntry();
+            softly.assertThat(first.getName()).isEqualTo("photos/cat.jpg");
+            softly.assertThat(first.getMethod()).isEqualTo(ZipEntry.STORED);
+            softly.assertThat(zip.readAllBytes()).isEqualTo(CONTENT);
+            ZipEntry second = zip.getNextEntry();
+            softly.assertThat(second.getName()).isEqualTo("photos/notes.txt");
+            softly.assertThat(second.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+            softly.assertThat(zip.readAllBytes()).isEqualTo(CONTENT);
+        }
+    }
+
+    private List<ResourceMetadata> listing(List<String> names) {
+
+        return names.stream()
+                .map(name -> new ResourceMetadata(name, CONTENT.length, ETAG, LAST_MODIFIED))
+                .toList();
+    }
+}
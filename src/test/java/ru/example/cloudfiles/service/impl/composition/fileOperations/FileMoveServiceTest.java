@@ -6,28 +6,35 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.example.cloudfiles.config.properties.MinioProperties;
-import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.DeletionReport;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceAlreadyExistsException;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
+import ru.example.cloudfiles.exception.storageOperation.resource.ResourceSaveException;
 import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.ParallelTaskRunner;
 import ru.example.cloudfiles.service.impl.PathManager;
+import ru.example.cloudfiles.service.impl.composition.ResourceIndexService;
+import ru.example.cloudfiles.service.impl.composition.DirectoryListingCache;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,6 +54,15 @@ class FileMoveServiceTest {
     @Mock
     private MinioProperties props;
 
+    @Spy
+    private ParallelTaskRunner taskRunner = new ParallelTaskRunner();
+
+    @Mock
+    private ResourceIndexService indexService;
+
+    @Mock
+    private DirectoryListingCache listingCache;
+
     @InjectMocks
     private FileMoveService fileMoveService;
 
@@ -58,7 +74,7 @@ class FileMoveServiceTest {
     }
 
     @Test
-    @DisplayName("Should move file successfully")
+    @DisplayName("Should move file with a server-side copy")
     void moveFileOk() {
 
         long userId = factory.manufacturePojo(Long.class);
@@ -67,7 +83,7 @@ class FileMoveServiceTest {
         String oldTech = "user-" + userId + "/documents/file.txt";
         String newTech = "user-" + userId + "/archive/file.txt";
 
-        Resource resource = new Resource(oldTech, new ByteArrayInputStream("content" .getBytes()), 8L);
+        ResourceMetadata source = new ResourceMetadata(oldTech, 8L, "etag", null);
         ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
         when(fileQueryService.resourceExists(userId, oldPath)).thenReturn(true);
@@ -76,18 +92,21 @@ class FileMoveServiceTest {
         when(paths.toTechnicalPath(userId, newPath)).thenReturn(newTech);
         when(paths.isDirectory(oldPath)).thenReturn(false);
         when(props.getBucket()).thenReturn("bucket");
-        when(s3Repo.getResourceByPath("bucket", oldTech)).thenReturn(resource);
+        when(s3Repo.headResource("bucket", oldTech)).thenReturn(source);
+        when(s3Repo.deleteResource("bucket", oldTech)).thenReturn(completeReport());
         when(fileQueryService.getResource(userId, newPath)).thenReturn(expectedDto);
 
         ResourceInfoResponseDTO result = fileMoveService.moveResource(userId, oldPath, newPath);
 
         assertEquals(expectedDto, result);
-        verify(s3Repo).saveResource("bucket", newTech, resource.dataStream());
+        verify(s3Repo).copyResource("bucket", source, newTech);
         verify(s3Repo).deleteResource("bucket", oldTech);
+        verify(indexService).moveFile(userId, oldPath, newPath);
+        verify(s3Repo, never()).saveResource(any(), any(), any());
     }
 
     @Test
-    @DisplayName("Should move directory successfully")
+    @DisplayName("Should move directory with server-side copies")
     void moveDirectoryOk() {
 
         long userId = factory.manufacturePojo(Long.class);
@@ -96,13 +115,10 @@ class FileMoveServiceTest {
         String oldTech = "user-" + userId + "/documents/";
         String newTech = "user-" + userId + "/archive/";
 
-        List<String> sourcePaths = List.of(
-                "user-" + userId + "/documents/file1.txt",
-                "user-" + userId + "/documents/file2.txt"
+        List<ResourceMetadata> sources = List.of(
+                new ResourceMetadata(oldTech + "file1.txt", 9L, "etag1", null),
+                new ResourceMetadata(oldTech + "sub/file2.txt", 9L, "etag2", null)
         );
-
-        Resource resource1 = new Resource(sourcePaths.get(0), new ByteArrayInputStream("content1" .getBytes()), 9L);
-        Resource resource2 = new Resource(sourcePaths.get(1), new ByteArrayInputStream("content2" .getBytes()), 9L);
         ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
         when(fileQueryService.resourceExists(userId, oldPath)).thenReturn(true);
@@ -111,17 +127,53 @@ class FileMoveServiceTest {
         when(paths.toTechnicalPath(userId, newPath)).thenReturn(newTech);
         when(paths.isDirectory(oldPath)).thenReturn(true);
         when(props.getBucket()).thenReturn("bucket");
-        when(s3Repo.findAllNamesByPrefix("bucket", oldTech, true)).thenReturn(sourcePaths);
-        when(s3Repo.getResourceByPath("bucket", sourcePaths.get(0))).thenReturn(resource1);
-        when(s3Repo.getResourceByPath("bucket", sourcePaths.get(1))).thenReturn(resource2);
+        when(props.getCopyConcurrency()).thenReturn(4);
+        when(s3Repo.findAllByPrefix("bucket", oldTech, true)).thenReturn(sources);
+        when(s3Repo.deleteResource("bucket", oldTech)).thenReturn(completeReport());
+        when(paths.toUserPath(userId, oldTech)).thenReturn(oldPath);
+        when(paths.toUserPath(userId, newTech)).thenReturn(newPath);
         when(fileQueryService.getResource(userId, newPath)).thenReturn(expectedDto);
 
         ResourceInfoResponseDTO result = fileMoveService.moveResource(userId, oldPath, newPath);
 
         assertEquals(expectedDto, result);
 
-        verify(s3Repo, times(2)).saveResource(eq("bucket"), anyString(), any(InputStream.class));
-        verify(s3Repo, times(3)).deleteResource(eq("bucket"), anyString());
+        verify(s3Repo).copyResource("bucket", sources.get(0), newTech + "file1.txt");
+        verify(s3Repo).copyResource("bucket", sources.get(1), newTech + "sub/file2.txt");
+        verify(s3Repo).deleteResource("bucket", oldTech);
+        verify(indexService).moveDirectory(userId, oldPath, newPath);
+        verify(s3Repo, never()).saveResource(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should remove partial copy and keep source when a copy fails")
+    void moveDirectoryCopyFails() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String oldPath = "documents/";
+        String newPath = "archive/";
+        String oldTech = "user-" + userId + "/documents/";
+        String newTech = "user-" + userId + "/archive/";
+
+        ResourceMetadata source = new ResourceMetadata(oldTech + "file1.txt", 9L, "etag1", null);
+
+        when(fileQueryService.resourceExists(userId, oldPath)).thenReturn(true);
+        when(fileQueryService.resourceExists(userId, newPath)).thenReturn(false);
+        when(paths.toTechnicalPath(userId, oldPath)).thenReturn(oldTech);
+        when(paths.toTechnicalPath(userId, newPath)).thenReturn(newTech);
+        when(paths.isDirectory(oldPath)).thenReturn(true);
+        when(props.getBucket()).thenReturn("bucket");
+        when(props.getCopyConcurrency()).thenReturn(4);
+        when(s3Repo.findAllByPrefix("bucket", oldTech, true)).thenReturn(List.of(source));
+        doThrow(new ResourceSaveException(newTech + "file1.txt", new RuntimeException()))
+                .when(s3Repo).copyResource("bucket", source, newTech + "file1.txt");
+
+        assertThrows(ResourceSaveException.class,
+                () -> fileMoveService.moveResource(userId, oldPath, newPath));
+
+        verify(s3Repo).deleteResource("bucket", newTech);
+        verify(s3Repo, never()).deleteResource("bucket", oldTech);
+        verify(indexService, never()).moveDirectory(anyLong(), anyString(), anyString());
     }
 
     @Test
@@ -137,7 +189,7 @@ class FileMoveServiceTest {
         assertThrows(ResourceNotFoundException.class,
                 () -> fileMoveService.moveResource(userId, oldPath, newPath));
 
-        verify(s3Repo, never()).saveResource(any(), any(), any());
+        verify(s3Repo, never()).copyResource(any(), any(), any());
         verify(s3Repo, never()).deleteResource(any(), any());
     }
 
@@ -155,7 +207,7 @@ class FileMoveServiceTest {
         assertThrows(ResourceAlreadyExistsException.class,
                 () -> fileMoveService.moveResource(userId, oldPath, newPath));
 
-        verify(s3Repo, never()).saveResource(any(), any(), any());
+        verify(s3Repo, never()).copyResource(any(), any(), any());
         verify(s3Repo, never()).deleteResource(any(), any());
     }
 
@@ -169,11 +221,7 @@ class FileMoveServiceTest {
         String oldTech = "user-" + userId + "/documents";
         String newTech = "user-" + userId + "/archive";
 
-        List<String> sourcePaths = List.of(
-                "user-" + userId + "/documents/file1.txt"
-        );
-
-        Resource resource = new Resource(sourcePaths.getFirst(), new ByteArrayInputStream("content" .getBytes()), 8L);
+        ResourceMetadata source = new ResourceMetadata(oldTech + "/file1.txt", 8L, "etag", null);
         ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
         when(fileQueryService.resourceExists(userId, oldPath)).thenReturn(true);
@@ -182,15 +230,16 @@ class FileMoveServiceTest {
         when(paths.toTechnicalPath(userId, newPath)).thenReturn(newTech);
         when(paths.isDirectory(oldPath)).thenReturn(true);
         when(props.getBucket()).thenReturn("bucket");
-        when(s3Repo.findAllNamesByPrefix("bucket", oldTech + "/", true)).thenReturn(sourcePaths);
-        when(s3Repo.getResourceByPath("bucket", sourcePaths.getFirst())).thenReturn(resource);
+        when(props.getCopyConcurrency()).thenReturn(4);
+        when(s3Repo.findAllByPrefix("bucket", oldTech + "/", true)).thenReturn(List.of(source));
+        when(s3Repo.deleteResource("bucket", oldTech + "/")).thenReturn(completeReport());
         when(fileQueryService.getResource(userId, newPath)).thenReturn(expectedDto);
 
         ResourceInfoResponseDTO result = fileMoveService.moveResource(userId, oldPath, newPath);
 
         assertEquals(expectedDto, result);
-        verify(s3Repo).saveResource(eq("bucket"), anyString(), any(InputStream.class));
-        verify(s3Repo).deleteResource("bucket", sourcePaths.getFirst());
+        verify(s3Repo).copyResource("bucket", source, newTech + "/file1.txt");
+        verify(s3Repo).deleteResource("bucket", oldTech + "/");
     }
 
     @Test
@@ -203,8 +252,6 @@ class FileMoveServiceTest {
         String oldTech = "user-" + userId + "/empty/";
         String newTech = "user-" + userId + "/archive/";
 
-        List<String> sourcePaths = List.of();
-
         ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
         when(fileQueryService.resourceExists(userId, oldPath)).thenReturn(true);
@@ -213,14 +260,21 @@ class FileMoveServiceTest {
         when(paths.toTechnicalPath(userId, newPath)).thenReturn(newTech);
         when(paths.isDirectory(oldPath)).thenReturn(true);
         when(props.getBucket()).thenReturn("bucket");
-        when(s3Repo.findAllNamesByPrefix("bucket", oldTech, true)).thenReturn(sourcePaths);
+        when(props.getCopyConcurrency()).thenReturn(4);
+        when(s3Repo.findAllByPrefix("bucket", oldTech, true)).thenReturn(List.of());
+        when(s3Repo.deleteResource("bucket", oldTech)).thenReturn(completeReport());
         when(fileQueryService.getResource(userId, newPath)).thenReturn(expectedDto);
 
         ResourceInfoResponseDTO result = fileMoveService.moveResource(userId, oldPath, newPath);
 
         assertEquals(expectedDto, result);
 
-        verify(s3Repo, never()).saveResource(any(), any(), any());
-        verify(s3Repo).deleteResource("bucket", oldTech);
+        verify(s3Repo, never()).copyResource(anyString(), any(), anyString());
+        verify(s3Repo).deleteResource(eq("bucket"), eq(oldTech));
+    }
+
+    private DeletionReport completeReport() {
+
+        return new DeletionReport(1, Map.of(), Duration.ZERO);
     }
-}
\ No newline at end of file
+}
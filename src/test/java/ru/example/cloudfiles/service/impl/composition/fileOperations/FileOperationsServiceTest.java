@@ -9,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.example.cloudfiles.dto.DownloadResult;
 import ru.example.cloudfiles.dto.ResourceType;
@@ -82,12 +83,12 @@ class FileOperationsServiceTest {
         String path = factory.manufacturePojo(String.class);
         DownloadResult expectedResult = factory.manufacturePojo(DownloadResult.class);
 
-        when(fileDownloadService.prepareDownload(userId, path)).thenReturn(expectedResult);
+        when(fileDownloadService.prepareDownload(userId, path, null, HttpHeaders.EMPTY)).thenReturn(expectedResult);
 
-        DownloadResult result = fileOperationsService.prepareDownload(userId, path);
+        DownloadResult result = fileOperationsService.prepareDownload(userId, path, null, HttpHeaders.EMPTY);
 
         softly.assertThat(result).isEqualTo(expectedResult);
-        verify(fileDownloadService).prepareDownload(userId, path);
+        verify(fileDownloadService).prepareDownload(userId, path, null, HttpHeaders.EMPTY);
     }
 
     @Test
@@ -143,12 +144,12 @@ class FileOperationsServiceTest {
         String path = factory.manufacturePojo(String.class);
         DownloadResult expectedResult = factory.manufacturePojo(DownloadResult.class);
 
-        when(fileDownloadService.prepareDownload(userId, path)).thenReturn(expectedResult);
+        when(fileDownloadService.prepareDownload(userId, path, null, HttpHeaders.EMPTY)).thenReturn(expectedResult);
 
-        DownloadResult result = fileOperationsService.prepareDownload(userId, path);
+        DownloadResult result = fileOperationsService.prepareDownload(userId, path, null, HttpHeaders.EMPTY);
 
         softly.assertThat(result).isEqualTo(expectedResult);
-        verify(fileDownloadService).prepareDownload(userId, path);
+        verify(fileDownloadService).prepareDownload(userId, path, null, HttpHeaders.EMPTY);
     }
 
     @Test
@@ -216,13 +217,13 @@ class FileOperationsServiceTest {
         };
         DownloadResult expectedResult = new DownloadResult(responseBody, "attachment; filename=file.pdf");
 
-        when(fileDownloadService.prepareDownload(userId, path)).thenReturn(expectedResult);
+        when(fileDownloadService.prepareDownload(userId, path, null, HttpHeaders.EMPTY)).thenReturn(expectedResult);
 
-        DownloadResult result = fileOperationsService.prepareDownload(userId, path);
+        DownloadResult result = fileOperationsService.prepareDownload(userId, path, null, HttpHeaders.EMPTY);
 
         softly.assertThat(result).isNotNull();
         softly.assertThat(result).isEqualTo(expectedResult);
-        verify(fileDownloadService, times(1)).prepareDownload(userId, path);
+        verify(fileDownloadService, times(1)).prepareDownload(userId, path, null, HttpHeaders.EMPTY);
         verifyNoInteractions(fileQueryService, fileMoveService, fileDeleteService);
     }
 
@@ -8,7 +8,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.example.cloudfiles.config.properties.MinioProperties;
-import ru.example.cloudfiles.dto.Resource;
+import ru.example.cloudfiles.dto.ResourceMetadata;
 import ru.example.cloudfiles.dto.response.ResourceInfoResponseDTO;
 import ru.example.cloudfiles.exception.storageOperation.resource.ResourceNotFoundException;
 import ru.example.cloudfiles.mapper.ResourceMapper;
@@ -63,19 +63,20 @@ class FileQueryServiceTest {
         String techPath = "user-" + userId + "/documents/file.txt";
         String bucket = factory.manufacturePojo(String.class);
 
-        Resource resource = factory.manufacturePojo(Resource.class);
+        ResourceMetadata metadata = new ResourceMetadata(techPath, 10L, "etag", null);
         ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
-        when(s3Repo.getResourceByPath(bucket, techPath)).thenReturn(resource);
-        when(resourceMapper.toDto(userId, resource)).thenReturn(expectedDto);
+        when(s3Repo.headResource(bucket, techPath)).thenReturn(metadata);
+        when(resourceMapper.toDto(userId, metadata)).thenReturn(expectedDto);
 
         ResourceInfoResponseDTO result = fileQueryService.getResource(userId, path);
 
         assertEquals(expectedDto, result);
-        verify(s3Repo).getResourceByPath(bucket, techPath);
-        verify(resourceMapper).toDto(userId, resource);
+        verify(s3Repo).headResource(bucket, techPath);
+        verify(s3Repo, never()).getResourceByPath(any(), any());
+        verify(resourceMapper).toDto(userId, metadata);
     }
 
     @Test
@@ -89,13 +90,13 @@ class FileQueryServiceTest {
 
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
-        when(s3Repo.getResourceByPath(bucket, techPath)).thenThrow(new RuntimeException("Not found"));
+        when(s3Repo.headResource(bucket, techPath)).thenThrow(new RuntimeException("Not found"));
 
         assertThrows(ResourceNotFoundException.class,
                 () -> fileQueryService.getResource(userId, path));
 
-        verify(s3Repo).getResourceByPath(bucket, techPath);
-        verify(resourceMapper, never()).toDto(anyLong(), any(Resource.class));
+        verify(s3Repo).headResource(bucket, techPath);
+        verify(resourceMapper, never()).toDto(anyLong(), any(ResourceMetadata.class));
     }
 
     @Test
@@ -179,6 +180,23 @@ class FileQueryServiceTest {
         verify(s3Repo).findAllNamesByPrefix(bucket, techPrefix, true);
     }
 
+    @Test
+    @DisplayName("Should return listing metadata for all resources under prefix")
+    void findAll() {
+
+        long userId = factory.manufacturePojo(Long.class);
+        String prefix = "documents/";
+        String techPrefix = "user-" + userId + "/documents/";
+        String bucket = factory.manufacturePojo(String.class);
+        List<ResourceMetadata> listing = List.of(new ResourceMetadata(techPrefix + "file1.txt", 4, "etag", null));
+
+        when(props.getBucket()).thenReturn(bucket);
+        when(paths.toTechnicalPath(userId, prefix)).thenReturn(techPrefix);
+        when(s3Repo.findAllByPrefix(bucket, techPrefix, true)).thenReturn(listing);
+
+        assertEquals(listing, fileQueryService.findAll(userId, prefix));
+    }
+
     @Test
     @DisplayName("Should handle file path for resource exists")
     void resourceExistsFile() {
@@ -274,17 +292,17 @@ class FileQueryServiceTest {
         String techPath = "user-" + userId + "/files/file-2024_v1.2.txt";
         String bucket = factory.manufacturePojo(String.class);
 
-        Resource resource = factory.manufacturePojo(Resource.class);
+        ResourceMetadata metadata = new ResourceMetadata(techPath, 10L, "etag", null);
         ResourceInfoResponseDTO expectedDto = factory.manufacturePojo(ResourceInfoResponseDTO.class);
 
         when(props.getBucket()).thenReturn(bucket);
         when(paths.toTechnicalPath(userId, path)).thenReturn(techPath);
-        when(s3Repo.getResourceByPath(bucket, techPath)).thenReturn(resource);
-        when(resourceMapper.toDto(userId, resource)).thenReturn(expectedDto);
+        when(s3Repo.headResource(bucket, techPath)).thenReturn(metadata);
+        when(resourceMapper.toDto(userId, metadata)).thenReturn(expectedDto);
 
         ResourceInfoResponseDTO result = fileQueryService.getResource(userId, path);
 
         assertEquals(expectedDto, result);
-        verify(s3Repo).getResourceByPath(bucket, techPath);
+        verify(s3Repo).headResource(bucket, techPath);
     }
 }
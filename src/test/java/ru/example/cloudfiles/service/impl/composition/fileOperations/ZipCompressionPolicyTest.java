@@ -0,0 +1,42 @@
+package ru.example.cloudfiles.service.impl.composition.fileOperations;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZipCompressionPolicyTest {
+
+    private final ZipCompressionPolicy policy = new ZipCompressionPolicy();
+
+    @Test
+    @DisplayName("Should store already compressed content")
+    void shouldStoreCompressed() {
+
+        List<String> names = List.of("user-1/a/photo.JPG", "user-1/movie.mp4", "user-1/song.mp3",
+                "user-1/backup.zip", "user-1/report.docx", "user-1/logs.tar.gz");
+
+        assertThat(names).allMatch(name -> policy.shouldStore(name, 6));
+    }
+
+    @Test
+    @DisplayName("Should deflate compressible content")
+    void shouldDeflateCompressible() {
+
+        List<String> names = List.of("user-1/notes.txt", "user-1/data.csv", "user-1/logo.svg",
+                "user-1/raw.bmp", "user-1/no-extension", "user-1/dir.jpg/readme");
+
+        assertThat(names).noneMatch(name -> policy.shouldStore(name, 6));
+    }
+
+    @Test
+    @DisplayName("Should store everything when compression is disabled")
+    void shouldStoreWhenLevelZero() {
+
+        assertThat(List.of("user-1/notes.txt", "user-1/dir/"))
+                .allMatch(name -> policy.shouldStore(name, Deflater.NO_COMPRESSION));
+    }
+}
@@ -0,0 +1,237 @@
+package ru.example.cloudfiles.service.impl.composition.fileOperations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import ru.example.cloudfiles.config.properties.MinioProperties;
+import ru.example.cloudfiles.dto.ResourceMetadata;
+import ru.example.cloudfiles.exception.storageOperation.directory.ZipCreationException;
+import ru.example.cloudfiles.repository.S3Repository;
+import ru.example.cloudfiles.service.impl.PathManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ZipEntryPrefetcherTest {
+
+    private static final String BUCKET = "bucket";
+
+    @Mock
+    private S3Repository s3Repo;
+
+    @Mock
+    private PathManager paths;
+
+    @Mock
+    private MinioProperties props;
+
+    private ZipPrefetchBuffer buffer;
+    private ZipEntryPrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(props.getBucket()).thenReturn(BUCKET);
+        lenient().when(props.getZipPrefetchCount()).thenReturn(3);
+        lenient().when(props.getZipPrefetchBuffer()).thenReturn(DataSize.ofBytes(16));
+        lenient().when(paths.isDirectory(anyString())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).endsWith("/"));
+        buffer = new ZipPrefetchBuffer(props, new SimpleMeterRegistry());
+        prefetcher = new ZipEntryPrefetcher(s3Repo, paths, props, buffer);
+    }
+
+    @Test
+    @DisplayName("Should hand entries to consumer in listing order")
+    void forEachPreservesOrder() {
+
+        List<String> names = IntStream.range(0, 20).mapToObj(i -> "user-1/dir/file" + i).toList();
+        when(s3Repo.getResourceStream(eq(BUCKET), anyString())).thenAnswer(invocation ->
+                new ByteArrayInputStream(invocation.<String>getArgument(1).getBytes()));
+
+        List<String> written = new ArrayList<>();
+        prefetcher.forEach(listing(names), entry -> written.add(entry.name() + "=" + read(entry.data())));
+
+        assertThat(written).containsExactlyElementsOf(names.stream().map(name -> name + "=" + name).toList());
+    }
+
+    @Test
+    @DisplayName("Should not fetch more entries ahead than the prefetch window")
+    void forEachBoundsPrefetchWindow() {
+
+        List<String> names = IntStream.range(0, 10).mapToObj(i -> "user-1/file" + i).toList();
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        when(s3Repo.getResourceStream(eq(BUCKET), anyString())).thenAnswer(invocation -> {
+            maxAhead.accumulateAndGet(fetched.incrementAndGet() - consumed.get(), Math::max);
+            return InputStream.nullInputStream();
+        });
+
+        prefetcher.forEach(listing(names), entry -> consumed.incrementAndGet());
+
+        assertThat(consumed).hasValue(names.size());
+        assertThat(maxAhead.get()).isLessThanOrEqualTo(3 + 1);
+    }
+
+    @Test
+    @DisplayName("Should stream entries that do not fit the prefetch buffer")
+    void forEachStreamsLargeEntries() {
+
+        byte[] large = new byte[64];
+        when(s3Repo.getResourceStream(BUCKET, "user-1/large.bin")).thenReturn(new ByteArrayInputStream(large));
+
+        List<ZipEntryPrefetcher.PrefetchedEntry> entries = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        prefetcher.forEach(List.of(new ResourceMetadata("user-1/large.bin", large.length, "etag", null)), entry -> {
+            entries.add(entry);
+            sizes.add(read(entry.data()).length());
+        });
+
+        assertThat(sizes).containsExactly(large.length);
+        assertThat(entries).singleElement().extracting(ZipEntryPrefetcher.PrefetchedEntry::content).isNull();
+    }
+
+    @Test
+    @DisplayName("Should skip object requests for directory entries")
+    void forEachSkipsDirectories() {
+
+        List<String> names = new ArrayList<>();
+        prefetcher.forEach(listing(List.of("user-1/dir/")), entry -> names.add(entry.name()));
+
+        assertThat(names).containsExactly("user-1/dir/");
+        verify(s3Repo, never()).getResourceStream(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should propagate prefetch failure as ZipCreationException")
+    void forEachPropagatesFailure() {
+
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Stream error");
+            }
+        };
+        when(s3Repo.getResourceStream(BUCKET, "user-1/broken.txt")).thenReturn(broken);
+
+        assertThatThrownBy(() -> prefetcher.forEach(
+                List.of(new ResourceMetadata("user-1/broken.txt", 4, "etag", null)), entry -> { }))
+                .isInstanceOf(ZipCreationException.class);
+    }
+
+    @Test
+    @DisplayName("Should close already fetched entries when consumer fails")
+    void forEachClosesFetchedEntriesOnFailure() {
+
+        List<String> names = IntStream.range(0, 3).mapToObj(i -> "user-1/file" + i).toList();
+        AtomicInteger closed = new AtomicInteger();
+        when(s3Repo.getResourceStream(eq(BUCKET), anyString())).thenAnswer(invocation ->
+                new ByteArrayInputStream(new byte[0]) {
+                    @Override
+                    public void close() {
+                        closed.incrementAndGet();
+                    }
+                });
+        when(props.getZipPrefetchBuffer()).thenReturn(DataSize.ofBytes(0));
+        prefetcher = new ZipEntryPrefetcher(s3Repo, paths, props, new ZipPrefetchBuffer(props, new SimpleMeterRegistry()));
+
+        assertThatThrownBy(() -> prefetcher.forEach(listing(names), entry -> {
+            throw new IllegalStateException("consumer failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(closed).hasValue(names.size());
+    }
+
+    @Test
+    @DisplayName("Should share one prefetch buffer between concurrent downloads")
+    void forEachSharesBufferAcrossDownloads() throws Exception {
+
+        ZipEntryPrefetcher other = new ZipEntryPrefetcher(s3Repo, paths, props, buffer);
+        List<String> names = IntStream.range(0, 6).mapToObj(i -> "user-1/file" + i).toList();
+        List<ResourceMetadata> listing = names.stream()
+                .map(name -> new ResourceMetadata(name, 8, "etag", null))
+                .toList();
+        when(s3Repo.getResourceStream(eq(BUCKET), anyString())).thenAnswer(invocation ->
+                new ByteArrayInputStream(new byte[8]));
+        CyclicBarrier bothStarted = new CyclicBarrier(2);
+        AtomicLong maxUsed = new AtomicLong();
+        AtomicInteger buffered = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<Object>> downloads = List.of(prefetcher, other).stream()
+                    .map(download -> executor.submit(() -> {
+                        AtomicBoolean first = new AtomicBoolean(true);
+                        download.forEach(listing, entry -> {
+                            if (entry.content() != null) {
+                                buffered.incrementAndGet();
+                            }
+                            maxUsed.accumulateAndGet(buffer.usedBytes(), Math::max);
+                            if (first.getAndSet(false)) {
+                                await(bothStarted);
+                            }
+                        });
+                        return null;
+                    }))
+                    .toList();
+            for (Future<Object> download : downloads) {
+                download.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(maxUsed.get()).isLessThanOrEqualTo(16);
+        assertThat(buffered.get()).isPositive();
+        assertThat(buffer.usedBytes()).isZero();
+    }
+
+    private void await(CyclicBarrier barrier) {
+
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String read(InputStream data) {
+
+        try {
+            return new String(data.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ResourceMetadata> listing(List<String> names) {
+
+        return names.stream()
+                .map(name -> new ResourceMetadata(name, name.length(), "etag", null))
+                .toList();
+    }
+}